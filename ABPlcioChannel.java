@@ -1,13 +1,16 @@
 package atst.giss.abplc;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import atst.base.hardware.connections.ConnectionException;
 import atst.base.hardware.connections.channels.Channel;
 import atst.cs.util.Misc;
-import atst.cs.data.HealthStatus;
 import atst.cs.services.*;
 
 import static atst.giss.OcsToGisIcdConstants.*;
 import atst.giss.abplc.IPlcioCall.PlcioMethodName;
+import atst.giss.abplc.ABPlcioExceptionPLCIO.PlcioErrorCategory;
 
 /**
  * This is the GISS channel class used by the ABPlcioConnection class to read
@@ -65,6 +68,17 @@ public class ABPlcioChannel extends Channel {
 	 * to PLCIO without an open connection the channel's tag name is used to
 	 * communicate error information between JNI PLCIO C code and Java. */
 	private final String channelTagName;
+	
+	/** The tracker reporting the health of this channel, shared by the channels of a connection. */
+	private final ChannelHealthTracker healthTracker;
+	
+	/** The watchdog detecting stalled calls of this channel, shared by the channels of a
+	 * connection, null if calls are not watched. */
+	private final PlcioCallWatchdog callWatchdog;
+	
+	/** The connection numbers of PLCIO connections whose close was deferred as the
+	 * connection was fenced, closed by {@linkplain #closeDeferred()}. Guarded by itself. */
+	private final List<Integer> deferredCloseNumbers = new ArrayList<Integer>();
 
 	private long callTime;
 	private long waitTime;
@@ -79,6 +93,38 @@ public class ABPlcioChannel extends Channel {
 	 * with the PLC.
 	 */
 	protected ABPlcioChannel(String tagName) {
+		this(tagName, new ChannelHealthTracker(HEALTH_CAT_GIS_CHANNEL_ERR));
+	} // end Constructor
+	
+	/**
+	 * Construct a Channel using the given tag name, reporting its health
+	 * using the given tracker.
+	 * 
+	 * @param tagName The name of the tag to be communicated using
+	 * this channel and identify this channel's communication
+	 * with the PLC.
+	 * @param tracker The tracker reporting the health of the channels
+	 * of the connection creating this channel.
+	 */
+	protected ABPlcioChannel(String tagName, ChannelHealthTracker tracker) {
+		this(tagName, tracker, null);
+	} // end Constructor
+	
+	/**
+	 * Construct a Channel using the given tag name, reporting its health
+	 * using the given tracker and registering its calls with the given watchdog.
+	 * 
+	 * @param tagName The name of the tag to be communicated using
+	 * this channel and identify this channel's communication
+	 * with the PLC.
+	 * @param tracker The tracker reporting the health of the channels
+	 * of the connection creating this channel.
+	 * @param watchdog The watchdog detecting stalled calls of the channels
+	 * of the connection creating this channel, null if calls are not watched.
+	 */
+	protected ABPlcioChannel(String tagName, ChannelHealthTracker tracker, PlcioCallWatchdog watchdog) {
+		healthTracker = tracker;
+		callWatchdog = watchdog;
 
 		// get reference to ABPlcioMaster
 		try {
@@ -162,6 +208,16 @@ public class ABPlcioChannel extends Channel {
 	protected int getPlcioConnectionNumber() {
 		return connectionNumber;
 	} // end getPlcioConnectionNumber()
+
+	/**
+	 * Get the PLCIO address of the PLC this channel was last opened to.
+	 *
+	 * @return The PLCIO address passed to {@linkplain #doOpen(String)}, null if
+	 * the channel has never been opened.
+	 */
+	protected String getPlcAddress() {
+		return plcHostname;
+	} // end getPlcAddress()
 	
 	/**
 	 * Get the current connected status of this channel.
@@ -174,58 +230,20 @@ public class ABPlcioChannel extends Channel {
 	
 	protected void doOpen(String address) throws ConnectionException {
 		PlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_OPEN, address, channelTagName, connectionNumber);
-		callTime = System.currentTimeMillis();
-		plcioCall.setCallTime(callTime);
 
-		try {
-			master.plcAccess(plcioCall);
-		} // end try
-		catch (Exception ex) {
-			// due to the ABPlcioMaster running in container's namespace and not controller's namespace
-			// the catching of specific exceptions, e.g. by using:
-			//	catch (ABPlcioExceptionPLCIO ex)
-			// does not work. Therefore here we check against exception class name and
-			// then explicitly throw the more specific exceptions if applicable
-			if (ex.getClass().getName().equals(ABPlcioExceptionPLCIO.class.getName())) {
-				String msg = "Call to plcOpen() to open channel '"+channelTagName+
-						"' to PLC '" + address + "' failed with PLCIO error message: "+
-						ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionPLCIO("ABPlcioChannel: "+msg, ex);
-			}
-			else if (ex.getClass().getName().equals(ABPlcioExceptionJNI.class.getName())) {
-				String msg = "Call to plcOpen() to open channel '"+channelTagName+
-						"' to PLC '"+address+"' failed with JNI error message: "+
-						ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionJNI("ABPlcioChannel: "+msg, ex);
-			}
-			else {
-				String msg = "Call to plcOpen() to open channel '"+channelTagName+
-						"' to PLC '" + address + "' failed with error message: "+
-					ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ConnectionException("ABPlcioChannel: "+msg, ex);
-			}
-		} // end catch
+		if (!access(plcioCall)) {
+			throw callFailed("ABPlcioChannel: ", "Call to plcOpen() to open channel '"+channelTagName+
+					"' to PLC '"+address+"'", plcioCall);
+		}
 		
-		waitTime = plcioCall.getWaitTime();
-		opTime = plcioCall.getOpTime();
 		connectionNumber = plcioCall.getParamConnectionNumber();
 		plcHostname = address;
 		
-		String msg = "Connection channel opened to PLC '"+plcHostname+"' for tag name '"+
-				channelTagName+"' returned connection ch#" + connectionNumber;
-		if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isBad()) {
-			Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.good(msg));
+		healthTracker.succeeded(this, "open");
+		if (Log.getDebugLevel(LOG_CAT) >= 2) {
+			Log.debug(LOG_CAT, 2, "Connection channel opened to PLC '"+plcHostname+"' for tag name '"+
+					channelTagName+"' returned connection ch#" + connectionNumber);
 		}
-		Log.debug(LOG_CAT, 2, msg);
 		
 		return;
 	} // end doOpen()
@@ -240,220 +258,240 @@ public class ABPlcioChannel extends Channel {
 			return;
 		}
 		
+		// while the connection is fenced the close would not be made, the PLCIO
+		// connection is instead closed once the stalled call has returned
+		if ((callWatchdog != null) && callWatchdog.isFenced()) {
+			deferClose(connectionNumber);
+			Log.note(LOG_CAT, "Close of channel '"+channelTagName+"' connection ch#"+connectionNumber+
+					" deferred until connection is no longer fenced");
+			connectionNumber = -1;
+			return;
+		}
+		
 		PlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_CLOSE, connectionNumber);
-		callTime = System.currentTimeMillis();
-		plcioCall.setCallTime(callTime);
 
-		try {
-			master.plcAccess(plcioCall);
-		} // end try
-		catch (Exception ex) {
-			// due to the ABPlcioMaster running in container's namespace and not controller's namespace
-			// the catching of specific exceptions, e.g. by using:
-			//	catch (ABPlcioExceptionPLCIO ex)
-			// does not work. Therefore here we check against exception class name and
-			// then explicitly throw the more specific exceptions if applicable
-			if (ex.getClass().getName().equals(ABPlcioExceptionPLCIO.class.getName())) {
-				String msg = "Call to plcClose() to close channel '"+channelTagName+
-						"' failed with PLCIO error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionPLCIO("ABPlcioChannel: "+msg, ex);
-			}
-			else if (ex.getClass().getName().equals(ABPlcioExceptionJNI.class.getName())) {
-				String msg = "Call to plcClose() to close channel '"+channelTagName+
-						"' failed with JNI error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionJNI("ABPlcioChannel: "+msg, ex);
-			}
-			else {
-				String msg = "Call to plcClose() to close channel '"+channelTagName+
-						"' failed with error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ConnectionException("ABPlcioChannel: "+msg, ex);
-			}
-		} // end catch
-		finally {
-			// set connectionNumber to invalid
-			connectionNumber = -1;
-		} // end finally
+		boolean closed = access(plcioCall);
+		// whether or not the close succeeded set connectionNumber to invalid
+		connectionNumber = -1;
+		if (!closed) {
+			throw callFailed("ABPlcioChannel: ", "Call to plcClose() to close channel '"+channelTagName+"'", plcioCall);
+		}
 
-		waitTime = plcioCall.getWaitTime();
-		opTime = plcioCall.getOpTime();
-		
-		String msg = "Connection channel closed to PLC '"+plcHostname+"' using tag name '"+
-				channelTagName+"' connection ch#" + connectionNumber;
-		if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isBad()) {
-			Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.good(msg));
+		healthTracker.succeeded(this, "close");
+		if (Log.getDebugLevel(LOG_CAT) >= 2) {
+			Log.debug(LOG_CAT, 2, "Connection channel closed to PLC '"+plcHostname+"' using tag name '"+
+					channelTagName+"' connection ch#" + connectionNumber);
 		}
-		Log.debug(LOG_CAT, 2, msg);
 
         return;
 	} // end doClose()
 	
 	protected void read(IPlcTag tag) throws ConnectionException {
 		PlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_READ, connectionNumber, tag);
-		callTime = System.currentTimeMillis();
-		plcioCall.setCallTime(callTime);
 
-		try {
-			master.plcAccess(plcioCall);
-		} // end try
-		catch (Exception ex) {
-			// due to the ABPlcioMaster running in container's namespace and not controller's namespace
-			// the catching of specific exceptions, e.g. by using:
-			//	catch (ABPlcioExceptionPLCIO ex)
-			// does not work. Therefore here we check against exception class name and
-			// then explicitly throw the more specific exceptions if applicable
-			if (ex.getClass().getName().equals(ABPlcioExceptionPLCIO.class.getName())) {
-				String msg = "Call to plcRead() to read tag '"+tag.getName()+"' using channel '"
-						+channelTagName+"' failed with PLCIO error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionPLCIO("ABPlcioChannel: "+msg, ex);
-			}
-			else if (ex.getClass().getName().equals(ABPlcioExceptionJNI.class.getName())) {
-				String msg = "Call to plcRead() to read tag '"+tag.getName()+"' using channel '"+
-						channelTagName+"' failed with JNI error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionJNI("ABPlcioChannel: "+msg, ex);				
-			}
-			else {
-				String msg = "Call to plcRead() to read tag '"+tag.getName()+"' using channel '"
-						+channelTagName+"' failed with error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ConnectionException("ABPlcioChannel: "+msg, ex);
-			}
-		} // end catch
-		
-		waitTime = plcioCall.getWaitTime();
-		opTime = plcioCall.getOpTime();
+		if (!access(plcioCall)) {
+			throw callFailed("ABPlcioChannel: ", "Call to plcRead() to read tag '"+tag.getName()+
+					"' using channel '"+channelTagName+"'", plcioCall);
+		}
 
-		String msg = "Connection channel read from PLC '"+plcHostname+"' using tag name '"+
-				channelTagName+"' connection ch#"+connectionNumber;
-		if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isBad()) {
-			Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.good(msg));
+		healthTracker.succeeded(this, "read");
+		if (Log.getDebugLevel(LOG_CAT) >= 4) {
+			Log.debug(LOG_CAT, 4, "Connection channel read from PLC '"+plcHostname+"' using tag name '"+
+					channelTagName+"' connection ch#"+connectionNumber);
 		}
-		Log.debug(LOG_CAT, 4, msg);
 
 		return;
 	} // end read()
 
 	protected void write(IPlcTag tag) throws ConnectionException {
 		PlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_WRITE, connectionNumber, tag);
-		callTime = System.currentTimeMillis();
-		plcioCall.setCallTime(callTime);
 
-		try {
-			master.plcAccess(plcioCall);
-		} // end try
-		catch (Exception ex) {
-			// due to the ABPlcioMaster running in container's namespace and not controller's namespace
-			// the catching of specific exceptions, e.g. by using:
-			//	catch (ABPlcioExceptionPLCIO ex)
-			// does not work. Therefore here we check against exception class name and
-			// then explicitly throw the more specific exceptions if applicable
-			if (ex.getClass().getName().equals(ABPlcioExceptionPLCIO.class.getName())) {
-				String msg = "Call to plcWrite() to write tag '"+tag.getName()+"' using channel '"+
-						channelTagName+"' failed with PLCIO error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionPLCIO("ABPlcioChannel: "+msg, ex);
-			}
-			else if (ex.getClass().getName().equals(ABPlcioExceptionJNI.class.getName())) {
-				String msg = "Call to plcWrite() to write tag '"+tag.getName()+"' using channel '"+
-						channelTagName+"' failed with JNI error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionJNI("ABPlcioChannel: "+msg, ex);
-			}
-			else {
-				String msg = "Call to plcWrite() to write tag '"+tag.getName()+"' using channel '"+
-						channelTagName+"' failed with error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ConnectionException("ABPlcioChannel: "+msg, ex);
-			}
-		} // end catch
-		
-		waitTime = plcioCall.getWaitTime();
-		opTime = plcioCall.getOpTime();
+		if (!access(plcioCall)) {
+			throw callFailed("ABPlcioChannel: ", "Call to plcWrite() to write tag '"+tag.getName()+
+					"' using channel '"+channelTagName+"'", plcioCall);
+		}
 
-		String msg = "Connection channel written to PLC '"+plcHostname+"' using tag name '"+
-				channelTagName+"' connection ch#" + connectionNumber;
-		if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isBad()) {
-			Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.good(msg));
-		}		
-		Log.debug(LOG_CAT, 4, msg);
+		healthTracker.succeeded(this, "write");
+		if (Log.getDebugLevel(LOG_CAT) >= 4) {
+			Log.debug(LOG_CAT, 4, "Connection channel written to PLC '"+plcHostname+"' using tag name '"+
+					channelTagName+"' connection ch#" + connectionNumber);
+		}
 
 		return;
 	} // end write()
 
 	protected void plcioCall(IPlcioCall plcioCall) throws ConnectionException {
+		PlcioCallStatus status = plcioCallStatus(plcioCall);
+		if (!status.isOk()) {
+			throw status.toException("ABPlcioChannel.plcioCall(): "+describeCall(plcioCall));
+		}
+		return;
+	} // end plcioCall()
+	
+	/**
+	 * Make the PLCIO function call described by the call object, returning the outcome
+	 * of the call rather than throwing an exception if the call fails.
+	 * <p>
+	 * Used where failures of the call, such as a PLCIO timeout, are expected and handled
+	 * by the caller. No exception is created and the message describing a failure is only
+	 * built if it is reported to the channel's health tracker.
+	 * 
+	 * @param plcioCall Describes the PLCIO function call to be made.
+	 * 
+	 * @return The status of the call.
+	 */
+	protected PlcioCallStatus plcioCallStatus(IPlcioCall plcioCall) {
+		if (!access(plcioCall)) {
+			healthTracker.failed(this, plcioCall);
+			return getStatus(plcioCall);
+		}
+
+		healthTracker.succeeded(this, "call of PLCIO " + plcioCall.getMethodName());
+		if (Log.getDebugLevel(LOG_CAT) >= 4) {
+			Log.debug(LOG_CAT, 4, "Connection channel successfully called PLCIO "+plcioCall.getMethodName()+
+					" on PLC '"+plcHostname+"' using tag name '"+channelTagName+
+					"' connection ch#"+connectionNumber);
+		}
+		return PlcioCallStatus.OK;
+	} // end plcioCallStatus()
+	
+	/**
+	 * Describe the failure of a call made by this channel, called by the channel's
+	 * health tracker when the failure is to be reported.
+	 * 
+	 * @param plcioCall The failed call.
+	 * 
+	 * @return The failure's description.
+	 */
+	String describeFailure(IPlcioCall plcioCall) {
+		return getStatus(plcioCall).describeFailure(describeCall(plcioCall));
+	} // end describeFailure()
+	
+	/**
+	 * Close the PLCIO connections whose close was deferred while the connection was
+	 * fenced, called by the channel's watchdog once the connection is no longer fenced.
+	 * A close failing as the connection has been fenced again is deferred again.
+	 */
+	void closeDeferred() {
+		List<Integer> numbers;
+		synchronized (deferredCloseNumbers) {
+			numbers = new ArrayList<Integer>(deferredCloseNumbers);
+			deferredCloseNumbers.clear();
+		}
+		for (int number : numbers) {
+			if ((callWatchdog != null) && callWatchdog.isFenced()) {
+				deferClose(number);
+				continue;
+			}
+			PlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_CLOSE, number);
+			if (access(plcioCall)) {
+				Log.note(LOG_CAT, "Deferred close of channel '"+channelTagName+"' connection ch#"+number+" made");
+			}
+			else {
+				Log.warn(LOG_CAT, "Deferred close of channel '"+channelTagName+"' connection ch#"+number+
+						" failed: "+describeFailure(plcioCall));
+			}
+		}
+	} // end closeDeferred()
+	
+	/*
+	 *  Private methods
+	 */
+	
+	/**
+	 * Record a PLCIO connection to be closed once the connection is no longer fenced,
+	 * closing it now if the connection has been unfenced since it was found to be fenced.
+	 */
+	private void deferClose(int number) {
+		synchronized (deferredCloseNumbers) {
+			deferredCloseNumbers.add(number);
+		}
+		callWatchdog.deferClose(this);
+		if (!callWatchdog.isFenced()) {
+			// unfenced before the close was recorded with the watchdog
+			closeDeferred();
+		}
+	} // end deferClose()
+	
+	/**
+	 * Make a call of the Master, the outcome of the call being recorded in
+	 * the call's status.
+	 * 
+	 * @return true if the call succeeded.
+	 */
+	private boolean access(IPlcioCall plcioCall) {
 		callTime = System.currentTimeMillis();
 		plcioCall.setCallTime(callTime);
 		
-		try {
-			master.plcAccess(plcioCall);
-		} // end try
-		catch (Exception ex) {
-			// due to the ABPlcioMaster running in container's namespace and not controller's namespace
-			// the catching of specific exceptions, e.g. by using:
-			//	catch (ABPlcioExceptionPLCIO ex)
-			// does not work. Therefore here we check against exception class name and
-			// then explicitly throw the more specific exceptions if applicable
-			if (ex.getClass().getName().equals(ABPlcioExceptionPLCIO.class.getName())) {
-				String msg = "Call described by PlcioCall: "+plcioCall.toString()+"' using channel '"+
-						channelTagName+"' failed with PLCIO error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionPLCIO("ABPlcioChannel.plcioCall(): "+msg, ex);
+		// due to the ABPlcioMaster running in container's namespace and not controller's namespace
+		// the catching of specific exceptions thrown by the Master, e.g. by using:
+		//	catch (ABPlcioExceptionPLCIO ex)
+		// does not work. Therefore the Master records the outcome of the call in the call
+		// object's status using only types shared between the namespaces
+		if (callWatchdog == null) {
+			if (!master.plcCall(plcioCall)) {
+				return false;
 			}
-			else if (ex.getClass().getName().equals(ABPlcioExceptionJNI.class.getName())) {
-				String msg = "Call described by PlcioCall: "+plcioCall.toString()+"' using channel '"+
-						channelTagName+"' failed with JNI error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ABPlcioExceptionJNI("ABPlcioChannel.plcioCall(): "+msg, ex);
+		}
+		else {
+			// while a call of the connection is stalled further calls would
+			// only wait for the Master behind it
+			if (callWatchdog.isFenced()) {
+				plcioCall.setStatus(IPlcioCallStatus.Outcome.ERROR, -1, PlcioErrorCategory.FROM_ERROR_CODE,
+						"call not made as connection is fenced while a PLCIO call is stalled");
+				return false;
 			}
-			else {
-				String msg = "Call described by PlcioCall: "+plcioCall.toString()+"' using channel '"+
-						channelTagName+"' failed with error message: "+ex.getMessage();
-				if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isGood()) {
-					Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.bad(msg));
-				}
-				throw new ConnectionException("ABPlcioChannel.plcioCall(): "+msg, ex);
+			PlcioCallWatchdog.Call call = callWatchdog.begin(channelTagName, plcioCall);
+			boolean succeeded;
+			try {
+				succeeded = master.plcCall(plcioCall);
+			} finally {
+				callWatchdog.end(call);
+			}
+			if (!succeeded) {
+				return false;
 			}
-		} // end catch
+		}
 		
 		waitTime = plcioCall.getWaitTime();
 		opTime = plcioCall.getOpTime();
-
-		String msg = "Connection channel successfully called PLCIO "+plcioCall.getMethodName()+
-				" on PLC '"+plcHostname+"' using tag name '"+channelTagName+
-				"' connection ch#"+connectionNumber;
-		if (Health.get(HEALTH_CAT_GIS_CHANNEL_ERR).isBad()) {
-			Health.set(HEALTH_CAT_GIS_CHANNEL_ERR, HealthStatus.good(msg));
+		return true;
+	} // end access()
+	
+	/**
+	 * Report the failure of a call to the health tracker and create the
+	 * exception to be thrown, of the type given by the call's status.
+	 * 
+	 * @param source Prefixed to the message of the exception created.
+	 * @param description Description of the call that failed.
+	 * @param plcioCall The failed call.
+	 * 
+	 * @return The exception to be thrown.
+	 */
+	private ConnectionException callFailed(String source, String description, IPlcioCall plcioCall) {
+		PlcioCallStatus status = getStatus(plcioCall);
+		healthTracker.failed(status, status.describeFailure(description));
+		return status.toException(source+description);
+	} // end callFailed()
+	
+	/**
+	 * Describe a call made by this channel.
+	 */
+	private String describeCall(IPlcioCall plcioCall) {
+		return "Call described by PlcioCall: "+plcioCall.toString()+"' using channel '"+channelTagName+"'";
+	} // end describeCall()
+	
+	/**
+	 * Get the status of a call as a PlcioCallStatus.
+	 */
+	private static PlcioCallStatus getStatus(IPlcioCall plcioCall) {
+		IPlcioCallStatus status = plcioCall.getStatus();
+		if (status instanceof PlcioCallStatus) {
+			return (PlcioCallStatus) status;
 		}
-		Log.debug(LOG_CAT, 4, msg);
-
-		return;
-	} // end plcioCall()
+		return new PlcioCallStatus(status.getOutcome(), status.getPlcioErrorCodeInt(),
+				status.getPlcioErrorCategoryCode(), status.getMessage());
+	} // end getStatus()
 	
 	@Override
 	public String toString() {
@@ -1,6 +1,9 @@
 package atst.giss.abplc;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import atst.cs.data.*;
 import atst.cs.interfaces.*;
@@ -9,6 +12,9 @@ import atst.cs.util.*;
 import atst.base.hardware.connections.ConnectionException;
 import atst.base.hardware.connections.interfaces.IConnection;
 import atst.base.hardware.interfaces.IInterruptHandler;
+import atst.base.tabs.util.PostingTAB;
+
+import static atst.giss.OcsToGisIcdConstants.HEALTH_CAT_GIS_CHANNEL_ERR;
 
 /**
  * This is the GISS abstract connection class from which all GISS controller
@@ -35,6 +41,100 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     private static final String[] LOG_CATS_INUSE = {LOG_CAT, LOG_CAT_PLC_READ, LOG_CAT_PLC_WRITE, LOG_CAT_PLCIO};
     
     private static final String THREAD_NAME_PLCTAGREADER_PREFIX = "gissPlcTagReader_";
+    private static final String THREAD_NAME_PLCTAGCREATE_PREFIX = "gissPlcTagCreate_";
+    
+    /** The propertyDB attribute name containing the maximum number of threads used
+     * to create the connection's PlcTag objects, if not defined the number of
+     * available processors is used. */
+    private static final String PROPERTY_TAG_CREATE_THREADS = "connection:tagCreateThreads";
+    
+    /** The propertyDB attribute name containing whether the connection creates its
+     * tags on first use, if not defined all tags are created on connect. */
+    private static final String PROPERTY_LAZY_TAGS = "connection:lazyTags";
+    
+    /** The propertyDB attribute name containing the type of threads, <code>platform</code>
+     * or <code>virtual</code>, used to connect to the PLC, recover from PLCIO errors and
+     * read tags. If not defined platform threads are used. */
+    private static final String PROPERTY_THREAD_MODE = "connection:threadMode";
+    private static final String THREAD_NAME_PLCIO_PREFIX = "gissPlcio_";
+    
+    /** The propertyDB attribute name containing whether tags read at the same interval
+     * are read together by a {@linkplain PlcTagReadGroup}, if not defined each tag's
+     * reader schedules its own reads. */
+    private static final String PROPERTY_RATE_GROUPS = "connection:rateGroups";
+    
+    /** The propertyDB attribute name containing the maximum wait in seconds between attempts
+     * to reconnect to the PLC, the wait starting at the tags' reconnect interval and doubling
+     * after each failed attempt. If not defined {@linkplain #DEFAULT_RECONNECT_BACKOFF_MAX_MS}
+     * is used. */
+    private static final String PROPERTY_RECONNECT_BACKOFF_MAX = "connection:reconnectBackoffMax";
+    private static final long DEFAULT_RECONNECT_BACKOFF_MAX_MS = 60000;
+    
+    /** The propertyDB attribute names containing the number of threads and the queue size
+     * of the executor running the connection's background tasks, if not defined
+     * {@linkplain #DEFAULT_TASK_THREADS} and {@linkplain #DEFAULT_TASK_QUEUE_SIZE} are used. */
+    private static final String PROPERTY_TASK_THREADS = "connection:taskThreads";
+    private static final String PROPERTY_TASK_QUEUE_SIZE = "connection:taskQueueSize";
+    private static final int DEFAULT_TASK_THREADS = 2;
+    private static final int DEFAULT_TASK_QUEUE_SIZE = 64;
+    /** The maximum time disconnect() waits for background tasks to complete. */
+    private static final long TASK_SHUTDOWN_WAIT_MS = 5000;
+    
+    /** The propertyDB attribute name containing the time in seconds that a channel opened
+     * by readTag() or writeTag() is kept open following its last transfer, so that repeated
+     * transfers of the tag do not each open and close the channel. If not defined
+     * {@linkplain #DEFAULT_CHANNEL_IDLE_TIMEOUT_MS} is used, a value of 0 closes the channel
+     * following each transfer. */
+    private static final String PROPERTY_CHANNEL_IDLE_TIMEOUT = "connection:channelIdleTimeout";
+    private static final long DEFAULT_CHANNEL_IDLE_TIMEOUT_MS = 60000;
+    /** The maximum interval between checks for channels that have been idle for longer
+     * than the channel idle timeout. */
+    private static final long IDLE_SWEEP_INTERVAL_MS = 1000;
+    
+    /** The propertyDB attribute name containing whether the connection's required channels
+     * are opened following connect(), so that their first transfer does not wait for the
+     * channel to open. If not defined channels are not warmed up. */
+    private static final String PROPERTY_WARM_UP = "connection:warmUp";
+    /** The propertyDB attribute name containing whether the warm-up opens the channels of
+     * all the connection's created tags rather than only its required channels. If not
+     * defined only the required channels are opened. */
+    private static final String PROPERTY_WARM_UP_ALL = "connection:warmUpAll";
+    /** The propertyDB attribute name containing the names of the channels that must be open
+     * for the connection to be ready. If not defined only the CStatus tag's channel is required. */
+    private static final String PROPERTY_REQUIRED_CHANNELS = "connection:requiredChannels";
+    private static final String THREAD_NAME_WARMUP_PREFIX = "gissPlcioWarmUp_";
+    
+    /** The propertyDB attribute name containing the number of consecutive failures to connect
+     * to, timeouts reading tags from or channel health trips of the active PLC address after which the connection
+     * switches to the next of the addresses given by <code>.connection:address</code>. If not
+     * defined {@linkplain #DEFAULT_FAILOVER_FAILURES} is used. */
+    private static final String PROPERTY_FAILOVER_FAILURES = "connection:failoverFailures";
+    private static final int DEFAULT_FAILOVER_FAILURES = 3;
+    /** The propertyDB attribute name containing the interval in seconds at which the primary
+     * PLC address is probed while a standby address is active, the connection switching back
+     * to the primary address once probes have succeeded as required by PROPERTY_FAILBACK_PROBES
+     * and PROPERTY_FAILBACK_MIN_TIME. If not defined {@linkplain #DEFAULT_FAILBACK_INTERVAL_MS}
+     * is used. */
+    private static final String PROPERTY_FAILBACK_INTERVAL = "connection:failbackInterval";
+    private static final long DEFAULT_FAILBACK_INTERVAL_MS = 30000;
+    /** The propertyDB attribute name containing the number of consecutive successful probes
+     * of the primary PLC address required before switching back to it. If not defined
+     * {@linkplain #DEFAULT_FAILBACK_PROBES} is used. */
+    private static final String PROPERTY_FAILBACK_PROBES = "connection:failbackProbes";
+    private static final int DEFAULT_FAILBACK_PROBES = 3;
+    /** The propertyDB attribute name containing the minimum time in seconds over which the
+     * consecutive probes of the primary PLC address must have succeeded before switching back
+     * to it. If not defined {@linkplain #DEFAULT_FAILBACK_MIN_TIME_MS} is used. */
+    private static final String PROPERTY_FAILBACK_MIN_TIME = "connection:failbackMinTime";
+    private static final long DEFAULT_FAILBACK_MIN_TIME_MS = 60000;
+    private static final String THREAD_NAME_FAILOVER_PREFIX = "gissPlcioFailover_";
+    
+    /** The propertyDB attribute name containing the multiple of a tag's PLCIO timeout after
+     * which a PLCIO call transferring the tag that has not returned is stalled, see
+     * {@linkplain PlcioCallWatchdog}. If not defined {@linkplain PlcioCallWatchdog#DEFAULT_TIMEOUT_MULTIPLE}
+     * is used. */
+    private static final String PROPERTY_WATCHDOG_TIMEOUT_MULTIPLE = "connection:watchdogTimeoutMultiple";
+    private static final String THREAD_NAME_FENCE_PREFIX = "gissPlcioFence_";
     
     /** The propertyDB attribute name containing connection's current simulation status. */
     private static final String PROPERTY_CONNECTION_SIM = "connection:isSimulated";
@@ -52,22 +152,50 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     /*
      * Protected class constants
      */
-    protected static final String THREAD_NAME_CONNECT_PREFIX = "gissPlcConnect_";
     protected static final String THREAD_NAME_PLCIOERRORRECOVER_PREFIX = "gissPlcioErrorRecover_";
     protected static final String PROPERTY_OPEN_CH_NAMES = "connection:openChNames";
+    /** The Cache attribute name containing whether all the connection's required channels are open. */
+    protected static final String PROPERTY_READY = "connection:ready";
+    /** The Cache attribute name containing the result of opening each channel during warm-up. */
+    protected static final String PROPERTY_WARM_UP_REPORT = "connection:warmUpReport";
+    /** The Cache attribute name containing the PLC address the connection is using. */
+    protected static final String PROPERTY_ACTIVE_ADDRESS = "connection:activeAddress";
+    /** The Cache attribute name containing the time in seconds from the connection's last
+     * switch of PLC address to the connection being ready using the new address. */
+    protected static final String PROPERTY_FAILOVER_TIME = "connection:failoverTime";
+    /** The Cache attribute name containing the number of times each PLCIO error code not
+     * handled by the GISS has been received, updated when such an error is recovered from. */
+    protected static final String PROPERTY_PLCIO_ERRORS_NOT_HANDLED = "connection:plcioErrorsNotHandled";
+    /** The Cache attribute name containing the statistics of the connection's task executor,
+     * see {@linkplain PlcioTaskExecutor#toStringArray()}, published every
+     * {@linkplain PlcTagReaderStats#PUBLISH_INTERVAL_MS} while connected. */
+    protected static final String PROPERTY_TASK_STATS = "connection:taskStats";
 
     /*
      * Protected instance variables
      */
-    /** String containing the GIS PLC address - value set in doConnect. */
-    protected String gisAddress = null;
+    /** String containing the PLCIO address of the GIS PLC address in use - value set in
+     * doConnect and changed when the connection switches PLC address. */
+    protected volatile String gisAddress = null;
     
     // Structures used to hold information about tags and associated
     // items used by this connection's controller
     protected Map<String,PlcTag> tagMap = null;
     protected Map<String,ABPlcioChannel> tagChMap = null;
     protected Map<String,PlcTagReader> tagReaderMap = null;
-    protected Map<String,ConnectReadTagThread> connectReadTagThreadMap = null;
+    protected Map<String,ConnectReadTagTask> connectReadTagTaskMap = null;
+    /** The connection's open channels, published to the Cache as {@linkplain #PROPERTY_OPEN_CH_NAMES}. */
+    protected final OpenChannelRegistry openChannelRegistry = new OpenChannelRegistry(PROPERTY_OPEN_CH_NAMES);
+    /** The tracker reporting the health of all the connection's channels. */
+    protected final ChannelHealthTracker channelHealth =
+            new ChannelHealthTracker(HEALTH_CAT_GIS_CHANNEL_ERR, new HealthChangeInterruptHandler());
+    /** The watchdog detecting stalled PLCIO calls of all the connection's channels, fencing
+     * the connection while a call is stalled. */
+    protected final PlcioCallWatchdog callWatchdog =
+            new PlcioCallWatchdog(getClass().getSimpleName(), new CallStallInterruptHandler());
+    /** The names of tags whose PLCIO error is being recovered from by a PlcioErrorRecoverThread. */
+    private final Set<String> recoveringTagNames =
+            Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>());
     
     // Strings containing this connection's controller's tag
     // names of the common EMCS tag types
@@ -83,6 +211,71 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     private boolean isInterlocked;
     private int cmdID;
     
+    /** Names of the enabled tags that have not yet been created, null unless
+     * the connection creates its tags on first use. */
+    private Set<String> lazyTagNames = null;
+    /** Lock held while creating a tag on first use. */
+    private final Object lazyTagLock = new Object();
+    /** Factory creating the connection's connect, error recovery and tag read threads,
+     * replaced in connect() by a factory using the mode set by PROPERTY_THREAD_MODE. */
+    private volatile PlcioThreadFactory threadFactory =
+            new PlcioThreadFactory(THREAD_NAME_PLCIO_PREFIX, PlcioThreadFactory.ThreadMode.PLATFORM);
+    /** The running groups reading this connection's tags together by group key,
+     * see {@linkplain PlcTagReadGroup}. Groups are never shared with other connections. */
+    private final Map<String,PlcTagReadGroup> readGroups = new HashMap<String,PlcTagReadGroup>();
+    /** The executor running the connection's background tasks, created in connect()
+     * and shut down in disconnect(). */
+    private volatile PlcioTaskExecutor taskExecutor = null;
+    /** The time a channel opened by readTag() or writeTag() is kept open following its
+     * last transfer, set in connect() from PROPERTY_CHANNEL_IDLE_TIMEOUT. */
+    private volatile long channelIdleTimeoutMs = DEFAULT_CHANNEL_IDLE_TIMEOUT_MS;
+    /** The time of the last transfer of each channel kept open by readTag() or writeTag(),
+     * by channel name. */
+    private final Map<String,Long> keptOpenChannels = new ConcurrentHashMap<String,Long>();
+    /** Whether a check for idle channels has been scheduled but not yet run. */
+    private final AtomicBoolean idleSweepScheduled = new AtomicBoolean(false);
+    private final Runnable idleSweepTask = new Runnable() {
+        @Override
+        public void run() {
+            idleSweepScheduled.set(false);
+            closeIdleChannels();
+        }
+    };
+    private final Runnable taskStatsTask = new Runnable() {
+        @Override
+        public void run() {
+            publishTaskStats();
+        }
+    };
+    /** The names of the channels that must be open for the connection to be ready,
+     * set in connect() from PROPERTY_REQUIRED_CHANNELS. */
+    private volatile Set<String> requiredChannelNames = Collections.emptySet();
+    /** The ready state last stored in the Cache, null if not yet stored. Guarded by readyLock. */
+    private Boolean ready = null;
+    private final Object readyLock = new Object();
+    /** The connection's PLC addresses and which is active, created in connect(). */
+    private volatile PlcAddressFailover addressFailover = null;
+    /** Whether a switch of PLC address is in progress. */
+    private final AtomicBoolean addressSwitching = new AtomicBoolean(false);
+    /** The interval at which the primary address is probed while a standby address is
+     * active, set in connect() from PROPERTY_FAILBACK_INTERVAL. */
+    private volatile long failbackIntervalMs = DEFAULT_FAILBACK_INTERVAL_MS;
+    /** Whether a probe of the primary address has been scheduled but not yet run. */
+    private final AtomicBoolean failbackScheduled = new AtomicBoolean(false);
+    private final Runnable failbackTask = new Runnable() {
+        @Override
+        public void run() {
+            failbackScheduled.set(false);
+            probePrimaryAddress();
+        }
+    };
+    /** The tracker of the channels probing the primary address, not reported to the Health service. */
+    private final ChannelHealthTracker probeHealth = new ChannelHealthTracker(null);
+    /** The names of the tags whose readers were stopped when the connection was fenced,
+     * restarted when it is unfenced. Guarded by fenceLock. */
+    private final Set<String> fencedReaderNames = new LinkedHashSet<String>();
+    private final Object fenceLock = new Object();
+    
     /*
      * Public methods
      */
@@ -112,6 +305,17 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
      * <li> Read from propertyDB this connection's isSimulated status (.connection:isSimulated).
      * Only if isSimulated=false does the connection connect to the real GIS PLC,
      * otherwise the VGIS simulator is used.
+     * <li> The first address is the primary address of the GIS PLC and is used initially, any
+     * further addresses are standby addresses. After <code>.connection:failoverFailures</code>
+     * consecutive failures of the active address the connection switches its channels to the
+     * next address. A failure is a failure to connect, a PLCIO timeout reading a tag or the
+     * channels' health tripping bad due to any other error, the health returning good
+     * clearing the failures. While a standby address is active
+     * the primary address is probed every <code>.connection:failbackInterval</code> seconds and
+     * the connection switches back once it is available. The active address is stored in the
+     * Cache as <code>.connection:activeAddress</code>, and the time from a switch to the
+     * connection being ready again as <code>.connection:failoverTime</code>. Standby addresses
+     * are not used in simulation.
      * <li> If log category ABPLCIO_CONNECTION_PLCIO is greater than 0 (zero)
      * signal to PLCIO to log debug messages in file /var/tmp/plcio.log.
      * <li> Obtain list of all PLC tags used by this connection's controller from
@@ -119,13 +323,28 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
      * If no such property exists for controller then a <code>ConnectionException</code>
      * is thrown.
      * <li> A {@linkplain PlcTag#PlcTag(String)} object is created for each tag
-     * contained in the tag list. Tag objects are destroyed in {@linkplain #disconnect()}.
+     * contained in the tag list, tags are created concurrently and all tags with bad
+     * metadata are reported together. Tag objects are destroyed in {@linkplain #disconnect()}.
+     * If the propertyDB attribute <code>.connection:lazyTags</code> is true only the CStatus
+     * tag is created here, all other tags are registered by name and created, along with
+     * their channel, on their first use.
      * <li> For each tag create a {@linkplain ABPlcioChannel#ABPlcioChannel(String)} object
      * and add to the <code>IChannel</code> <code>Set</code> returned by this method.
+     * <li> Store <code>.connection:ready</code> false, it becomes true once the channels
+     * named by <code>.connection:requiredChannels</code>, by default the CStatus tag's
+     * channel, are open.
+     * <li> Start the connection's {@linkplain PlcioCallWatchdog}, a PLCIO call is stalled once
+     * it has not returned after <code>.connection:watchdogTimeoutMultiple</code> times its tag's
+     * PLCIO timeout. While a call is stalled the connection is fenced, its tags' readers are
+     * stopped and its channels make no PLCIO calls, until the stalled call returns.
+     * <li> If the propertyDB attribute <code>.connection:warmUp</code> is true start a
+     * {@linkplain ChannelWarmUp} opening the required channels, or the channels of all
+     * created tags if <code>.connection:warmUpAll</code> is also true, this method does
+     * not wait for the warm-up to complete.
      * </ol>
      * 
-     * @param addresses  The network address of the GIS PLC obtained by the CSF from the
-     * controller's <code>.connection:address</code> propertyDB attribute.
+     * @param addresses  The network addresses of the GIS PLC, primary address first, obtained
+     * by the CSF from the controller's <code>.connection:address</code> propertyDB attribute.
      * 
      * @throws ConnectionException When any failure occurs from which the connection
      * cannot recover.
@@ -136,29 +355,61 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
             throw new ConnectionException("Error bad address: addresses == null");
         if (addresses.length == 0)
             throw new ConnectionException("Error bad address: addresses.length  == 0");
-        if (addresses.length > 1)
-            throw new ConnectionException("Error bad address: addreses.length > 1");
         String address = addresses[0];
+        String[] plcAddresses;
         // create correct address for EMCS PLC
         if (Cache.lookup(PROPERTY_CONNECTION_SIM).getBoolean()) {
             isSimulated = true;
-            gisAddress = VIRTUAL_GIS_ADDRESS;
+            plcAddresses = new String[] {VIRTUAL_GIS_ADDRESS};
             Log.note(LOG_CAT, "Connection property ."+PROPERTY_CONNECTION_SIM+"="+
                     Cache.lookup(PROPERTY_CONNECTION_SIM).getBoolean()+
-                    " - connecting to VEMCS using address '"+gisAddress+"'");
+                    " - connecting to VEMCS using address '"+VIRTUAL_GIS_ADDRESS+"'"+
+                    ((addresses.length > 1) ? (", " + (addresses.length - 1) + " standby address(es) not used") : ""));
         }
         else {
             isSimulated = false;
-            // when not in simulation param 'address' contains the IP address of the
-            // GIS PLC - need to add PLCIO communication module and if appropriate
-            // switch on debug
-            gisAddress = PLCIO_COMMS_MODULE + " " + address;
+            plcAddresses = addresses.clone();
+        }
+        String[] plcioAddresses = new String[plcAddresses.length];
+        for (int i = 0; i < plcAddresses.length; i++) {
+            if (plcAddresses[i] == null)
+                throw new ConnectionException("Error bad address: addresses[" + i + "] == null");
+            // when not in simulation the addresses contain the IP addresses of the
+            // GIS PLC - need to add PLCIO communication module
+            plcioAddresses[i] = isSimulated ? plcAddresses[i] : (PLCIO_COMMS_MODULE + " " + plcAddresses[i]);
+            // and if appropriate switch on debug
+            if (Log.getDebugLevel(LOG_CAT_PLCIO) > 0) {
+                plcioAddresses[i] = PLCIO_DEBUG_ON + plcioAddresses[i];
+            }
         }
-        // is PLCIO debug to be switched on?
         if (Log.getDebugLevel(LOG_CAT_PLCIO) > 0) {
-            gisAddress = PLCIO_DEBUG_ON + gisAddress;
             Log.debug(LOG_CAT_PLCIO, 1, "PLCIO debug switched on, PLCIO debug messages will be in file '/var/tmp/plcio.log'");
         }
+        int failoverFailures = DEFAULT_FAILOVER_FAILURES;
+        if (Cache.contains(PROPERTY_FAILOVER_FAILURES)) {
+            failoverFailures = Cache.lookup(PROPERTY_FAILOVER_FAILURES).getInteger();
+        }
+        failbackIntervalMs = DEFAULT_FAILBACK_INTERVAL_MS;
+        if (Cache.contains(PROPERTY_FAILBACK_INTERVAL)) {
+            failbackIntervalMs = (long) (1000 * Cache.lookup(PROPERTY_FAILBACK_INTERVAL).getDouble());
+        }
+        int failbackProbes = DEFAULT_FAILBACK_PROBES;
+        if (Cache.contains(PROPERTY_FAILBACK_PROBES)) {
+            failbackProbes = Cache.lookup(PROPERTY_FAILBACK_PROBES).getInteger();
+        }
+        long failbackMinTimeMs = DEFAULT_FAILBACK_MIN_TIME_MS;
+        if (Cache.contains(PROPERTY_FAILBACK_MIN_TIME)) {
+            failbackMinTimeMs = (long) (1000 * Cache.lookup(PROPERTY_FAILBACK_MIN_TIME).getDouble());
+        }
+        addressFailover = new PlcAddressFailover(plcAddresses, plcioAddresses, failoverFailures,
+                failbackProbes, failbackMinTimeMs);
+        gisAddress = addressFailover.getActivePlcioAddress();
+        Cache.store(new Attribute(PROPERTY_ACTIVE_ADDRESS, addressFailover.getActiveAddress()));
+        if (addressFailover.hasStandby()) {
+            Log.note(LOG_CAT, "Connection using primary address '" + addressFailover.getActiveAddress() + "', " +
+                    (plcAddresses.length - 1) + " standby address(es), switching after " +
+                    addressFailover.getFailureThreshold() + " consecutive failure(s) of the active address");
+        }
 
         Log.debug(LOG_CAT, 2, "doConnect() called, connection is using address '" + gisAddress + "' to GIS PLC");
         
@@ -166,6 +417,47 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         isInterlocked = false;
         cmdID = 0;
         
+        // create the factory for the threads that connect, recover and read tags
+        if (Cache.contains(PROPERTY_THREAD_MODE)) {
+            threadFactory = new PlcioThreadFactory(THREAD_NAME_PLCIO_PREFIX,
+                    PlcioThreadFactory.ThreadMode.parse(Cache.lookup(PROPERTY_THREAD_MODE).getString()));
+        }
+        Log.debug(LOG_CAT, 2, "Connection using " + threadFactory.getMode() + " threads");
+        
+        // create the executor running the connection's background tasks
+        int taskThreads = DEFAULT_TASK_THREADS;
+        if (Cache.contains(PROPERTY_TASK_THREADS)) {
+            taskThreads = Cache.lookup(PROPERTY_TASK_THREADS).getInteger();
+        }
+        int taskQueueSize = DEFAULT_TASK_QUEUE_SIZE;
+        if (Cache.contains(PROPERTY_TASK_QUEUE_SIZE)) {
+            taskQueueSize = Cache.lookup(PROPERTY_TASK_QUEUE_SIZE).getInteger();
+        }
+        if (taskExecutor != null) {
+            taskExecutor.shutdownAndWait(TASK_SHUTDOWN_WAIT_MS);
+        }
+        // tasks scheduled on a shut down executor are never run
+        idleSweepScheduled.set(false);
+        failbackScheduled.set(false);
+        taskExecutor = new PlcioTaskExecutor(address, taskThreads, taskQueueSize, threadFactory);
+        openChannelRegistry.setPublishExecutor(taskExecutor);
+        scheduleTask(taskStatsTask, THREAD_NAME_PLCIO_PREFIX + "taskStats", PlcTagReaderStats.PUBLISH_INTERVAL_MS);
+        
+        // watch for PLCIO calls that do not return
+        double watchdogTimeoutMultiple = PlcioCallWatchdog.DEFAULT_TIMEOUT_MULTIPLE;
+        if (Cache.contains(PROPERTY_WATCHDOG_TIMEOUT_MULTIPLE)) {
+            watchdogTimeoutMultiple = Cache.lookup(PROPERTY_WATCHDOG_TIMEOUT_MULTIPLE).getDouble();
+        }
+        callWatchdog.start(watchdogTimeoutMultiple);
+        
+        // read how long channels opened by readTag() and writeTag() are kept open
+        channelIdleTimeoutMs = DEFAULT_CHANNEL_IDLE_TIMEOUT_MS;
+        if (Cache.contains(PROPERTY_CHANNEL_IDLE_TIMEOUT)) {
+            channelIdleTimeoutMs = (long) (1000 * Cache.lookup(PROPERTY_CHANNEL_IDLE_TIMEOUT).getDouble());
+        }
+        Log.debug(LOG_CAT, 2, "Channels opened by readTag()/writeTag() " + ((channelIdleTimeoutMs > 0) ?
+                ("kept open until idle for " + channelIdleTimeoutMs + "ms") : "closed following each transfer"));
+        
         // create PlcTag objects for all PLC tags that this connection's
         // controller uses - the controller's properties contain a list of
         // all tags used by this controller
@@ -175,26 +467,31 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         if ((tagList != null) && (tagList.length > 0)) {
             Log.debug(LOG_CAT, 2, "Controller's tagList contains the tag names: " + Misc.array2string(tagList));
 
-            tagMap = new HashMap<String,PlcTag>(tagList.length);
-            for (String tagName : tagList) {
-                // only create tag objects that have a tag name property defined
-                // in the property DB - a tag name property can be removed from
-                // the property DB to temporarily disable use of the tag
-                if (Cache.contains(IPlcTag.PROPERTY_TAG + ":" + tagName)) {
-                    try {
-                        tagMap.put(tagName, (new PlcTag(tagName)));
-                        
-                    } catch (ABPlcioExceptionBadPlcTagProperties ex) {
-                        throw new ConnectionException("The Plc tag named '" + tagName + "' has bad metadata " +
-                                "property in the propertyDB. Exception when creating PlcTag object: " +
-                                Misc.getExceptionAsString(ex));
+            List<String> enabledTagNames = getEnabledTagNames(tagList);
+            
+            // when tags are created on first use only the CStatus tag and other periodically
+            // read tags, which are read from startup, are created now - all other tags are
+            // registered by name
+            if (Cache.contains(PROPERTY_LAZY_TAGS) && Cache.lookup(PROPERTY_LAZY_TAGS).getBoolean()) {
+                lazyTagNames = Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>());
+                List<String> eagerTagNames = new ArrayList<String>();
+                for (String tagName : enabledTagNames) {
+                    if (tagName.endsWith(IPlcTag.GIS_TAG_TYPE_CSTATUS) ||
+                            Cache.contains(IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_INTERVAL)) {
+                        eagerTagNames.add(tagName);
+                    }
+                    else {
+                        lazyTagNames.add(tagName);
                     }
                 }
-                else {
-                    Log.warn(LOG_CAT, "The use of tag '" + tagName + "' has been disabled as no property '." +
-                            IPlcTag.PROPERTY_TAG + ":" + tagName + "' exists");
-                }
+                enabledTagNames = eagerTagNames;
+                Log.debug(LOG_CAT, 2, "Creating tags on first use, " + lazyTagNames.size() +
+                        " tags registered for later creation");
+            }
+            else {
+                lazyTagNames = null;
             }
+            tagMap = new ConcurrentHashMap<String,PlcTag>(createPlcTags(enabledTagNames));
             Log.note("TagMap: "+tagMap.toString());
         }
         else {
@@ -205,19 +502,19 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         
         // create HashMap to contain any PLC tag reader objects this controller's
         // connection requires
-        tagReaderMap = new HashMap<String,PlcTagReader>();
-        // create HashMap used to hold any Connection Threads attempting to establish
+        tagReaderMap = new ConcurrentHashMap<String,PlcTagReader>();
+        // create HashMap used to hold any tasks attempting to establish
         // connection to EMCS PLC read tags
-        connectReadTagThreadMap = new HashMap<String,ConnectReadTagThread>();
+        connectReadTagTaskMap = new ConcurrentHashMap<String,ConnectReadTagTask>();
         
         // create connection's tag channels and store in tagChMap, also
         // stored in a Set<IChannel> as this must be returned by this method
-        tagChMap = new HashMap<String,ABPlcioChannel>(tagList.length);
+        tagChMap = new ConcurrentHashMap<String,ABPlcioChannel>(tagList.length);
         
         // for each PLC tag create a channel object to read/write it to/from the EMCS
         // and set its Cached connectionStatus to false
         for (String tagName : tagMap.keySet()) {
-            ABPlcioChannel ch = new ABPlcioChannel(tagName);
+            ABPlcioChannel ch = new ABPlcioChannel(tagName, channelHealth, callWatchdog);
             tagChMap.put(tagName, ch);
             
             updateCacheConnectionStatus(tagName, false);
@@ -233,6 +530,34 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
             //}
         }
         
+        // the connection is ready once all required channels are open
+        Set<String> required = new LinkedHashSet<String>();
+        if (Cache.contains(PROPERTY_REQUIRED_CHANNELS)) {
+            required.addAll(Arrays.asList(Cache.lookup(PROPERTY_REQUIRED_CHANNELS).getStringArray()));
+        }
+        else if (tagCStatusName != null) {
+            required.add(tagCStatusName);
+        }
+        requiredChannelNames = Collections.unmodifiableSet(required);
+        updateReadyStatus();
+        
+        // optionally open the required, or all, channels now rather than on first use
+        if (Cache.contains(PROPERTY_WARM_UP) && Cache.lookup(PROPERTY_WARM_UP).getBoolean()) {
+            if (channelIdleTimeoutMs > 0) {
+                Set<String> warmUpNames = new LinkedHashSet<String>(required);
+                if (Cache.contains(PROPERTY_WARM_UP_ALL) && Cache.lookup(PROPERTY_WARM_UP_ALL).getBoolean()) {
+                    List<String> tagNames = new ArrayList<String>(tagMap.keySet());
+                    Collections.sort(tagNames);
+                    warmUpNames.addAll(tagNames);
+                }
+                new ChannelWarmUp(warmUpNames).start(taskExecutor);
+            }
+            else {
+                Log.warn(LOG_CAT, "Connection property ."+PROPERTY_WARM_UP+" is true but ."+
+                        PROPERTY_CHANNEL_IDLE_TIMEOUT+"=0 so opened channels would not be kept open - no warm-up");
+            }
+        }
+        
     } // end doConnect()
 
     @Override
@@ -249,12 +574,32 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
             tagMap = null;
             tagChMap = null;
             tagReaderMap = null;
-            connectReadTagThreadMap = null;
+            connectReadTagTaskMap = null;
+            openChannelRegistry.setPublishExecutor(null);
+            if (taskExecutor != null) {
+                taskExecutor.shutdownAndWait(TASK_SHUTDOWN_WAIT_MS);
+                // publish the executor's final totals
+                Cache.store(new Attribute(PROPERTY_TASK_STATS, taskExecutor.toStringArray()));
+                taskExecutor = null;
+            }
+            idleSweepScheduled.set(false);
+            failbackScheduled.set(false);
+            lazyTagNames = null;
+            keptOpenChannels.clear();
+            requiredChannelNames = Collections.emptySet();
+            addressFailover = null;
+            callWatchdog.stop();
+            synchronized (fenceLock) {
+                fencedReaderNames.clear();
+            }
+            // publish the now empty list of open channels immediately
+            openChannelRegistry.publish();
             tagCStatusName = null;
             tagCStatus = null;
             tagCmdsName = null;
             tagCmds = null;
             cmdID = 0;
+            updateReadyStatus();
             Log.debug(LOG_CAT, 2, "Final channel closed.");
         }
     }
@@ -265,16 +610,14 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         
         // only attempt to close channels that are open
         if (tagCh.isConnected()) {  
-            // if this is the CStatus tag and its read thread has been started, stop
-            // the thread before closing the channel
-            if (tagReaderMap.containsKey(tagCStatusName)) {
-                if (tagCh.equals(tagChMap.get(tagCStatusName))) {
-                    tagReaderMap.get(tagCStatusName).stop();
-                    tagReaderMap.remove(tagCStatusName);
-                    Log.debug(LOG_CAT, 3, "Prior to disconnect of channel '" + tagCh.getTagName() +
-                            "' (ch#" + tagCh.getPlcioConnectionNumber() +
-                            ") stopped read of tag '" + tagCStatusName + "'");
-                }
+            // if the channel's tag is being read by a PlcTagReader, stop
+            // the reader before closing the channel
+            PlcTagReader tagReader = tagReaderMap.remove(tagCh.getTagName());
+            if (tagReader != null) {
+                tagReader.stop();
+                Log.debug(LOG_CAT, 3, "Prior to disconnect of channel '" + tagCh.getTagName() +
+                        "' (ch#" + tagCh.getPlcioConnectionNumber() +
+                        ") stopped read of tag '" + tagCh.getTagName() + "'");
             }
             
             // now close the channel
@@ -284,12 +627,13 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
             }
         }
         else {
-            // if channel is not connected ensure it's connection thread
-            // is stopped if it is running
-            if (connectReadTagThreadMap.containsKey(tagCh.getTagName())) {
-                connectReadTagThreadMap.get(tagCh.getTagName()).stop();
+            // if channel is not connected ensure it's connection task
+            // is cancelled if it is waiting to connect
+            ConnectReadTagTask connectTask = connectReadTagTaskMap.get(tagCh.getTagName());
+            if (connectTask != null) {
+                connectTask.cancel();
                 Log.debug(LOG_CAT, 2, "In doDisconnect() no channel for tag '" + tagCh.getTagName() +
-                        "' is opened but its running connection thread has been stopped");
+                        "' is opened but its waiting connection task has been cancelled");
             }
         }
         
@@ -327,49 +671,60 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     // Documented in IABPlcioConnection
     @Override
     public boolean isConnected() {
-        if (Cache.lookup(PROPERTY_OPEN_CH_NAMES).getStringArray().length > 0) {
-            return true;
-        }
-        return false;
+        return !openChannelRegistry.isEmpty();
     } // end isConnected()
     
     // Documented in IABPlcioConnection
     @Override
     public void startPlcTagReaders()  {
         // the reading of EMCS tag containing the current hardware status (CStatus)
-        // is begun on component startup - open tag's channel and start thread to
-        // read tag at defined interval.
-        if (tagCStatusName != null) {
-            // ensure that a ConnectReadTagThread is not running for this tag
-            if (connectReadTagThreadMap.containsKey(tagCStatusName)) {
-                Log.warn(LOG_CAT, "startPlcTagReaders() connect thread already running for tag '"+
-                        tagCStatusName+"' - not starting another ConnectReadTagThread for "+tagCStatusName);
-                return;
+        // and of all other tags with a read interval is begun on component startup -
+        // open each tag's channel and start its reader to read tag at defined interval.
+        if (tagCStatusName == null) {
+            Log.warn(LOG_CAT, "Controller's properties do not contain tag name " +
+                    "conforming to tag type '" + IPlcTag.GIS_TAG_TYPE_CSTATUS +
+                    "' therefore this controller is unable to read hardware status.");
+        }
+        for (String tagName : getPeriodicTagNames()) {
+            startPlcTagReader(tagName);
+        }
+    } // end startPlcTagReaders()
+    
+    // Documented in IABPlcioConnection
+    @Override
+    public boolean startPlcTagReader(String tagName) {
+        if (!isPeriodicTagName(tagName)) {
+            Log.warn(LOG_CAT, "startPlcTagReader() tag '" + tagName + "' is not a read tag with property '" +
+                    IPlcTag.PROPERTY_INTERVAL + "' - no PlcTagReader started");
+            return false;
+        }
+        synchronized (connectReadTagTaskMap) {
+            // ensure that a ConnectReadTagTask is not waiting for this tag
+            if (connectReadTagTaskMap.containsKey(tagName)) {
+                Log.warn(LOG_CAT, "startPlcTagReader() connect task already waiting for tag '"+
+                        tagName+"' - not submitting another ConnectReadTagTask for "+tagName);
+                return false;
             }
             // and ensure that a PlcTagReader is not already started
-            if (tagReaderMap.containsKey(tagCStatusName)) {
-                Log.warn(LOG_CAT, "startPlcTagReaders() PlcTagReader already started for tag '"+
-                        tagCStatusName+" - not starting another PlcTagReader for "+tagCStatusName);
-                return;
+            if (tagReaderMap.containsKey(tagName)) {
+                Log.warn(LOG_CAT, "startPlcTagReader() PlcTagReader already started for tag '"+
+                        tagName+" - not starting another PlcTagReader for "+tagName);
+                return false;
             }
             
-            // the opening of channel to read the tag is done by a thread to enable
-            // connection attempts to continue if connection cannot be made immediately.
-            // ConnectReadTagThread passes to the PlcTagReader it starts the
+            // the opening of channel to read the tag is done by the PLC address's reconnect
+            // supervisor to enable connection attempts to continue if connection cannot be
+            // made immediately. ConnectReadTagTask passes to the PlcTagReader it starts the
             // InterruptHandler to be called when tag's connection is lost
-            PlcioErrorInterruptHandler connectionLostIH = new PlcioErrorInterruptHandler(tagCStatusName);
-            connectReadTagThreadMap.put(tagCStatusName, (new ConnectReadTagThread(tagCStatusName,
-                    IPlcTag.GIS_TAG_TYPE_CSTATUS.toUpperCase(), connectionLostIH, null)));
-            
-            Misc.startDaemon(connectReadTagThreadMap.get(tagCStatusName), THREAD_NAME_CONNECT_PREFIX+tagCStatusName);
-            
-        }
-        else {
-            Log.warn(LOG_CAT, "Controller's properties do not contain tag name " +
-                    "conforming to tag type '" + IPlcTag.GIS_TAG_TYPE_CSTATUS +
-                    "' therefore this controller is unable to read hardware status.");
+            String logCatSuffix = tagName.equals(tagCStatusName) ?
+                    IPlcTag.GIS_TAG_TYPE_CSTATUS.toUpperCase() : tagName.toUpperCase();
+            PlcioErrorInterruptHandler connectionLostIH = new PlcioErrorInterruptHandler(tagName);
+            ConnectReadTagTask connectTask = new ConnectReadTagTask(tagName, logCatSuffix, connectionLostIH, null);
+            connectReadTagTaskMap.put(tagName, connectTask);
+            connectTask.submit();
         }
-    } // end startPlcTagReaders()
+        return true;
+    } // end startPlcTagReader()
     
     // Documented in IABPlcioConnection
     @Override
@@ -422,17 +777,18 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     @Override
     public boolean isValidTagName(String tagName) {
         // does tagName contain a tag that this connection's controller uses?
-        return tagMap.containsKey(tagName);
+        return (tagMap.containsKey(tagName) ||
+                ((lazyTagNames != null) && lazyTagNames.contains(tagName)));
     }
     
     // Documented in IABPlcioConnection
     @Override
     public boolean isValidTagNameItemName(String tagName, String itemName) {
         // does tagName contain a tag that this connection's controller uses?
-        if (tagMap.containsKey(tagName)) {
+        if (isValidTagName(tagName)) {
             // the tagName is valid, does this tag contain itemName?
-            PlcTag tag = tagMap.get(tagName);
-            return tag.isValidTagItem(itemName);
+            PlcTag tag = getPlcTagLogged(tagName);
+            return ((tag != null) && tag.isValidTagItem(itemName));
         }
         return false;
     }
@@ -440,15 +796,15 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     // Documented in IABPlcioConnection
     @Override
     public boolean isReadTag(String tagName) {
-        PlcTag tag = tagMap.get(tagName);
-        return (tag.getDirection() == IPlcTag.DIRECTION_READ);
+        PlcTag tag = getPlcTagLogged(tagName);
+        return ((tag != null) && (tag.getDirection() == IPlcTag.DIRECTION_READ));
     }
     
     // Documented in IABPlcioConnection
     @Override
     public boolean isWriteTag(String tagName) {
-        PlcTag tag = tagMap.get(tagName);
-        return (tag.getDirection() == IPlcTag.DIRECTION_WRITE);
+        PlcTag tag = getPlcTagLogged(tagName);
+        return ((tag != null) && (tag.getDirection() == IPlcTag.DIRECTION_WRITE));
     }
     
     // Documented in IABPlcioConnection
@@ -457,49 +813,47 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         // read each tag named in table from the EMCS PLC
         for (String attName : tbl.getNames()) {
             String tagName = PlcTag.getTagNameFromAttributeName(attName);
-            PlcTag tag = tagMap.get(tagName);
-            ABPlcioChannel tagCh = tagChMap.get(tagName);
+            PlcTag tag = getPlcTag(tagName);
+            ABPlcioChannel tagCh = getTagChannel(tagName);
             
-            // check if tag's channel is already open - if not open it
-            boolean chClosedAtStart = (!tagCh.isConnected());
-            if (chClosedAtStart) {
-                tagCh.open(gisAddress);
-                if (tagCh.isConnected()) {
-                    updateCacheConnectionStatus(tagName, true);
-                }
-            }
-            else {
-                Log.warn(LOG_CAT_PLC_READ, "Using already opened channel to read tag " + tagName +
-                        ". Channel details: " + tagCh.toString());
-            }
-            
-            // read the tag
-            try {
-                if (Log.getDebugLevel(LOG_CAT_PLC_READ) >= 4) {
-                    Log.debug(LOG_CAT_PLC_READ, 4, "Prior to tag read tag = " + tag.toString());
-                }
-                
-                tagCh.read(tag);
+            // open the tag's channel if it is not already open, the channel's
+            // lock is held so that it is not closed as idle during the read
+            synchronized (tagCh) {
+                boolean openedForRead = beginTransfer(tagName, tagCh, LOG_CAT_PLC_READ, "read");
+                boolean transferred = false;
                 
-                if (Log.getDebugLevel(LOG_CAT_PLC_READ) >= 3) {
-                    if (Log.getDebugLevel(LOG_CAT_PLC_READ) == 3) {
-                        Log.debug(LOG_CAT_PLC_READ, 3, "Tag '" + tagName + "' read from PLC at " +
-                                tag.getValuesLastUpdateString() + " values: " + tag.tagValuesToString());
+                // read the tag
+                try {
+                    if (Log.getDebugLevel(LOG_CAT_PLC_READ) >= 4) {
+                        Log.debug(LOG_CAT_PLC_READ, 4, "Prior to tag read tag = " + tag.toString());
                     }
-                    else {
-                        Log.debug(LOG_CAT_PLC_READ, 4, "Following tag read tag = " + tag.toString());
+                    
+                    try {
+                        tagCh.read(tag);
                     }
-                }
-            }
-            finally {
-                if (chClosedAtStart) {
-                    // the channel was opened specifically for this read
-                    // so now we're done make sure it's closed
-                    tagCh.close();
-                    if (!tagCh.isConnected()) {
-                        updateCacheConnectionStatus(tagName, false);
+                    catch (ABPlcioExceptionPLCIO ex) {
+                        // a channel kept open since an earlier transfer may have been dropped
+                        // by the PLC while idle - if so reopen it and retry the read once
+                        if (!reopenKeptOpenChannel(tagName, tagCh, ex)) {
+                            throw (ex);
+                        }
+                        tagCh.read(tag);
+                    }
+                    transferred = true;
+                    
+                    if (Log.getDebugLevel(LOG_CAT_PLC_READ) >= 3) {
+                        if (Log.getDebugLevel(LOG_CAT_PLC_READ) == 3) {
+                            Log.debug(LOG_CAT_PLC_READ, 3, "Tag '" + tagName + "' read from PLC at " +
+                                    tag.getValuesLastUpdateString() + " values: " + tag.tagValuesToString());
+                        }
+                        else {
+                            Log.debug(LOG_CAT_PLC_READ, 4, "Following tag read tag = " + tag.toString());
+                        }
                     }
                 }
+                finally {
+                    endTransfer(tagName, tagCh, openedForRead, transferred);
+                }
             }
         } // end for loop
     } // end readTag()
@@ -515,95 +869,150 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         // the tag data items to write must contain the same tag name,
         // we choose to get this tag name from the first attribute
         // name in the Table 
-        String attName = tbl.getNames()[0];
-        String tagName = PlcTag.getTagNameFromAttributeName(attName);
-        PlcTag tag = tagMap.get(tagName);
-        
-        // when tag is written to PLC all tag data item values will be written, data item values
-        // not in this Table will be retrieved from the Cache - to ensure no stale values are
-        // written set any tag data items not contained in this Table that have a propertyDB
-        // default value to their default value
-        IAttributeTable tagCacheValuesTable = tag.getCacheTagItemValues();
-        if (tbl.size() != tagCacheValuesTable.size()) {
-            // tbl does not contain all of tag's data items
-            IAttributeTable defaultsTable = new AttributeTable();
-            for (IAttribute att : tagCacheValuesTable) {
-                if ((!tbl.contains(att.getName())) && !(Property.getDefault(att.getName()).isEmpty())) {
-                    // add this data item's propertyDB default value to Table
-                    defaultsTable.insert(Property.getDefault(att.getName()));
+        // a set of the tag's properties, such as its :enabled or :readNow attributes,
+        // is passed on to propertiesChanged() and is not written to the PLC
+        IAttributeTable propTbl = null;
+        IAttributeTable itemTbl = null;
+        for (String name : tbl.getNames()) {
+            if (name.contains(IPlcTag.PROPERTY_ITEM + ":")) {
+                if (itemTbl == null) {
+                    itemTbl = new AttributeTable();
                 }
+                itemTbl.insert(tbl.get(name));
             }
-            if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 2) {
-                Log.debug(LOG_CAT_PLC_WRITE, 2, "Prior to write of tag '" + tagName + "' the table: " +
-                        tbl.toString() + " has had following tag data item defaults added: " + defaultsTable.toString());
+            else {
+                if (propTbl == null) {
+                    propTbl = new AttributeTable();
+                }
+                propTbl.insert(tbl.get(name));
             }
-            tbl.merge(defaultsTable);
         }
-        
-        // check if tag's channel is already open - if not open it
-        ABPlcioChannel tagCh = tagChMap.get(tagName);
-        boolean chClosedAtStart = (!tagCh.isConnected());
-        if (chClosedAtStart) {
-            tagCh.open(gisAddress);
-            if (tagCh.isConnected()) {
-                updateCacheConnectionStatus(tagName, true);
+        if (propTbl != null) {
+            Log.debug(LOG_CAT_PLC_WRITE, 2, "Tag properties set: " + propTbl.toString());
+            propertiesChanged(propTbl);
+            if (itemTbl == null) {
+                // no tag data items to write
+                return;
             }
-        }
-        else {
-            Log.warn(LOG_CAT_PLC_WRITE, "Using already opened channel to write tag " + tagName +
-                    ". Channel details: " + tagCh.toString());
+            tbl = itemTbl;
         }
         
-        // write the tag
-        try {
-            if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 4) {
-                Log.debug(LOG_CAT_PLC_WRITE, 4, "Prior to tag write tag = " + tag.toString());
-            }
-            
-            // store attributes containing the tag's data items to
-            // be written to the EMCS in the Cache and then signal tag to
-            // update its member values from data items stored in Cache.
-            Cache.storeAll(tbl);
-            tag.setMemberValues();
-            
-            // now write the tag to the EMCS PLC
-            //tagCh.write(tag);
+        String attName = tbl.getNames()[0];
+        String tagName = PlcTag.getTagNameFromAttributeName(attName);
+        PlcTag tag = getPlcTag(tagName);
+        
+        // open the tag's channel if it is not already open, the channel's
+        // lock is held so that it is not closed as idle during the write
+        ABPlcioChannel tagCh = getTagChannel(tagName);
+        synchronized (tagCh) {
+            boolean openedForWrite = beginTransfer(tagName, tagCh, LOG_CAT_PLC_WRITE, "write");
+            boolean transferred = false;
             
-            if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 3) {
-                if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) == 3) {
-                    Log.debug(LOG_CAT_PLC_WRITE, 3, "Tag '" + tagName + "' written to PLC at " +
-                            tag.getValuesLastUpdateString() + " values: " + tag.tagValuesToString());
+            // write the tag
+            try {
+                if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 4) {
+                    Log.debug(LOG_CAT_PLC_WRITE, 4, "Prior to tag write tag = " + tag.toString());
                 }
-                else {
-                    Log.debug(LOG_CAT_PLC_WRITE, 4, "Following tag write tag = " + tag.toString());
+                
+                // when tag is written to PLC all tag data item values will be written,
+                // the tag overlays the data items in this Table onto its propertyDB default
+                // values, resolved once and refreshed only when notified by propertiesChanged(),
+                // so that no stale values are written. The tag's data items are then stored
+                // in the Cache from the tag's new member values.
+                if (tag.setWriteValues(tbl) < 0) {
+                    throw new ConnectionException("Unable to set values of tag '" + tagName + "' to be written from: " +
+                            tbl.toString());
                 }
-            }
-        }
-        finally {
-            if (chClosedAtStart) {
-                // the channel was opened specifically for this write
-                // so now we're done make sure it's closed
-                tagCh.close();
-                if (!tagCh.isConnected()) {
-                    updateCacheConnectionStatus(tagName, false);
+                if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 2) {
+                    Log.debug(LOG_CAT_PLC_WRITE, 2, "Tag '" + tagName + "' values to write from table: " +
+                            tbl.toString() + " and default values: " + tag.tagValuesToString());
+                }
+                
+                // now write the tag to the EMCS PLC
+                tagCh.write(tag);
+                transferred = true;
+                
+                if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) >= 3) {
+                    if (Log.getDebugLevel(LOG_CAT_PLC_WRITE) == 3) {
+                        Log.debug(LOG_CAT_PLC_WRITE, 3, "Tag '" + tagName + "' written to PLC at " +
+                                tag.getValuesLastUpdateString() + " values: " + tag.tagValuesToString());
+                    }
+                    else {
+                        Log.debug(LOG_CAT_PLC_WRITE, 4, "Following tag write tag = " + tag.toString());
+                    }
                 }
             }
-        }        
+            finally {
+                endTransfer(tagName, tagCh, openedForWrite, transferred);
+            }
+        }
 
     } // end writeTag()
     
+    // Documented in IABPlcioConnection
+    @Override
+    public void propertiesChanged(IAttributeTable tbl) {
+        if (tagMap == null) {
+            // not connected so no tags to notify
+            return;
+        }
+        
+        // collect the names of all tags with a changed property so that
+        // each tag is only refreshed once
+        Set<String> changedTagNames = new HashSet<String>();
+        for (String attName : tbl.getNames()) {
+            String tagName = PlcTag.getTagNameFromAttributeName(attName);
+            if ((tagName != null) && tagMap.containsKey(tagName)) {
+                changedTagNames.add(tagName);
+                String tagPropName = IPlcTag.PROPERTY_TAG + ":" + tagName;
+                if (attName.endsWith(tagPropName + IPlcTag.PROPERTY_READ_NOW) && tbl.get(attName).getBoolean()) {
+                    readNow(tagName);
+                    // clear the request so that it is not repeated when next notified
+                    Cache.store(new Attribute(tagPropName + IPlcTag.PROPERTY_READ_NOW, false));
+                }
+                else if (attName.endsWith(tagPropName + ":" + PostingTAB.ENABLED)) {
+                    // push the reader's enabled state rather than the reader polling the Cache
+                    Map<String,PlcTagReader> readers = tagReaderMap;
+                    PlcTagReader reader = (readers == null) ? null : readers.get(tagName);
+                    if (reader != null) {
+                        reader.setEnabled(tbl.get(attName).getBoolean());
+                    }
+                }
+            }
+        }
+        
+        for (String tagName : changedTagNames) {
+            PlcTag tag = tagMap.get(tagName);
+            if (tag.getDirection() == IPlcTag.DIRECTION_WRITE) {
+                tag.refreshWriteDefaults();
+            }
+        }
+    } // end propertiesChanged()
+    
+    // Documented in IABPlcioConnection
+    @Override
+    public boolean readNow(String tagName) {
+        Map<String,PlcTagReader> readers = tagReaderMap;
+        PlcTagReader reader = (readers == null) ? null : readers.get(tagName);
+        if (reader == null) {
+            Log.debug(LOG_CAT, 2, "readNow() called for tag '" + tagName + "' which is not periodically read - ignored");
+            return false;
+        }
+        return reader.readNow();
+    } // end readNow()
+    
     // Documented in IABPlcioConnection
     @Override
     public void openPlcConnection(String name) throws ConnectionException {
         // is param 'name' a valid tagName of this connection's controller?
         if (isValidTagName(name)) {
             // is the channel for this tag already open?
-            if (tagChMap.get(name).isConnected()) {
+            ABPlcioChannel tagCh = getTagChannel(name);
+            if (tagCh.isConnected()) {
                 Log.note(LOG_CAT, "PLC connection channel named '" + name + "' is already open and in use for tag named '" +
                         name + "' - no NEW connection opened.");
             }
             else {
-                ABPlcioChannel tagCh = tagChMap.get(name);
                 Log.debug(LOG_CAT, 2, "Opening connection to PLC address '" + gisAddress +
                         "' with channel name '" + name +
                         "' - this is a valid tag name and opened connection will be used for its transfer.");
@@ -638,7 +1047,7 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
             
             if (!chOpen) {
                 // create a new channel for the new connection
-                ABPlcioChannel ch = new ABPlcioChannel(name);
+                ABPlcioChannel ch = new ABPlcioChannel(name, channelHealth, callWatchdog);
                 Log.debug(LOG_CAT, 2, "Opening connection to PLC address '" + gisAddress +
                         "' with channel name '" + name + "'.");
                 try {
@@ -662,13 +1071,16 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     public void closePlcConnection(String name) throws ConnectionException {
         // is param 'name' a valid tagName of this connection's controller?
         if (isValidTagName(name)) {
-            // is the channel for this tag already closed?
-            if (!tagChMap.get(name).isConnected()) {
+            // is the channel for this tag already closed? A tag not yet
+            // created on first use has never had its channel opened
+            ABPlcioChannel tagCh = tagChMap.get(name);
+            // the channel is no longer to be closed when idle
+            keptOpenChannels.remove(name);
+            if ((tagCh == null) || (!tagCh.isConnected())) {
                 Log.note(LOG_CAT, "PLC connection channel named '" + name + "' is already closed for tag named '" +
                         name + "' - NO connection closed.");
             }
             else {
-                ABPlcioChannel tagCh = tagChMap.get(name);
                 Log.debug(LOG_CAT, 2, "Closing connection to PLC with channel name '" + name +
                         "' - this is a valid tag name and closing connection will mean a new " +
                         " connection will be opened prior to further data transfers.");
@@ -742,21 +1154,45 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         return cmdID;
     } // end getNextCmdID()
     
-    protected void updateCacheConnectionStatus(String name, Boolean newState) {
-        IAttribute openChNamesAtt = Cache.lookup(PROPERTY_OPEN_CH_NAMES);
-        
-        if (Log.getDebugLevel(LOG_CAT) >= 4) {
-            String openChNames;
-            if (openChNamesAtt == null) {
-                openChNames = "Cached attribute and property not currently present";
-            }
-            else {
-                openChNames = Misc.array2string(openChNamesAtt.getStringArray());
-            }
-            Log.debug(LOG_CAT, 4, "updateCacheConnectionStatus() at start Cache '." + PROPERTY_OPEN_CH_NAMES +
-                    "' = " + openChNames);
+    /**
+     * Get the PlcTag object of the named tag, creating the tag if the connection
+     * creates its tags on first use and this is the tag's first use.
+     * 
+     * @param tagName The name of one of the controller's tags.
+     * 
+     * @return The tag object or null if tagName is not one of the controller's tags.
+     * 
+     * @throws ConnectionException If the tag is being created and has bad metadata.
+     */
+    protected PlcTag getPlcTag(String tagName) throws ConnectionException {
+        PlcTag tag = tagMap.get(tagName);
+        if ((tag == null) && (lazyTagNames != null) && lazyTagNames.contains(tagName)) {
+            tag = createLazyTag(tagName);
         }
-        
+        return tag;
+    } // end getPlcTag()
+    
+    /**
+     * Get the channel used to transfer the named tag, creating the tag and its
+     * channel if the connection creates its tags on first use and this is the
+     * tag's first use.
+     * 
+     * @param tagName The name of one of the controller's tags.
+     * 
+     * @return The tag's channel or null if tagName is not one of the controller's tags.
+     * 
+     * @throws ConnectionException If the tag is being created and has bad metadata.
+     */
+    protected ABPlcioChannel getTagChannel(String tagName) throws ConnectionException {
+        ABPlcioChannel tagCh = tagChMap.get(tagName);
+        if ((tagCh == null) && (lazyTagNames != null) && lazyTagNames.contains(tagName)) {
+            createLazyTag(tagName);
+            tagCh = tagChMap.get(tagName);
+        }
+        return tagCh;
+    } // end getTagChannel()
+    
+    protected void updateCacheConnectionStatus(String name, Boolean newState) {
         // is param 'name' a valid tagName of this connection's controller?
         if (isValidTagName(name)) {
             Cache.store(new Attribute(
@@ -764,89 +1200,807 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
                     newState));
         }
         
+        // add or remove 'name' from the registry of connected channels, the
+        // registry publishes the list of connected channels to the Cache
         if (newState == true) {
-            // add the 'name' to list of connected channels
-            String openChNames;
-            if ((openChNamesAtt != null) && (!openChNamesAtt.isEmpty())){
-                openChNames = Misc.array2string(Cache.lookup(PROPERTY_OPEN_CH_NAMES).getStringArray());
-                openChNames += "," + name+" ("+tagChMap.get(name).getPlcioConnectionNumber()+")";
-                Cache.store(new Attribute(PROPERTY_OPEN_CH_NAMES, Misc.string2array(openChNames, ",")));
-            }
-            else {
-                openChNames = name+" ("+tagChMap.get(name).getPlcioConnectionNumber()+")";
-                Cache.store(new Attribute(PROPERTY_OPEN_CH_NAMES, openChNames));
-            }
+            openChannelRegistry.add(name, tagChMap.get(name).getPlcioConnectionNumber());
         }
-        else if (openChNamesAtt != null) {
-            // remove 'name' from list of connected channels
-            String[] openChNamesArray = Cache.lookup(PROPERTY_OPEN_CH_NAMES).getStringArray();
-            StringBuilder openChNames = new StringBuilder();
-            Boolean foundName = false;
-            
-            for (String chName : openChNamesArray) {
-                if (chName.startsWith(name+" (")) {
-                    foundName = true;
-                }
-                else {
-                    openChNames.append(chName + ",");
-                }
+        else {
+            openChannelRegistry.remove(name);
+        }
+        
+        if (Log.getDebugLevel(LOG_CAT) >= 4) {
+            Log.debug(LOG_CAT, 4, "updateCacheConnectionStatus() channel '" + name + "' connected = " + newState +
+                    ", open channels now = " +
+                    (openChannelRegistry.isEmpty() ? "<no open channels>" : openChannelRegistry.toString()));
+        }
+        
+        // the change may make the connection ready or no longer ready
+        updateReadyStatus();
+    } // end updateCacheConnectionStatus()
+    
+    /**
+     * Whether all of the connection's required channels are open. The required channels
+     * are named by the propertyDB attribute <code>.connection:requiredChannels</code>, if
+     * not defined only the CStatus tag's channel is required.
+     * 
+     * @return true if the connection is connected and all required channels are open.
+     */
+    protected boolean isReady() {
+        if (tagChMap == null) {
+            return false;
+        }
+        for (String name : requiredChannelNames) {
+            if (!openChannelRegistry.contains(name)) {
+                return false;
             }
-            
-            if (foundName) {
-                // remove trailing ',' (comma)
-                if (openChNames.length() > 1) {
-                    if (openChNames.charAt(openChNames.length()-1) == ',') {
-                        openChNames.deleteCharAt(openChNames.length()-1);
-                    }
-                }
-                if (openChNames.length() > 0) {
-                    Cache.store(new Attribute(PROPERTY_OPEN_CH_NAMES,
-                            Misc.string2array(openChNames.toString(), ",")));
-                }
-                else {
-                    // have removed last open channel name so remove attribute
-                    // from Cache so that on next open channel request attribute
-                    // is created afresh
-                    Cache.remove(PROPERTY_OPEN_CH_NAMES);
+        }
+        return true;
+    } // end isReady()
+    
+    /*
+     * Private methods
+     */
+    
+    /**
+     * Run a {@linkplain PlcioErrorRecoverThread} using the connection's task executor to
+     * recover from a PLCIO error of the named tag, unless recovery of the tag is already
+     * in progress in which case the error is ignored.
+     */
+    private void startPlcioErrorRecovery(String tagName, IPlcioCallStatus status) {
+        if (recoveringTagNames.add(tagName)) {
+            PlcioTaskExecutor executor = taskExecutor;
+            try {
+                if (executor == null) {
+                    throw new RejectedExecutionException("connection is disconnected");
                 }
+                executor.execute(new PlcioErrorRecoverThread(tagName, status),
+                        THREAD_NAME_PLCIOERRORRECOVER_PREFIX+tagName);
+            } catch (RejectedExecutionException ex) {
+                recoveringTagNames.remove(tagName);
+                Log.warn(LOG_CAT, "Unable to recover from PLCIO error " + status.getPlcioErrorCodeInt() +
+                        " of tag '" + tagName + "' - " + ex.getMessage());
             }
         }
-        
-        if (Log.getDebugLevel(LOG_CAT) >= 2) {
-            String openChNames;
-            openChNamesAtt = Cache.lookup(PROPERTY_OPEN_CH_NAMES);
-            if (openChNamesAtt == null) {
-                openChNames = "Cached attribute and property not currently present";
+        else {
+            Log.debug(LOG_CAT, 2, "PLCIO error " + status.getPlcioErrorCodeInt() + " of tag '" + tagName +
+                    "' ignored as recovery from a previous error of the tag is in progress");
+        }
+    } // end startPlcioErrorRecovery()
+    
+    /**
+     * Prepare the named tag's channel for a transfer by readTag() or writeTag(), opening
+     * the channel if it is not already open. Called holding the channel's lock.
+     * 
+     * @return true if the channel was opened for this transfer.
+     */
+    private boolean beginTransfer(String tagName, ABPlcioChannel tagCh, String logCat, String transfer)
+            throws ConnectionException {
+        if (tagCh.isConnected()) {
+            if (keptOpenChannels.containsKey(tagName)) {
+                Log.debug(logCat, 4, "Using channel kept open since last transfer to " + transfer + " tag " + tagName);
             }
             else {
-                openChNames = Misc.array2string(openChNamesAtt.getStringArray());
+                Log.warn(logCat, "Using already opened channel to " + transfer + " tag " + tagName +
+                        ". Channel details: " + tagCh.toString());
             }
-            Log.debug(LOG_CAT, 2, "Cache '." + PROPERTY_OPEN_CH_NAMES +    "' now = " +
-                    ((openChNames.length() > 0) ? openChNames : "<no open channels>"));
+            return false;
         }
-    } // end updateCacheConnectionStatus()
+        tagCh.open(gisAddress);
+        if (tagCh.isConnected()) {
+            updateCacheConnectionStatus(tagName, true);
+        }
+        return true;
+    } // end beginTransfer()
     
-    /*
-     * Protected inner-classes
+    /**
+     * Complete a transfer by readTag() or writeTag(). A channel opened for the transfer, or kept
+     * open since an earlier transfer, is kept open until idle for the channel idle timeout if the
+     * transfer succeeded, otherwise it is closed. Channels opened by others are left open.
+     * Called holding the channel's lock.
      */
+    private void endTransfer(String tagName, ABPlcioChannel tagCh, boolean openedForTransfer, boolean transferred)
+            throws ConnectionException {
+        if (!openedForTransfer && !keptOpenChannels.containsKey(tagName)) {
+            return;
+        }
+        if (transferred && (channelIdleTimeoutMs > 0) && tagCh.isConnected()) {
+            keptOpenChannels.put(tagName, System.currentTimeMillis());
+            scheduleIdleSweep();
+        }
+        else {
+            keptOpenChannels.remove(tagName);
+            if (tagCh.isConnected()) {
+                tagCh.close();
+                if (!tagCh.isConnected()) {
+                    updateCacheConnectionStatus(tagName, false);
+                }
+            }
+        }
+    } // end endTransfer()
     
-    protected class ConnectReadTagThread implements Runnable {
-        private final String tagName;
-        private final ABPlcioChannel tagCh;
-        private final long connectionAttemptIntervalMs;
-        private final String logCatSuffix;
-        private final IInterruptHandler<ABPlcioExceptionPLCIO> connectionLostIH;
-        private final IInterruptHandler<Boolean> readTagIH;
-        private Thread connectThread;
-        String connectThreadName;
-        long connectThreadId;
-        private volatile boolean connectThreadRunning;
+    /**
+     * Reopen a channel kept open since an earlier transfer following a PLCIO error showing
+     * that its connection to the PLC has been lost while idle. Called holding the channel's lock.
+     * 
+     * @return true if the channel was reopened and the transfer is to be retried, false
+     * if the channel was not kept open or the error is not a lost connection.
+     */
+    private boolean reopenKeptOpenChannel(String tagName, ABPlcioChannel tagCh, ABPlcioExceptionPLCIO plcioEx)
+            throws ConnectionException {
+        if (!keptOpenChannels.containsKey(tagName)) {
+            return false;
+        }
+        ABPlcioExceptionPLCIO.PlcioErrorCategory plcioErrCategory = plcioEx.getPlcioErrorCategory();
+        if ((plcioErrCategory != ABPlcioExceptionPLCIO.PlcioErrorCategory.CONNECTION) &&
+                (plcioErrCategory != ABPlcioExceptionPLCIO.PlcioErrorCategory.TIMEOUT)) {
+            return false;
+        }
+        Log.note(LOG_CAT, "Transfer of tag '" + tagName + "' using channel kept open since last transfer failed with PLCIO error " +
+                plcioEx.getPlcioErrorCodeInt() + " - reopening channel and retrying transfer");
+        try {
+            tagCh.close();
+        }
+        catch (ConnectionException ex) {
+            Log.debug(LOG_CAT, 2, "Close of lost channel '" + tagName + "' failed: " + ex.getMessage());
+        }
+        if (!tagCh.isConnected()) {
+            updateCacheConnectionStatus(tagName, false);
+        }
+        tagCh.open(gisAddress);
+        if (tagCh.isConnected()) {
+            updateCacheConnectionStatus(tagName, true);
+        }
+        return true;
+    } // end reopenKeptOpenChannel()
+    
+    /**
+     * Store the connection's ready state in the Cache as {@linkplain #PROPERTY_READY}
+     * if it has changed since last stored.
+     */
+    private void updateReadyStatus() {
+        synchronized (readyLock) {
+            boolean nowReady = isReady();
+            if (nowReady) {
+                addressSwitchCompleted();
+            }
+            if ((ready == null) || (ready.booleanValue() != nowReady)) {
+                ready = nowReady;
+                Cache.store(new Attribute(PROPERTY_READY, nowReady));
+                if (nowReady) {
+                    Log.note(LOG_CAT, "Connection ready, all " + requiredChannelNames.size() +
+                            " required channel(s) open: " + Misc.array2string(requiredChannelNames.toArray(new String[0])));
+                }
+                else {
+                    Log.debug(LOG_CAT, 2, "Connection not ready, waiting for required channel(s): " +
+                            Misc.array2string(requiredChannelNames.toArray(new String[0])));
+                }
+            }
+        }
+    } // end updateReadyStatus()
+    
+    /**
+     * Record a failure to connect to, or read from, a PLC address, starting a switch to the
+     * next address if the active address has failed too many times.
+     */
+    private void addressFailed(String plcioAddress, String reason) {
+        PlcAddressFailover failover = addressFailover;
+        if ((failover != null) && failover.failed(plcioAddress)) {
+            startAddressSwitch(false, reason + ", " + failover.getFailureThreshold() + " consecutive failure(s)");
+        }
+    } // end addressFailed()
+    
+    /**
+     * Whether a call failed with a PLCIO error of the given category.
+     */
+    private static boolean isPlcioError(IPlcioCallStatus status, ABPlcioExceptionPLCIO.PlcioErrorCategory category) {
+        return (status.getOutcome() == IPlcioCallStatus.Outcome.PLCIO_ERROR) &&
+                (ABPlcioExceptionPLCIO.PlcioErrorCategory.of(status.getPlcioErrorCodeInt(),
+                        status.getPlcioErrorCategoryCode()) == category);
+    } // end isPlcioError()
+    
+    /**
+     * Store in the Cache the number of times each PLCIO error code not handled by the
+     * GISS has been received, as elements of the form <code>code=count</code>.
+     */
+    private static void publishPlcioErrorsNotHandled() {
+        Map<Integer,Long> counts = ABPlcioExceptionPLCIO.PlcioErrorCode.getNotHandledCounts();
+        List<String> elements = new ArrayList<String>(counts.size());
+        for (Map.Entry<Integer,Long> entry : counts.entrySet()) {
+            elements.add(entry.getKey() + "=" + entry.getValue());
+        }
+        Cache.store(new Attribute(PROPERTY_PLCIO_ERRORS_NOT_HANDLED, elements.toArray(new String[elements.size()])));
+    } // end publishPlcioErrorsNotHandled()
+    
+    /**
+     * Record a successful connection to a PLC address.
+     */
+    private void addressSucceeded(String plcioAddress) {
+        PlcAddressFailover failover = addressFailover;
+        if (failover != null) {
+            failover.succeeded(plcioAddress);
+        }
+    } // end addressSucceeded()
+    
+    /**
+     * Submit a switch of PLC address to the connection's task executor, unless a switch
+     * is already in progress.
+     * 
+     * @param toPrimary true to switch to the primary address, false to switch to the next address.
+     * @param reason The reason for the switch, logged.
+     */
+    private void startAddressSwitch(final boolean toPrimary, final String reason) {
+        final PlcAddressFailover failover = addressFailover;
+        PlcioTaskExecutor executor = taskExecutor;
+        if ((failover == null) || (executor == null) || !addressSwitching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        switchAddress(failover, toPrimary, reason);
+                    } finally {
+                        addressSwitching.set(false);
+                    }
+                }
+            }, THREAD_NAME_FAILOVER_PREFIX + "switch");
+        } catch (RejectedExecutionException ex) {
+            addressSwitching.set(false);
+            Log.warn(LOG_CAT, "Unable to switch PLC address - " + ex.getMessage());
+        }
+    } // end startAddressSwitch()
+    
+    /**
+     * Switch the connection to another PLC address: the tags' readers are stopped and their
+     * channels closed, the address switched and the readers restarted, their channels being
+     * opened using the new address. Channels kept open since readTag() or writeTag() are
+     * reopened using the new address by a {@linkplain ChannelWarmUp}.
+     */
+    private void switchAddress(PlcAddressFailover failover, boolean toPrimary, String reason) {
+        Map<String,ABPlcioChannel> chMap = tagChMap;
+        Map<String,PlcTagReader> readerMap = tagReaderMap;
+        Map<String,ConnectReadTagTask> taskMap = connectReadTagTaskMap;
+        if ((chMap == null) || (readerMap == null) || (taskMap == null) || (failover != addressFailover)) {
+            // disconnected
+            return;
+        }
+        String fromAddress = failover.getActiveAddress();
+        
+        // stop the use of the channels to the address being switched from, cancelling all
+        // readers before waiting for them so that they stop in parallel
+        List<String> restartNames = new ArrayList<String>();
+        List<String> reopenNames = new ArrayList<String>();
+        List<PlcTagReader> cancelled = new ArrayList<PlcTagReader>();
+        for (String tagName : chMap.keySet()) {
+            PlcTagReader reader = readerMap.remove(tagName);
+            if (reader != null) {
+                reader.cancel();
+                cancelled.add(reader);
+                restartNames.add(tagName);
+            }
+            ConnectReadTagTask connectTask = taskMap.get(tagName);
+            if (connectTask != null) {
+                connectTask.cancel();
+                restartNames.add(tagName);
+            }
+        }
+        awaitReadersStopped(cancelled);
+        for (String tagName : chMap.keySet()) {
+            ABPlcioChannel tagCh = chMap.get(tagName);
+            synchronized (tagCh) {
+                if (keptOpenChannels.remove(tagName) != null) {
+                    reopenNames.add(tagName);
+                }
+                if (tagCh.isConnected()) {
+                    updateCacheConnectionStatus(tagName, false);
+                    try {
+                        tagCh.close();
+                    } catch (ConnectionException ex) {
+                        Log.debug(LOG_CAT, 2, "Close of channel '" + tagName + "' to PLC address '" + fromAddress +
+                                "' failed: " + ex.getMessage());
+                    }
+                }
+            }
+        }
+        
+        gisAddress = toPrimary ? failover.switchToPrimary() : failover.switchToNext();
+        Cache.store(new Attribute(PROPERTY_ACTIVE_ADDRESS, failover.getActiveAddress()));
+        Log.warn(LOG_CAT, "Switched PLC address from '" + fromAddress + "' to '" + failover.getActiveAddress() +
+                "' - " + reason + ", restarting " + restartNames.size() + " reader(s) and reopening " +
+                reopenNames.size() + " channel(s). " + failover);
+        
+        // open the channels using the new address
+        for (String tagName : restartNames) {
+            startPlcTagReader(tagName);
+        }
+        PlcioTaskExecutor executor = taskExecutor;
+        if (!reopenNames.isEmpty() && (executor != null)) {
+            new ChannelWarmUp(reopenNames).start(executor);
+        }
+        // the switch may be complete if no channels need to be reopened
+        updateReadyStatus();
+        
+        if (!failover.isPrimaryActive()) {
+            scheduleFailback();
+        }
+    } // end switchAddress()
+    
+    /**
+     * Report the time taken by a switch of PLC address once the connection is
+     * ready using the new address. Called holding readyLock.
+     */
+    private void addressSwitchCompleted() {
+        PlcAddressFailover failover = addressFailover;
+        if (failover == null) {
+            return;
+        }
+        long switchMs = failover.switchCompleted();
+        if (switchMs >= 0) {
+            Cache.store(new Attribute(PROPERTY_FAILOVER_TIME, (switchMs / 1000.0)));
+            Log.note(LOG_CAT, "Connection ready using PLC address '" + failover.getActiveAddress() + "' " +
+                    switchMs + "ms after switching address");
+        }
+    } // end addressSwitchCompleted()
+    
+    /**
+     * Schedule a probe of the primary PLC address, run by the connection's task executor,
+     * if a probe is not already scheduled.
+     */
+    private void scheduleFailback() {
+        if (failbackScheduled.compareAndSet(false, true)) {
+            if (!scheduleTask(failbackTask, THREAD_NAME_FAILOVER_PREFIX + "probe", failbackIntervalMs)) {
+                failbackScheduled.set(false);
+            }
+        }
+    } // end scheduleFailback()
+    
+    /**
+     * Probe the primary PLC address by opening and closing a channel to it, switching
+     * back to the primary address once enough consecutive probes have succeeded over
+     * the minimum failback time and otherwise scheduling the next probe.
+     */
+    private void probePrimaryAddress() {
+        PlcAddressFailover failover = addressFailover;
+        String probeName = tagCStatusName;
+        if ((failover == null) || failover.isPrimaryActive() || (probeName == null)) {
+            return;
+        }
+        String primaryAddress = failover.getPrimaryPlcioAddress();
+        ABPlcioChannel probeCh = new ABPlcioChannel(probeName, probeHealth, callWatchdog);
+        try {
+            probeCh.open(primaryAddress);
+        } catch (ConnectionException ex) {
+            Log.debug(LOG_CAT, 2, "Primary PLC address '" + primaryAddress + "' still unavailable: " + ex.getMessage());
+            failover.primaryProbed(false);
+            scheduleFailback();
+            return;
+        }
+        try {
+            probeCh.close();
+        } catch (ConnectionException ex) {
+            Log.debug(LOG_CAT, 2, "Close of channel probing primary PLC address '" + primaryAddress +
+                    "' failed: " + ex.getMessage());
+        }
+        if (!failover.primaryProbed(true)) {
+            Log.debug(LOG_CAT, 2, "Primary PLC address '" + primaryAddress + "' probe succeeded (" +
+                    failover.getGoodProbeTotal() + " of " + failover.getFailbackProbes() + " required)");
+            scheduleFailback();
+            return;
+        }
+        Log.note(LOG_CAT, "Primary PLC address '" + primaryAddress + "' available - switching back to it");
+        startAddressSwitch(true, "primary address available");
+    } // end probePrimaryAddress()
+    
+    /**
+     * Stop the tags' readers while the connection is fenced, so that they do not
+     * repeatedly fail to read while a PLCIO call is stalled. The readers are cancelled
+     * holding fenceLock, which does not wait, and the waits for their reads in progress
+     * made once fenceLock is released sharing a single deadline, so that the readers
+     * stalled in PLCIO delay the fence by at most one reader's wait.
+     */
+    private void fenceReaders() {
+        List<PlcTagReader> cancelled = new ArrayList<PlcTagReader>();
+        synchronized (fenceLock) {
+            Map<String,PlcTagReader> readerMap = tagReaderMap;
+            if (!callWatchdog.isFenced() || (readerMap == null)) {
+                return;
+            }
+            for (String tagName : readerMap.keySet()) {
+                PlcTagReader reader = readerMap.remove(tagName);
+                if (reader != null) {
+                    reader.cancel();
+                    cancelled.add(reader);
+                    fencedReaderNames.add(tagName);
+                }
+            }
+            Log.warn(LOG_CAT, "Connection fenced, stopped " + fencedReaderNames.size() +
+                    " PlcTagReader(s) until stalled PLCIO call(s) return");
+        }
+        awaitReadersStopped(cancelled);
+    } // end fenceReaders()
+    
+    /**
+     * Wait for cancelled readers to complete any reads in progress. All readers are
+     * waited for until the same deadline, the longest of the readers' stop waits,
+     * so the total wait is not the sum of the readers' waits.
+     */
+    private void awaitReadersStopped(List<PlcTagReader> readers) {
+        long waitMs = 0;
+        for (PlcTagReader reader : readers) {
+            waitMs = Math.max(waitMs, reader.getStopWaitMs());
+        }
+        long waitEndMs = System.currentTimeMillis() + waitMs;
+        int notStoppedTotal = 0;
+        for (PlcTagReader reader : readers) {
+            if (!reader.awaitStop(waitEndMs)) {
+                notStoppedTotal++;
+            }
+        }
+        if (notStoppedTotal > 0) {
+            Log.warn(LOG_CAT, notStoppedTotal + " of " + readers.size() + " stopped PlcTagReader(s) still reading after " +
+                    waitMs + "ms, each will stop when its PLCIO call returns");
+        }
+    } // end awaitReadersStopped()
+    
+    /**
+     * Restart the readers stopped while the connection was fenced.
+     */
+    private void unfenceReaders() {
+        synchronized (fenceLock) {
+            if (callWatchdog.isFenced() || (tagReaderMap == null)) {
+                return;
+            }
+            Log.note(LOG_CAT, "Connection unfenced, restarting " + fencedReaderNames.size() + " PlcTagReader(s)");
+            for (String tagName : fencedReaderNames) {
+                startPlcTagReader(tagName);
+            }
+            fencedReaderNames.clear();
+        }
+    } // end unfenceReaders()
+    
+    /**
+     * Schedule a check for idle channels, run by the connection's task executor, if a
+     * check is not already scheduled.
+     */
+    private void scheduleIdleSweep() {
+        if (idleSweepScheduled.compareAndSet(false, true)) {
+            if (!scheduleTask(idleSweepTask, THREAD_NAME_PLCIO_PREFIX + "idleSweep",
+                    Math.min(channelIdleTimeoutMs, IDLE_SWEEP_INTERVAL_MS))) {
+                idleSweepScheduled.set(false);
+            }
+        }
+    } // end scheduleIdleSweep()
+    
+    /**
+     * Publish the statistics of the connection's task executor to the Cache and schedule
+     * the next publish, while connected.
+     */
+    private void publishTaskStats() {
+        PlcioTaskExecutor executor = taskExecutor;
+        if (executor == null) {
+            return;
+        }
+        Cache.store(new Attribute(PROPERTY_TASK_STATS, executor.toStringArray()));
+        scheduleTask(taskStatsTask, THREAD_NAME_PLCIO_PREFIX + "taskStats", PlcTagReaderStats.PUBLISH_INTERVAL_MS);
+    } // end publishTaskStats()
+    
+    /**
+     * Schedule a task to be run after a delay by the connection's task executor. The
+     * connection's delayed tasks may block in PLCIO calls, so are not run by the
+     * {@linkplain PlcTagReadScheduler} whose threads are shared by all readers.
+     * 
+     * @param task The task to be run.
+     * @param taskName The name given to the thread running the task.
+     * @param delayMs The delay in ms from now after which the task is run.
+     * 
+     * @return true if the task was scheduled, false if the connection is disconnected.
+     */
+    private boolean scheduleTask(Runnable task, String taskName, long delayMs) {
+        PlcioTaskExecutor executor = taskExecutor;
+        if (executor == null) {
+            return false;
+        }
+        try {
+            executor.schedule(task, taskName, delayMs);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // shut down by disconnect()
+            return false;
+        }
+    } // end scheduleTask()
+    
+    /**
+     * Close all channels kept open by readTag() or writeTag() that have not been used for
+     * the channel idle timeout, rescheduling the check while channels remain kept open.
+     * A channel now used by a PlcTagReader is no longer kept open but is left open.
+     */
+    private void closeIdleChannels() {
+        Map<String,ABPlcioChannel> channels = tagChMap;
+        if (channels == null) {
+            // disconnected, all channels have been closed
+            keptOpenChannels.clear();
+            return;
+        }
+        for (String name : keptOpenChannels.keySet()) {
+            ABPlcioChannel tagCh = channels.get(name);
+            if (tagCh == null) {
+                keptOpenChannels.remove(name);
+                continue;
+            }
+            synchronized (tagCh) {
+                Long lastTransferMs = keptOpenChannels.get(name);
+                long idleMs = (lastTransferMs == null) ? 0 : (System.currentTimeMillis() - lastTransferMs);
+                if ((lastTransferMs == null) || (idleMs < channelIdleTimeoutMs)) {
+                    continue;
+                }
+                keptOpenChannels.remove(name);
+                Map<String,PlcTagReader> readers = tagReaderMap;
+                if (!tagCh.isConnected() || ((readers != null) && readers.containsKey(name))) {
+                    continue;
+                }
+                try {
+                    tagCh.close();
+                    Log.debug(LOG_CAT, 2, "Closed channel '" + name + "' idle for " + idleMs + "ms");
+                }
+                catch (ConnectionException ex) {
+                    Log.warn(LOG_CAT, "Close of channel '" + name + "' idle for " + idleMs +
+                            "ms failed: " + ex.getMessage());
+                }
+                if (!tagCh.isConnected()) {
+                    updateCacheConnectionStatus(name, false);
+                }
+            }
+        }
+        if (!keptOpenChannels.isEmpty()) {
+            scheduleIdleSweep();
+        }
+    } // end closeIdleChannels()
+    
+    /**
+     * Whether the named tag is a read tag to be read periodically by a {@linkplain PlcTagReader},
+     * that is the controller's CStatus tag or a created read tag with an interval property.
+     */
+    private boolean isPeriodicTagName(String tagName) {
+        if (tagName == null) {
+            return false;
+        }
+        if (tagName.equals(tagCStatusName)) {
+            return true;
+        }
+        PlcTag tag = tagMap.get(tagName);
+        return (tag != null) && (tag.getDirection() == IPlcTag.DIRECTION_READ) &&
+                Cache.contains(IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_INTERVAL);
+    } // end isPeriodicTagName()
+    
+    /**
+     * Get the names of all periodically read tags ordered by the tags' priority
+     * property, highest priority first, and then by name.
+     */
+    private List<String> getPeriodicTagNames() {
+        final Map<String,Integer> priorities = new HashMap<String,Integer>();
+        for (String tagName : tagMap.keySet()) {
+            if (isPeriodicTagName(tagName)) {
+                String propPriority = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_PRIORITY;
+                int priority = 0;
+                if (Cache.contains(propPriority)) {
+                    priority = Cache.lookup(propPriority).getInteger();
+                }
+                priorities.put(tagName, priority);
+            }
+        }
+        List<String> periodicTagNames = new ArrayList<String>(priorities.keySet());
+        Collections.sort(periodicTagNames, new Comparator<String>() {
+            @Override
+            public int compare(String tagName1, String tagName2) {
+                int cmp = priorities.get(tagName2).compareTo(priorities.get(tagName1));
+                return (cmp != 0) ? cmp : tagName1.compareTo(tagName2);
+            }
+        });
+        Log.debug(LOG_CAT, 2, "Periodically read tags in priority order: " + periodicTagNames);
+        return periodicTagNames;
+    } // end getPeriodicTagNames()
+    
+    /**
+     * Get the names of the tags in the controller's tag list that have a tag name
+     * property defined in the propertyDB, in tag list order and without duplicates.
+     * A tag name property can be removed from the propertyDB to temporarily disable
+     * use of the tag.
+     * 
+     * @param tagList The controller's tag list.
+     * 
+     * @return The names of the enabled tags.
+     */
+    private List<String> getEnabledTagNames(String[] tagList) {
+        List<String> enabledTagNames = new ArrayList<String>(tagList.length);
+        Set<String> uniqueTagNames = new HashSet<String>(tagList.length);
+        for (String tagName : tagList) {
+            if (Cache.contains(IPlcTag.PROPERTY_TAG + ":" + tagName)) {
+                if (uniqueTagNames.add(tagName)) {
+                    enabledTagNames.add(tagName);
+                }
+            }
+            else {
+                Log.warn(LOG_CAT, "The use of tag '" + tagName + "' has been disabled as no property '." +
+                        IPlcTag.PROPERTY_TAG + ":" + tagName + "' exists");
+            }
+        }
+        return enabledTagNames;
+    } // end getEnabledTagNames()
+    
+    /**
+     * Create the PlcTag objects of the given enabled tags.
+     * <p>
+     * Creating a tag reads all of its metadata from the propertyDB, for controllers
+     * using many tags this is done concurrently using a pool of up to
+     * {@linkplain #PROPERTY_TAG_CREATE_THREADS} threads. All tags are created before
+     * any failure is reported so that the resulting exception lists every tag with
+     * bad metadata, in the order the tags appear in the tag list.
+     * 
+     * @param enabledTagNames The names of the tags to create, as returned by
+     * {@linkplain #getEnabledTagNames(String[])}.
+     * 
+     * @return Map of the created PlcTag objects by tag name.
+     * 
+     * @throws ConnectionException If any tag could not be created.
+     */
+    private Map<String,PlcTag> createPlcTags(final List<String> enabledTagNames) throws ConnectionException {
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        if (Cache.contains(PROPERTY_TAG_CREATE_THREADS)) {
+            poolSize = Cache.lookup(PROPERTY_TAG_CREATE_THREADS).getInteger();
+        }
+        poolSize = Math.max(1, Math.min(poolSize, enabledTagNames.size()));
+        
+        // the outcome of creating each tag, in tag list order, holding either
+        // the created PlcTag or the exception thrown when creating it
+        Object[] results = new Object[enabledTagNames.size()];
+        if (poolSize == 1) {
+            for (int i = 0; i < results.length; i++) {
+                try {
+                    results[i] = new PlcTag(enabledTagNames.get(i));
+                } catch (Exception ex) {
+                    results[i] = ex;
+                }
+            }
+        }
+        else {
+            // creating tags is not blocked by PLCIO so always uses platform threads
+            ExecutorService pool = Executors.newFixedThreadPool(poolSize,
+                    new PlcioThreadFactory(THREAD_NAME_PLCTAGCREATE_PREFIX, PlcioThreadFactory.ThreadMode.PLATFORM));
+            try {
+                List<Future<PlcTag>> futures = new ArrayList<Future<PlcTag>>(results.length);
+                for (final String tagName : enabledTagNames) {
+                    futures.add(pool.submit(new Callable<PlcTag>() {
+                        @Override
+                        public PlcTag call() throws Exception {
+                            return new PlcTag(tagName);
+                        }
+                    }));
+                }
+                for (int i = 0; i < results.length; i++) {
+                    try {
+                        results[i] = futures.get(i).get();
+                    } catch (ExecutionException ex) {
+                        results[i] = ex.getCause();
+                    }
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ConnectionException("Interrupted while creating PlcTag objects");
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        Log.debug(LOG_CAT, 2, "Created " + results.length + " PlcTag objects using " + poolSize + " thread(s)");
+        
+        // report every tag that could not be created, not just the first
+        Map<String,PlcTag> tags = new HashMap<String,PlcTag>(results.length);
+        StringBuilder badTags = new StringBuilder();
+        int badTagTotal = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] instanceof PlcTag) {
+                tags.put(enabledTagNames.get(i), (PlcTag) results[i]);
+            }
+            else {
+                badTagTotal++;
+                badTags.append("\nThe Plc tag named '" + enabledTagNames.get(i) + "' has bad metadata " +
+                        "property in the propertyDB. Exception when creating PlcTag object: " +
+                        Misc.getExceptionAsString((Throwable) results[i]));
+            }
+        }
+        if (badTagTotal > 0) {
+            throw new ConnectionException(badTagTotal + " of " + results.length +
+                    " PlcTag objects could not be created:" + badTags.toString());
+        }
+        
+        return tags;
+    } // end createPlcTags()
+    
+    /**
+     * Create a tag registered for creation on first use, along with its channel.
+     * <p>
+     * Creation is done holding a lock so that concurrent first uses of a tag
+     * create it only once. The channel is added to the channel map before the tag
+     * is added to the tag map, so any thread finding the tag also finds its channel.
+     * 
+     * @throws ConnectionException If the tag has bad metadata, the tag remains
+     * registered so that later uses report the same failure.
+     */
+    private PlcTag createLazyTag(String tagName) throws ConnectionException {
+        synchronized (lazyTagLock) {
+            PlcTag tag = tagMap.get(tagName);
+            if (tag != null) {
+                // created by another thread while this thread waited for the lock
+                return tag;
+            }
+            try {
+                tag = new PlcTag(tagName);
+            } catch (ABPlcioExceptionBadPlcTagProperties ex) {
+                throw new ConnectionException("The Plc tag named '" + tagName + "' has bad metadata " +
+                        "property in the propertyDB. Exception when creating PlcTag object: " +
+                        Misc.getExceptionAsString(ex));
+            }
+            tagChMap.put(tagName, new ABPlcioChannel(tagName, channelHealth, callWatchdog));
+            tagMap.put(tagName, tag);
+            lazyTagNames.remove(tagName);
+            updateCacheConnectionStatus(tagName, false);
+            Log.debug(LOG_CAT, 2, "Created tag '" + tagName + "' and its channel on first use, " +
+                    lazyTagNames.size() + " tags not yet used");
+            
+            return tag;
+        }
+    } // end createLazyTag()
+    
+    /**
+     * Get the PlcTag object of the named tag for methods that cannot throw
+     * a ConnectionException, logging any failure to create the tag.
+     * 
+     * @return The tag object or null if it does not exist or could not be created.
+     */
+    private PlcTag getPlcTagLogged(String tagName) {
+        try {
+            return getPlcTag(tagName);
+        } catch (ConnectionException ex) {
+            Log.warn(LOG_CAT, Misc.getExceptionAsString(ex));
+            return null;
+        }
+    } // end getPlcTagLogged()
+    
+    /*
+     * Protected inner-classes
+     */
+    
+    /**
+     * The {@linkplain PlcReconnectSupervisor.ReconnectTask} that opens the channel used
+     * to read a periodically read tag and, once the channel is open, starts the tag's
+     * {@linkplain PlcTagReader}.
+     * <p>
+     * Tasks are submitted to the {@linkplain PlcReconnectSupervisor} of the connection's
+     * PLC address, which makes the open attempts of all tasks of all connections to the
+     * PLC using a single thread.
+     * 
+     * @author agent
+     *
+     */
+    protected class ConnectReadTagTask implements PlcReconnectSupervisor.ReconnectTask {
+        private final String tagName;
+        private final String taskName;
+        private final ABPlcioChannel tagCh;
+        private final long connectionAttemptIntervalMs;
+        private final int priority;
+        private final String logCatSuffix;
+        private final IInterruptHandler<IPlcioCallStatus> connectionLostIH;
+        private final IInterruptHandler<Boolean> readTagIH;
+        private final long originalStartTime;
         private volatile boolean done;
+        /** The PLC address of the supervisor the task was submitted to. */
+        private volatile String supervisorAddress;
 
         /**
-         * Construct a ConnectReadTagThread.
+         * Construct a ConnectReadTagTask.
          * 
-         * @param tName    The GIS PLC tag name that this thread is to connect
+         * @param tName    The GIS PLC tag name that this task is to connect
          * to the GIS to read.
          * @param logCS    The Log category suffix used to create Log category
          * used by the PlcTagReader.
@@ -858,178 +2012,215 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
          * tag from the GIS - may be null if no callback is required on each
          * read of the tag.
          */
-        public ConnectReadTagThread(String tName, String logCS,
-                IInterruptHandler<ABPlcioExceptionPLCIO> connectionLostIHandler,
+        public ConnectReadTagTask(String tName, String logCS,
+                IInterruptHandler<IPlcioCallStatus> connectionLostIHandler,
                 IInterruptHandler<Boolean> readTagIHandler) {
             tagName = tName;
+            // tasks of all connections to the PLC are held by the same supervisor
+            taskName = Integer.toHexString(System.identityHashCode(ABPlcioConnection.this)) + "/" + tagName;
             tagCh = tagChMap.get(tagName);
-            // read in interval at which connection attempts are to be made
+            // read in the minimum interval at which connection attempts are to be made
             // and convert from seconds to milliseconds
             connectionAttemptIntervalMs = (long) (1000 * Cache.lookup(IPlcTag.PROPERTY_TAG + ":" +
                     tagName + IPlcTag.PROPERTY_RECONNECT_INTERVAL).getDouble());
+            String propPriority = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_PRIORITY;
+            priority = Cache.contains(propPriority) ? Cache.lookup(propPriority).getInteger() : 0;
             logCatSuffix = logCS;
             connectionLostIH = connectionLostIHandler;
             readTagIH = readTagIHandler;
-            connectThreadRunning = false;
-            connectThreadName = null;
-            connectThreadId = 0;
+            originalStartTime = System.currentTimeMillis();
             done = false;
         }
         
+        /**
+         * Submit the task to the supervisor of the connection's PLC address.
+         */
+        public void submit() {
+            long backoffMaxMs = DEFAULT_RECONNECT_BACKOFF_MAX_MS;
+            if (Cache.contains(PROPERTY_RECONNECT_BACKOFF_MAX)) {
+                backoffMaxMs = (long) (1000 * Cache.lookup(PROPERTY_RECONNECT_BACKOFF_MAX).getDouble());
+            }
+            Log.note(LOG_CAT, "ConnectReadTagTask for tag '"+tagName+"', using channel '"+
+                    tagCh.getTagName()+"' submitted, connection attempts will occur every "+
+                    connectionAttemptIntervalMs+"ms backing off to "+backoffMaxMs+"ms");
+            supervisorAddress = gisAddress;
+            PlcReconnectSupervisor.forAddress(supervisorAddress).submit(this, connectionAttemptIntervalMs,
+                    backoffMaxMs, threadFactory);
+        } // end submit()
+        
+        // Documented in PlcReconnectSupervisor.ReconnectTask
         @Override
-        public void run() {
-            // signal that connectThread is now running
-            connectThreadRunning = true;
-
-            long originalStartTime = System.currentTimeMillis();
-            long startTime = 0;
-            long delay = 0;
-            connectThread = Thread.currentThread();
-            connectThreadName = connectThread.getName();
-            connectThreadId = connectThread.getId();
-            
-            Log.note(LOG_CAT, "ConnectReadTagThread ("+connectThreadName+", id="+
-                    connectThreadId+") started for tag '"+tagName+"', using channel '"+
-                    tagCh.getTagName()+"', connection attempts will occur every "+
-                    connectionAttemptIntervalMs+"ms");
-            
-            while (!done) {
-                startTime = System.currentTimeMillis();
-                try {
-                    tagCh.open(gisAddress);
-                }
-                catch (ConnectionException ex) {
-                    // query whether exception is of type ABPlcioExceptionPLCIO and whether
-                    // exception message is for PLCIO error related to connecting to the PLC
-                    if (ex instanceof ABPlcioExceptionPLCIO) {
-                        ABPlcioExceptionPLCIO plcioEx = (ABPlcioExceptionPLCIO) ex;
-                        if (plcioEx.getPlcioErrorCode() == ABPlcioExceptionPLCIO.PlcioErrorCode.CONNECT) {
-                            // this is what will occur if we are unable to connect to the PLC so thread
-                            // should continue trying...
-                            Log.debug(LOG_CAT, 4, "ConnectReadTagThread ("+connectThreadName+", id="+
-                                    connectThreadId+") for tag '"+tagName+"', using channel '"+
-                                    tagCh.getTagName()+"' (ch#" + tagCh.getPlcioConnectionNumber()+
-                                    ") still unable to connect to PLC address '"+gisAddress+
-                                    "' - will continue trying...\n Exception message: "+ex.getMessage());
-                        }
-                        else {
+        public String getName() {
+            return taskName;
+        } // end getName()
+        
+        // Documented in PlcReconnectSupervisor.ReconnectTask
+        @Override
+        public int getPriority() {
+            return priority;
+        } // end getPriority()
+        
+        // Documented in PlcReconnectSupervisor.ReconnectTask
+        @Override
+        public PlcReconnectSupervisor.AttemptResult attempt() {
+            if (done) {
+                return PlcReconnectSupervisor.AttemptResult.ABANDONED;
+            }
+            // while the connection is fenced the channel's open would fail, keep trying
+            if (callWatchdog.isFenced()) {
+                return PlcReconnectSupervisor.AttemptResult.RETRY;
+            }
+            // a channel kept open since a readTag() is taken over by the reader,
+            // the channel's lock is held so that it is not closed as idle
+            synchronized (tagCh) {
+                keptOpenChannels.remove(tagName);
+                if (!tagCh.isConnected()) {
+                    String address = gisAddress;
+                    try {
+                        tagCh.open(address);
+                        addressSucceeded(address);
+                    }
+                    catch (ConnectionException ex) {
+                        // query whether exception is of type ABPlcioExceptionPLCIO and whether
+                        // exception message is for PLCIO error related to connecting to the PLC
+                        if (ex instanceof ABPlcioExceptionPLCIO) {
+                            ABPlcioExceptionPLCIO plcioEx = (ABPlcioExceptionPLCIO) ex;
+                            if (plcioEx.getPlcioErrorCategory() == ABPlcioExceptionPLCIO.PlcioErrorCategory.CONNECTION) {
+                                // this is what will occur if we are unable to connect to the PLC so
+                                // the supervisor should continue trying, unless the failure causes
+                                // the connection to switch to another PLC address...
+                                addressFailed(address, "unable to connect to open channel '" + tagName + "'");
+                                Log.debug(LOG_CAT, 4, "ConnectReadTagTask for tag '"+tagName+"', using channel '"+
+                                        tagCh.getTagName()+"' (ch#" + tagCh.getPlcioConnectionNumber()+
+                                        ") still unable to connect to PLC address '"+address+
+                                        "' - will continue trying...\n Exception message: "+ex.getMessage());
+                                return PlcReconnectSupervisor.AttemptResult.RETRY;
+                            }
                             // not a problem with connecting to the EMCS PLC - the
                             // PlcioErrorRecoverThread will alert the user
-                            Log.warn(LOG_CAT, "ConnectReadTagThread ("+connectThreadName+", id="+
-                                    connectThreadId+") for tag '"+tagName+" received PLCIO error "+
-                                    plcioEx.getPlcioErrorCode().getErrorCode()+" thread is terminating");
-                            Misc.startDaemon(new PlcioErrorRecoverThread(tagName, plcioEx),
-                                    THREAD_NAME_PLCIOERRORRECOVER_PREFIX+tagName);
-                            return;
+                            Log.warn(LOG_CAT, "ConnectReadTagTask for tag '"+tagName+" received PLCIO error "+
+                                    plcioEx.getPlcioErrorCodeInt()+" task is terminating");
+                            finish();
+                            startPlcioErrorRecovery(tagName, new PlcioCallStatus(plcioEx));
+                            return PlcReconnectSupervisor.AttemptResult.ABANDONED;
                         }
+                        // this is not an exception the ECS can deal with - alert the user and abandon the task
+                        Log.severe(LOG_CAT, "ConnectReadTagTask for tag '"+tagName+
+                                "' received exception it cannot recover from task is terminating. Exception: "+
+                                Misc.getExceptionAsString(ex));
+                        finish();
+                        return PlcReconnectSupervisor.AttemptResult.ABANDONED;
                     }
-                    else {
-                        // this is not an exception the ECS can deal with - alert the user by terminating
-                        Log.severe(LOG_CAT, "ConnectReadTagThread ("+connectThreadName+", id="+
-                                connectThreadId+") for tag '"+tagName+
-                                "' received exception it cannot recover from thread is terminating");
-                        throw new RuntimeException(ex);
-                    }                    
-                }
-                
-                if (tagCh.isConnected()) {
-                    // the channel has been successfully opened - we're done!
-                    done = true;
-                    
-                    double channelReconnectTimeS = ((System.currentTimeMillis() - originalStartTime) / 1000.0);
-                    
-                    updateCacheConnectionStatus(tagName, true);
-                    
-                    Log.debug(LOG_CAT, 2, "ConnectReadTagThread ("+connectThreadName+", id="+
-                            connectThreadId+") for tag '"+tagName+"', successfully opened channel '"
-                            +tagCh.getTagName()+"' (ch#" + tagCh.getPlcioConnectionNumber()+
-                            "). Time taken = "+channelReconnectTimeS+"s");
-                    
-                    // now create and start PLC tag reader to read the tag
-                    // at required interval
-                    double readInterval = Cache.lookup(IPlcTag.PROPERTY_TAG + ":" +
-                            tagName + IPlcTag.PROPERTY_INTERVAL).getDouble();
-                    tagReaderMap.put(tagName,
-                            (new PlcTagReader(tagChMap.get(tagName), tagMap.get(tagName),
-                                    readInterval, logCatSuffix, connectionLostIH, readTagIH)));
-                    Misc.startDaemon(tagReaderMap.get(tagName), THREAD_NAME_PLCTAGREADER_PREFIX+tagName);
-                    
-                    Log.debug(LOG_CAT, 2, "ConnectReadTagThread ("+connectThreadName+", id="+
-                            connectThreadId+") started read of tag '"+tagName+"' at interval = "+
-                            readInterval + "s, using channel '" + tagChMap.get(tagName).getTagName()+
-                            "' (ch#"+tagChMap.get(tagName).getPlcioConnectionNumber()+")");
-                }
-                else {
-                    // calculate the time to delay based upon time taken to complete PLC open
-                    // attempt and this thread's interval
-                    delay = (connectionAttemptIntervalMs - (System.currentTimeMillis() - startTime));
-                    Misc.pause(delay);
                 }
-                
-            } // end while
-            // remove this thread from the connect thread HashMap to ensure
-            // it is no longer referenced
-            connectReadTagThreadMap.remove(tagCh.getTagName());
+            }
+            
+            if (!tagCh.isConnected()) {
+                return PlcReconnectSupervisor.AttemptResult.RETRY;
+            }
+            
+            // the channel has been successfully opened - we're done!
+            finish();
+            if (tagReaderMap == null) {
+                // disconnected while opening
+                return PlcReconnectSupervisor.AttemptResult.RECONNECTED;
+            }
             
-            Log.debug(LOG_CAT, 2, "ConnectReadTagThread ("+connectThreadName+", id="+
-                    connectThreadId+") for tag '"+tagName+"' completed with channel open status ="+
-                    Boolean.toString(tagCh.isConnected()));
- 
-            // signal that connectThread is no longer running
-            connectThreadRunning = false;
-        } // end run
+            double channelReconnectTimeS = ((System.currentTimeMillis() - originalStartTime) / 1000.0);
+            
+            updateCacheConnectionStatus(tagName, true);
+            
+            Log.debug(LOG_CAT, 2, "ConnectReadTagTask for tag '"+tagName+"', successfully opened channel '"
+                    +tagCh.getTagName()+"' (ch#" + tagCh.getPlcioConnectionNumber()+
+                    "). Time taken = "+channelReconnectTimeS+"s");
+            
+            // now create and start PLC tag reader to read the tag
+            // at required interval
+            double readInterval = Cache.lookup(IPlcTag.PROPERTY_TAG + ":" +
+                    tagName + IPlcTag.PROPERTY_INTERVAL).getDouble();
+            tagReaderMap.put(tagName,
+                    (new PlcTagReader(tagChMap.get(tagName), tagMap.get(tagName),
+                            readInterval, logCatSuffix, connectionLostIH, readTagIH)));
+            String propIntervalMin = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_INTERVAL_MIN;
+            String propIntervalMax = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_INTERVAL_MAX;
+            if (Cache.contains(propIntervalMin) && Cache.contains(propIntervalMax)) {
+                tagReaderMap.get(tagName).setAdaptiveInterval(Cache.lookup(propIntervalMin).getDouble(),
+                        Cache.lookup(propIntervalMax).getDouble());
+            }
+            String propAlignToClock = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_ALIGN_TO_CLOCK;
+            if (Cache.contains(propAlignToClock)) {
+                tagReaderMap.get(tagName).setAlignToClock(Cache.lookup(propAlignToClock).getBoolean());
+            }
+            String propPhaseSlot = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_PHASE_SLOT;
+            if (Cache.contains(propPhaseSlot)) {
+                tagReaderMap.get(tagName).setPhaseSlot(Cache.lookup(propPhaseSlot).getInteger());
+            }
+            String propOverrunPolicy = IPlcTag.PROPERTY_TAG + ":" + tagName + IPlcTag.PROPERTY_OVERRUN_POLICY;
+            if (Cache.contains(propOverrunPolicy)) {
+                tagReaderMap.get(tagName).setOverrunPolicy(
+                        PlcTagReader.OverrunPolicy.parse(Cache.lookup(propOverrunPolicy).getString()));
+            }
+            if (Cache.contains(PROPERTY_RATE_GROUPS) && Cache.lookup(PROPERTY_RATE_GROUPS).getBoolean()) {
+                tagReaderMap.get(tagName).startInGroup(THREAD_NAME_PLCTAGREADER_PREFIX+tagName,
+                        threadFactory, gisAddress, readGroups);
+            }
+            else {
+                tagReaderMap.get(tagName).start(THREAD_NAME_PLCTAGREADER_PREFIX+tagName, threadFactory);
+            }
+            
+            Log.debug(LOG_CAT, 2, "ConnectReadTagTask started read of tag '"+tagName+"' at interval = "+
+                    readInterval + "s, using channel '" + tagChMap.get(tagName).getTagName()+
+                    "' (ch#"+tagChMap.get(tagName).getPlcioConnectionNumber()+")");
+            return PlcReconnectSupervisor.AttemptResult.RECONNECTED;
+        } // end attempt()
         
-        public void stop() {
+        /**
+         * Cancel the task, if the channel is being opened the open is not interrupted.
+         */
+        public void cancel() {
             if (!done) {
-                done = true;
-                if (connectThread != null)
-                    connectThread.interrupt();
-                // don't exit this method until thread is no longer running
-                // but only wait for limited period
-                int waitTimeTotal = 0;
-                int waitTime = Math.round(connectionAttemptIntervalMs / 2);
-                while (connectThreadRunning && (waitTimeTotal < (3 * connectionAttemptIntervalMs))) {
-                    Misc.pause(waitTime); 
-                    waitTimeTotal += waitTime;
-                }
-                connectThread = null;
-                
-                if (connectThreadRunning) {
-                    Log.warn(LOG_CAT, "ConnectReadTagThread ("+connectThreadName+", id="+
-                            connectThreadId+") has been requested to stop but unable to "+
-                            "verify thread is no longer running, this may be due to "+
-                            "previous uncaught exception terminating the thread.");
-                }
-                else {
-                    Log.debug(LOG_CAT, 2, "ConnectReadTagThread ("+connectThreadName+", id="+
-                            connectThreadId+") stopped");
-                }
-
+                finish();
+                PlcReconnectSupervisor.forAddress(supervisorAddress).cancel(this);
+                Log.debug(LOG_CAT, 2, "ConnectReadTagTask for tag '"+tagName+"' cancelled");
             }
             else {
-                Log.note(LOG_CAT, "ConnectReadTagThread already stopped for tag '"+tagName+"'");
+                Log.note(LOG_CAT, "ConnectReadTagTask already completed for tag '"+tagName+"'");
             }
-        } // end method stop()
+        } // end cancel()
+        
+        /**
+         * Mark the task as done and remove it from the connection's map of
+         * tasks to ensure it is no longer referenced.
+         */
+        private void finish() {
+            done = true;
+            Map<String,ConnectReadTagTask> taskMap = connectReadTagTaskMap;
+            if ((taskMap != null) && (taskMap.get(tagName) == this)) {
+                taskMap.remove(tagName);
+            }
+        } // end finish()
 
-    } // end inner-class ConnectReadTagThread
+    } // end inner-class ConnectReadTagTask
     
     /**
      * The {@linkplain IInterruptHandler} class passed to the {@linkplain PlcTagReader}
      * constructor containing interrupt to be called if reader is unable to read its
      * tag due to a PLCIO error.
      * <p>
-     * The {@linkplain PlcioErrorInterruptHandler#interrupt(ABPlcioExceptionPLCIO)}
+     * The {@linkplain PlcioErrorInterruptHandler#interrupt(IPlcioCallStatus)}
      * method contained in this class (and called by PlcTagReader on PLCIO error,
-     * e.g. if connection is lost to GIS PLC) creates and starts an
-     * {@linkplain PlcioErrorRecoverThread} to do the actual work required when a PLCIO
+     * e.g. if connection is lost to GIS PLC) submits a
+     * {@linkplain PlcioErrorRecoverThread} to the connection's task executor to do the actual work required when a PLCIO
      * error occurs. This ensures the PlcTagReader is not blocked while the error is
      * dealt with and can can respond to request to be stopped (as is done in
      * {@linkplain PlcioErrorRecoverThread#run()}).
+     * <p>
+     * A PLCIO timeout, which the reader continues from, is not recovered from but is
+     * counted as a failure of the PLC address the tag's channel is open to.
      * 
      * @author Alastair Borrowman (OSL)
      *
      */
-    protected class PlcioErrorInterruptHandler implements IInterruptHandler<ABPlcioExceptionPLCIO> {
+    protected class PlcioErrorInterruptHandler implements IInterruptHandler<IPlcioCallStatus> {
         
         private final String tagName;
         
@@ -1039,29 +2230,110 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
         } // end Constructor
 
         @Override
-        public void interrupt(ABPlcioExceptionPLCIO plcioEx) {
+        public void interrupt(IPlcioCallStatus status) {
+            if (isPlcioError(status, ABPlcioExceptionPLCIO.PlcioErrorCategory.TIMEOUT)) {
+                Map<String,ABPlcioChannel> channels = tagChMap;
+                ABPlcioChannel tagCh = (channels == null) ? null : channels.get(tagName);
+                if (tagCh != null) {
+                    addressFailed(tagCh.getPlcAddress(), "PLCIO timeout reading tag '" + tagName + "'");
+                }
+                return;
+            }
             // start new thread to actually do work required so interrupt can return immediately
-            Misc.startDaemon(new PlcioErrorRecoverThread(tagName, plcioEx), THREAD_NAME_PLCIOERRORRECOVER_PREFIX+tagName);
+            startPlcioErrorRecovery(tagName, status);
         } // end interrupt()
     } // end inner-class PlcioErrorInterruptHandler
     
     /**
-     * Thread created and started when a call to access the GIS PLC throws a
-     * {@linkplain ABPlcioExceptionPLCIO} exception.
+     * The {@linkplain IInterruptHandler} class passed to the connection's
+     * {@linkplain ChannelHealthTracker}, called when the health of the connection's
+     * channels changes.
+     * <p>
+     * The health tripping bad counts as a failure of the active PLC address, unless the
+     * failure that tripped it is a PLCIO timeout or connect error, which are counted where
+     * they are handled. The health returning good clears the active address's failures.
+     * Called holding the tracker's lock so only records the change, any switch of address
+     * being run by the connection's task executor.
+     * 
+     * @author agent
+     *
+     */
+    protected class HealthChangeInterruptHandler implements IInterruptHandler<IPlcioCallStatus> {
+        
+        @Override
+        public void interrupt(IPlcioCallStatus status) {
+            String address = gisAddress;
+            if (address == null) {
+                return;
+            }
+            if (status.isOk()) {
+                addressSucceeded(address);
+            }
+            else if (!isPlcioError(status, ABPlcioExceptionPLCIO.PlcioErrorCategory.TIMEOUT) &&
+                    !isPlcioError(status, ABPlcioExceptionPLCIO.PlcioErrorCategory.CONNECTION)) {
+                addressFailed(address, "channel health tripped (" + status.getOutcome() + ")");
+            }
+        } // end interrupt()
+    } // end inner-class HealthChangeInterruptHandler
+    
+    /**
+     * The {@linkplain IInterruptHandler} class passed to the connection's
+     * {@linkplain PlcioCallWatchdog}, called with <b>true</b> when a PLCIO call of the
+     * connection stalls and <b>false</b> when all stalled calls have returned.
+     * <p>
+     * As the watchdog's thread must not block, the stopping and restarting of the
+     * tags' readers is done by a task run by the connection's task executor.
+     * 
+     * @author agent
+     *
+     */
+    protected class CallStallInterruptHandler implements IInterruptHandler<Boolean> {
+        
+        @Override
+        public void interrupt(final Boolean fenced) {
+            PlcioTaskExecutor executor = taskExecutor;
+            if (executor == null) {
+                return;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (fenced) {
+                            fenceReaders();
+                        }
+                        else {
+                            unfenceReaders();
+                        }
+                    }
+                }, THREAD_NAME_FENCE_PREFIX + (fenced ? "fence" : "unfence"));
+            } catch (RejectedExecutionException ex) {
+                Log.warn(LOG_CAT, "Unable to " + (fenced ? "stop" : "restart") + " PlcTagReaders of " +
+                        (fenced ? "fenced" : "unfenced") + " connection - " + ex.getMessage());
+            }
+        } // end interrupt()
+    } // end inner-class CallStallInterruptHandler
+    
+    /**
+     * Task run by the connection's {@linkplain PlcioTaskExecutor} when a call to access
+     * the GIS PLC fails with a PLCIO error.
      * <p>
-     * For example, the {@linkplain PlcioErrorInterruptHandler#interrupt(ABPlcioExceptionPLCIO)} 
+     * For example, the {@linkplain PlcioErrorInterruptHandler#interrupt(IPlcioCallStatus)} 
      * called by {@linkplain PlcTagReader} when the reader is unable to read its tag
-     * due to an error being returned by PLCIO, creates and starts a thread of type to
-     * recover from the error.
+     * due to an error being returned by PLCIO, submits a task of this type to the
+     * connection's executor to recover from the error.
      * <p>
-     * The thread's run() method interrogates the {@linkplain ABPlcioExceptionPLCIO} passed
+     * The thread's run() method interrogates the {@linkplain IPlcioCallStatus} passed
      * to it at construction and takes the appropriate action based upon the PLCIO error
-     * the exception describes. If this is an error caused by a loss of connection to the GIS
+     * the status describes. If this is an error caused by a loss of connection to the GIS
      * PLC it does the necessary clean-up required when a tag's connection is lost.
      * If the tag was being read by a {@linkplain PlcTagReader} then this method
-     * calls {@linkplain ABPlcioConnection#startPlcTagReaders()}, which in turn calls
-     * {@linkplain ConnectReadTagThread} to begin attempts to re-connect to GIS that
+     * calls {@linkplain ABPlcioConnection#startPlcTagReader(String)}, which in turn submits a
+     * {@linkplain ConnectReadTagTask} to begin attempts to re-connect to GIS that
      * once successful will also start the re-start the tag's PlcTagReader.
+     * <p>
+     * Only one thread recovers from an error of a tag at a time, see
+     * {@linkplain ABPlcioConnection#startPlcioErrorRecovery(String, IPlcioCallStatus)}.
      * 
      * @author Alastair Borrowman (OSL)
      *
@@ -1069,12 +2341,12 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
     protected class PlcioErrorRecoverThread implements Runnable {
 
         private final String tagName;
-        private final ABPlcioExceptionPLCIO plcioEx;
+        private final IPlcioCallStatus status;
         
         // Constructor
-        public PlcioErrorRecoverThread(String name, ABPlcioExceptionPLCIO ex) {
+        public PlcioErrorRecoverThread(String name, IPlcioCallStatus callStatus) {
             tagName = name;
-            plcioEx = ex;
+            status = callStatus;
             
             if (Log.getDebugLevel(LOG_CAT) >= 3) {
                 StackTraceElement[] ste = Thread.currentThread().getStackTrace();
@@ -1089,12 +2361,31 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
 
         @Override
         public void run() {
-            ABPlcioExceptionPLCIO.PlcioErrorCode plcioErrCode = plcioEx.getPlcioErrorCode();
+            try {
+                recover();
+            } finally {
+                recoveringTagNames.remove(tagName);
+            }
+        } // end run()
+        
+        /**
+         * Take the action required to recover from the PLCIO error.
+         */
+        private void recover() {
+            ABPlcioExceptionPLCIO.PlcioErrorCode plcioErrCode =
+                    ABPlcioExceptionPLCIO.PlcioErrorCode.parse(status.getPlcioErrorCodeInt());
+            ABPlcioExceptionPLCIO.PlcioErrorCategory plcioErrCategory = ABPlcioExceptionPLCIO.PlcioErrorCategory.of(
+                    status.getPlcioErrorCodeInt(), status.getPlcioErrorCategoryCode());
+            if (plcioErrCode == ABPlcioExceptionPLCIO.PlcioErrorCode.NOT_HANDLED) {
+                publishPlcioErrorsNotHandled();
+            }
             ABPlcioChannel tagCh = tagChMap.get(tagName);
             String threadName = Thread.currentThread().getName();
+            // the address the channel was using, which may no longer be the active address
+            String address = tagCh.getPlcAddress();
             Log.warn(LOG_CAT, "Connection notified of PLCIO Error accessing GIS PLC tag '"+
-                    tagName+"' using channel: "+tagCh+". PLCIO error code="+plcioEx.getPlcioErrorCodeInt()+
-                    ", msg='"+plcioEx.getPlcioErrorString()+"'");
+                    tagName+"' using channel: "+tagCh+". PLCIO error code="+status.getPlcioErrorCodeInt()+
+                    ", msg='"+status.getMessage()+"'");
             
             if (tagCh.isConnected()) {
                 // update the connection status so all know channel to this tag
@@ -1110,7 +2401,7 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
                     // exception message is for PLCIO error related to connecting to the PLC
                     if (ex instanceof ABPlcioExceptionPLCIO) {
                         ABPlcioExceptionPLCIO plcioEx = (ABPlcioExceptionPLCIO) ex;
-                        if (plcioEx.getPlcioErrorCode() == ABPlcioExceptionPLCIO.PlcioErrorCode.CONNECT) {
+                        if (plcioEx.getPlcioErrorCategory() == ABPlcioExceptionPLCIO.PlcioErrorCategory.CONNECTION) {
                             // this is what will occur if we are unable to connect to the PLC
                             if (Log.getDebugLevel(LOG_CAT) >= 2 ) {
                                 Log.debug(LOG_CAT, 2, "PlcioErrorRecoverThread ("+threadName+") exception received when closing channel "+
@@ -1138,24 +2429,188 @@ public abstract class ABPlcioConnection implements IConnection, IABPlcioConnecti
                         "' - will be restarted once connection is reopened to GIS PLC");
             }
             
-            switch(plcioErrCode) {
-            case CONNECT: // intentional full-through
+            // the action is chosen by the error's category so that errors
+            // without a PlcioErrorCode of their own are still recovered from
+            switch(plcioErrCategory) {
+            case CONNECTION: // intentional full-through
             case TIMEOUT:
-                // if required restart the PlcTagReader using same method as connection's controller
-                // users in its doStartup(), this uses a ConnectReadTagThread to attempt to re-connect
-                // to the EMCS PLC to read the tag, once successfully connected the thread starts the
-                // PlcTagReader
-                if (restartTagReader) startPlcTagReaders();
+                // the failure may cause the connection to switch to another PLC address, the
+                // tag's reader then being restarted using the new address
+                if (address != null) {
+                    addressFailed(address, "PLCIO error " + status.getPlcioErrorCodeInt() + " accessing tag '" + tagName + "'");
+                }
+                // if required restart the tag's PlcTagReader, this uses a ConnectReadTagTask to
+                // attempt to re-connect to the EMCS PLC to read the tag, once successfully connected
+                // the task starts the PlcTagReader - the readers of other tags are not affected
+                if (restartTagReader) startPlcTagReader(tagName);
                 break;
-            case BAD_TAG_NAME: // intentional full-through
-            case NOT_HANDLED:
+            case TAG: // intentional full-through
+            case OTHER:
                 Log.note(LOG_CAT, "The GISS has disconnected the channel used by tag '"+tagName+
-                        " following PLCIO error "+plcioEx.getPlcioErrorCodeInt()+
-                        " ("+plcioErrCode.getErrorString()+") no more action is being taken.");
+                        " following PLCIO error "+status.getPlcioErrorCodeInt()+
+                        " ("+plcioErrCode.getErrorString()+", category "+plcioErrCategory+") no more action is being taken.");
                 break;
             } // end switch
             
-        } // end run()
+        } // end recover()
     } // end inner-class PlcioErrorRecoverThread
     
+    /**
+     * The class ChannelWarmUp opens a set of channels following connect(), so that their
+     * first transfer does not wait for the channel to be opened.
+     * <p>
+     * The channels are opened using all but one of the connection's task executor threads,
+     * so that a thread is always left for error recovery, fencing and switching address.
+     * As all PLCIO calls are serialized by the Master using more threads gains little.
+     * <p>
+     * Each channel opened is kept open in the same way as a channel opened by
+     * readTag() or writeTag(), being closed once idle for the channel idle timeout
+     * unless it is taken over by a PlcTagReader. A channel that is already open is
+     * left unchanged, a channel that fails to open is reported and left closed to be
+     * opened on first use.
+     * <p>
+     * Once all channels have been attempted the time taken to open each channel, or
+     * its failure, is logged and stored in the Cache as {@linkplain ABPlcioConnection#PROPERTY_WARM_UP_REPORT},
+     * a String array with an element of the form <code>name=&lt;ms&gt;ms</code>,
+     * <code>name=alreadyOpen</code> or <code>name=failed (&lt;error&gt;)</code> for each channel.
+     * 
+     * @author agent
+     *
+     */
+    protected class ChannelWarmUp implements Runnable {
+        private final Queue<String> names;
+        private final int nameTotal;
+        private final Map<String,String> results = new ConcurrentHashMap<String,String>();
+        private final AtomicInteger workersRunning = new AtomicInteger(0);
+        private final AtomicInteger failedTotal = new AtomicInteger(0);
+        /** The number of channels opened and the total and maximum time taken, guarded by this warm-up's lock. */
+        private int openedTotal;
+        private long openTotalMs;
+        private long openMaxMs;
+        private long startMs;
+        
+        /**
+         * Construct a ChannelWarmUp.
+         * 
+         * @param channelNames The names of the tags whose channels are to be opened,
+         * in the order they are to be opened.
+         */
+        public ChannelWarmUp(Collection<String> channelNames) {
+            names = new ConcurrentLinkedQueue<String>(channelNames);
+            nameTotal = names.size();
+        }
+        
+        /**
+         * Start opening the channels using all but one of the executor's threads,
+         * or its only thread.
+         * 
+         * @param executor The connection's task executor.
+         */
+        public void start(PlcioTaskExecutor executor) {
+            startMs = System.currentTimeMillis();
+            int workers = Math.min(Math.max(1, executor.getMaximumPoolSize() - 1), nameTotal);
+            Log.note(LOG_CAT, "Warm-up opening " + nameTotal + " channel(s) using " + workers + " thread(s)");
+            workersRunning.set(workers);
+            for (int i = 0; i < workers; i++) {
+                try {
+                    executor.execute(this, THREAD_NAME_WARMUP_PREFIX + i);
+                } catch (RejectedExecutionException ex) {
+                    // the remaining workers open the channels of a rejected worker
+                    workerDone();
+                }
+            }
+        } // end start()
+        
+        /**
+         * Open channels until all have been attempted.
+         */
+        @Override
+        public void run() {
+            try {
+                String name;
+                while (((name = names.poll()) != null) && (tagChMap != null)) {
+                    warmUp(name);
+                }
+            } finally {
+                workerDone();
+            }
+        } // end run()
+        
+        /**
+         * Open the named tag's channel, recording the time taken or failure.
+         */
+        private void warmUp(String name) {
+            long openStartMs = System.currentTimeMillis();
+            try {
+                ABPlcioChannel tagCh = getTagChannel(name);
+                if (tagCh == null) {
+                    failedTotal.incrementAndGet();
+                    results.put(name, "failed (not a tag of this connection)");
+                    Log.warn(LOG_CAT, "Warm-up channel '" + name + "' is not a tag of this connection - not opened");
+                    return;
+                }
+                // hold the channel's lock so that the open does not race a
+                // transfer or a ConnectReadTagTask opening the same channel
+                synchronized (tagCh) {
+                    if (tagCh.isConnected()) {
+                        results.put(name, "alreadyOpen");
+                        return;
+                    }
+                    tagCh.open(gisAddress);
+                    if (tagCh.isConnected()) {
+                        updateCacheConnectionStatus(name, true);
+                        keptOpenChannels.put(name, System.currentTimeMillis());
+                        scheduleIdleSweep();
+                    }
+                }
+                long openMs = System.currentTimeMillis() - openStartMs;
+                synchronized (this) {
+                    openedTotal++;
+                    openTotalMs += openMs;
+                    openMaxMs = Math.max(openMaxMs, openMs);
+                }
+                results.put(name, openMs + "ms");
+                Log.debug(LOG_CAT, 3, "Warm-up opened channel '" + name + "' in " + openMs + "ms");
+            } catch (ConnectionException ex) {
+                failedTotal.incrementAndGet();
+                String error = (ex instanceof ABPlcioExceptionPLCIO) ?
+                        ("PLCIO error " + ((ABPlcioExceptionPLCIO) ex).getPlcioErrorCodeInt()) : ex.getClass().getSimpleName();
+                results.put(name, "failed (" + error + ")");
+                Log.warn(LOG_CAT, "Warm-up failed to open channel '" + name + "' after " +
+                        (System.currentTimeMillis() - openStartMs) + "ms - channel will be opened on first use. " +
+                        "Exception: " + ex.getMessage());
+            }
+        } // end warmUp()
+        
+        /**
+         * Called as each worker ends, the last to end reports the warm-up's results.
+         */
+        private void workerDone() {
+            if (workersRunning.decrementAndGet() > 0) {
+                return;
+            }
+            List<String> resultNames = new ArrayList<String>(results.keySet());
+            Collections.sort(resultNames);
+            String[] report = new String[resultNames.size()];
+            for (int i = 0; i < report.length; i++) {
+                report[i] = resultNames.get(i) + "=" + results.get(resultNames.get(i));
+            }
+            Cache.store(new Attribute(PROPERTY_WARM_UP_REPORT, report));
+            String msg;
+            synchronized (this) {
+                msg = "Warm-up of " + nameTotal + " channel(s) completed in " +
+                        (System.currentTimeMillis() - startMs) + "ms, " + openedTotal + " opened, " +
+                        failedTotal.get() + " failed, open time mean=" +
+                        ((openedTotal > 0) ? (openTotalMs / openedTotal) : 0) + "ms max=" + openMaxMs +
+                        "ms. Connection " + (isReady() ? "ready" : "NOT ready");
+            }
+            if (failedTotal.get() > 0) {
+                Log.warn(LOG_CAT, msg + ". Results: " + Misc.array2string(report));
+            }
+            else {
+                Log.note(LOG_CAT, msg);
+            }
+        } // end workerDone()
+    } // end inner-class ChannelWarmUp
+    
 } // end class ABPlcioConnection
@@ -1,6 +1,7 @@
 package atst.giss.abplc;
 
 import atst.base.hardware.connections.ConnectionException;
+import atst.cs.services.*;
 import atst.cs.util.*;
 import static atst.giss.abplc.GisToGissIcdConstants.*;
 
@@ -25,6 +26,40 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
     /** Array containing all log categories used in this class. */
     private static final String[] LOG_CATS_INUSE = {LOG_CAT};
     
+    /** R_gisCStatus tag items making up the GIC interlock status, in the order checked. */
+    private static final String[] GIC_INTERLOCK_ITEMS = {GICESTOP, ENCAZREADY, ENCALTREADY, TELALTREADY,
+        TELAZREADY, ROTREADY, GICRUNMODE, ENCRUNMODE, FACRUNMODE, INSTRUNMODE, OSSRUNMODE, ROTRUNMODE,
+        TELRUNMODE, FTSRUNMODE, GICIOSTAT, ENCALTTRAP, ENCAZTRAP, TELALTTRAP, TELAZTRAP, ROTTRAP};
+    /** R_gisCStatus tag items making up the ENC interlock status, in the order checked. */
+    private static final String[] ENC_INTERLOCK_ITEMS = {ENCESTOP, ENCIOSTAT, ENCAZCWOTENSION,
+        ENCALTCWOTENSION, ENCAZMSTOP, ENCAZSPEEDLIM, ENCAZNEGLIM, ENCAZPOSLIM, ENCALTMSTOP, ENCELENEGLIM,
+        ENCELEPOSLIM, ENCAPCLOSE, ENCBCRANE, ENCJCRANE, TEOAPLAT, ENCAZALIGNLIFT, ENCTCRANE};
+    /** R_gisCStatus tag items making up the ROT interlock status, in the order checked. */
+    private static final String[] ROT_INTERLOCK_ITEMS = {ROTESTOP, ROTIOSTAT, ROTMSTOP, ROTSAFELIMSPEED,
+        ROTAZCCWLIM, ROTAZCWLIM, ROTOSPEED};
+    /** R_gisCStatus tag items making up the OSS interlock status. */
+    private static final String[] OSS_INTERLOCK_ITEMS = {OSSIOSTAT};
+    /** R_gisCStatus tag items making up the FAC interlock status, in the order checked. */
+    private static final String[] FAC_INTERLOCK_ITEMS = {FACESTOPOK, FACIOSTAT, FACFIREOK, FACSEISMICOK,
+        FACIPHZONELOCK, FACMLHZONELOCK, FACCLHZONELOCK, FACULHZONELOCK, FACCATHZONELOCK, FACSRHZONELOCK,
+        FACEFHZONELOCK, FACTELHZONELOCK, FACUEHZONELOCK, FACBLIFT, FACBLIFTPERM, FACCLCRANE, FACCLCRANEPERM,
+        FACPFLIFT, FACPFLIFTPERM, FACPFRLATCH};
+    /** R_gisCStatus tag items making up the INST interlock status. */
+    private static final String[] INST_INTERLOCK_ITEMS = {INSTIOSTAT};
+    /** R_gisCStatus tag items making up the TEL interlock status, in the order checked. */
+    private static final String[] TEL_INTERLOCK_ITEMS = {TELESTOP, TELIOSTAT, M1AZMAINTPOS, M1ALTMAINTPOS,
+        TEOAAZMAINTPOS, TEOAALTMAINTPOS, TELAZMSTOP, TELAZSPEED, TELAZNEGLIM, TELAZPOSLIM, TELALTMSTOP,
+        TELALTSPEED, TELALTNEGLIM, TELALTPOSLIM, TELAZCWSTOP, TELAZCWALIGN, TELAZCWOTENSION, TELAZOSPEED,
+        TELALTOSPEED, OSSBRIDGE, OSSBRIDGEPERM, M5BRIDGE, M5BRIDGEPERM, TELDOORNOTCLOSE, M1CARTJACKS,
+        M1COVER, M1COVERPERM};
+    /** R_gisCStatus tag items making up the FTS interlock status. */
+    private static final String[] FTS_INTERLOCK_ITEMS = {FTSIOSTAT};
+    /** CStatus tag time items making up the GIS PLC time, in the order year to millisecond. */
+    private static final String[] PLC_TIME_ITEMS = {TAG_ITEM_TIME_YEAR, TAG_ITEM_TIME_MONTH,
+        TAG_ITEM_TIME_DAY, TAG_ITEM_TIME_HOUR, TAG_ITEM_TIME_MIN, TAG_ITEM_TIME_SEC, TAG_ITEM_TIME_MS};
+    /** Format used for each of the PLC_TIME_ITEMS when building the GIS PLC time string. */
+    private static final String[] PLC_TIME_FORMATS = {"%04d/", "%02d/", "%02d ", "%02d:", "%02d:", "%02d.", "%03d"};
+    
     /*
      *  Private instance variables
      */
@@ -32,6 +67,24 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
     private IPlcTag tagR_CStatus = null;
     private IPlcTag tagW_Cmds = null;
     ABPlcioChannel tagW_CmdsCh = null;
+    
+    /*
+     * Handles of the tag items used by this connection, resolved once on connect
+     * so that the status methods do not look up each item by attribute name.
+     */
+    private ITagItemHandle[] gicInterlockHandles = null;
+    private ITagItemHandle[] encInterlockHandles = null;
+    private ITagItemHandle[] rotInterlockHandles = null;
+    private ITagItemHandle[] ossInterlockHandles = null;
+    private ITagItemHandle[] facInterlockHandles = null;
+    private ITagItemHandle[] instInterlockHandles = null;
+    private ITagItemHandle[] telInterlockHandles = null;
+    private ITagItemHandle[] ftsInterlockHandles = null;
+    private ITagItemHandle[] plcTimeHandles = null;
+    private ITagItemHandle connectionStatusHandle = null;
+    private ITagItemHandle commFaultHandle = null;
+    private ITagItemHandle systemFaultHandle = null;
+    private ITagItemHandle errMajorHandle = null;
 
     /**
      * Called by CSF when connection's component receives <i>startup</i> command.
@@ -57,6 +110,25 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
         // and ABPlcioChannel object
         //tagW_CmdsCh = tagChMap.get(TAG_W_GISCMDS);
         
+        // resolve the handles of all tag items used by this connection
+        if (tagR_CStatus != null) {
+            gicInterlockHandles = getTagItemHandles(tagR_CStatus, GIC_INTERLOCK_ITEMS);
+            encInterlockHandles = getTagItemHandles(tagR_CStatus, ENC_INTERLOCK_ITEMS);
+            rotInterlockHandles = getTagItemHandles(tagR_CStatus, ROT_INTERLOCK_ITEMS);
+            ossInterlockHandles = getTagItemHandles(tagR_CStatus, OSS_INTERLOCK_ITEMS);
+            facInterlockHandles = getTagItemHandles(tagR_CStatus, FAC_INTERLOCK_ITEMS);
+            instInterlockHandles = getTagItemHandles(tagR_CStatus, INST_INTERLOCK_ITEMS);
+            telInterlockHandles = getTagItemHandles(tagR_CStatus, TEL_INTERLOCK_ITEMS);
+            ftsInterlockHandles = getTagItemHandles(tagR_CStatus, FTS_INTERLOCK_ITEMS);
+            connectionStatusHandle = tagR_CStatus.getTagItemHandle(CONNECTIONSTATUSGIC);
+            commFaultHandle = tagR_CStatus.getTagItemHandle(TAG_ITEM_COMM_FAULT);
+            systemFaultHandle = tagR_CStatus.getTagItemHandle(TAG_ITEM_PLC_SYSTEM_FAULT);
+            errMajorHandle = tagR_CStatus.getTagItemHandle(TAG_ITEM_PLC_ERR_CODE_MAJOR);
+        }
+        if (tagCStatus != null) {
+            plcTimeHandles = getTagItemHandles(tagCStatus, PLC_TIME_ITEMS);
+        }
+        
     } // end doConnect()
     
     @Override
@@ -68,6 +140,10 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
         tagR_CStatus = null;
         tagW_Cmds = null;
         tagW_CmdsCh = null;
+        gicInterlockHandles = encInterlockHandles = rotInterlockHandles = null;
+        ossInterlockHandles = facInterlockHandles = instInterlockHandles = null;
+        telInterlockHandles = ftsInterlockHandles = plcTimeHandles = null;
+        connectionStatusHandle = commFaultHandle = systemFaultHandle = errMajorHandle = null;
 
     } // end doDisconnect()
 
@@ -97,27 +173,10 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
     public String getGisPlcTime() {
         StringBuilder gisPlcTime = new StringBuilder();
         
-        // time year
-        int timeYear = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_YEAR)).getInteger();
-        gisPlcTime.append(String.format("%04d/", timeYear));
-        // time month
-        int timeMonth = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_MONTH)).getInteger();
-        gisPlcTime.append(String.format("%02d/", timeMonth));
-        // time day
-        int timeDay = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_DAY)).getInteger();
-        gisPlcTime.append(String.format("%02d ", timeDay));
-        // time hour
-        int timeHour = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_HOUR)).getInteger();
-        gisPlcTime.append(String.format("%02d:", timeHour));
-        // time minute
-        int timeMin = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_MIN)).getInteger();
-        gisPlcTime.append(String.format("%02d:", timeMin));
-        // time second
-        int timeSec = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_SEC)).getInteger();
-        gisPlcTime.append(String.format("%02d.", timeSec));
-        // time millisecond
-        int timeMs = Cache.lookup(tagCStatus.getTagItemPropName(TAG_ITEM_TIME_MS)).getInteger();
-        gisPlcTime.append(String.format("%03d", timeMs));
+        // time year, month, day, hour, minute, second and millisecond
+        for (int i = 0; i < plcTimeHandles.length; i++) {
+            gisPlcTime.append(String.format(PLC_TIME_FORMATS[i], plcTimeHandles[i].getInteger()));
+        }
         
         return gisPlcTime.toString();
     }
@@ -127,16 +186,46 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
      */
     
     private boolean isPlcCommFault() {
-        return Cache.lookup(tagR_CStatus.getTagItemPropName(TAG_ITEM_COMM_FAULT)).getBoolean();
+        return commFaultHandle.getBoolean();
     } // end isPlcCommFault()
     
     private boolean isPlcSystemFault() {
-        return Cache.lookup(tagR_CStatus.getTagItemPropName(TAG_ITEM_PLC_SYSTEM_FAULT)).getBoolean();
+        return systemFaultHandle.getBoolean();
     } // end isPlcSystemFault()
     
     private int getPlcErrMajor() {
-        return Cache.lookup(tagR_CStatus.getTagItemPropName(TAG_ITEM_PLC_ERR_CODE_MAJOR)).getInteger();
+        return errMajorHandle.getInteger();
     } // end getPlcErrMajor()
+    
+    /**
+     * Get the handles of the given items of a tag. The handle of an item
+     * the tag does not contain is left null.
+     */
+    private static ITagItemHandle[] getTagItemHandles(IPlcTag tag, String[] itemNames) {
+        ITagItemHandle[] handles = new ITagItemHandle[itemNames.length];
+        for (int i = 0; i < itemNames.length; i++) {
+            handles[i] = tag.getTagItemHandle(itemNames[i]);
+            if (handles[i] == null) {
+                Log.warn(LOG_CAT, "tag '" + tag.getName() + "' does not contain item '" + itemNames[i] + "'");
+            }
+        }
+        return handles;
+    } // end getTagItemHandles()
+    
+    /**
+     * Whether all of the given boolean items are true, checking the items in
+     * order and stopping at the first false item. An item that does not exist
+     * is treated as false.
+     */
+    private static boolean isAllTrue(ITagItemHandle[] handles) {
+        for (ITagItemHandle handle : handles) {
+            if ((handle == null) || !handle.getBoolean()) {
+                return false;
+            }
+        }
+        return true;
+    } // end isAllTrue()
+    
     /*
     * Public methods for determining the Interlock Status of specific subsystems based on underlying tags
     */
@@ -157,7 +246,7 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
     @Override
     public Boolean getGisConnectionStatus() {
         Boolean gicConnectionStatus;
-        gicConnectionStatus = Cache.lookup(tagR_CStatus.getTagItemPropName(CONNECTIONSTATUSGIC)).getBoolean() == true;
+        gicConnectionStatus = connectionStatusHandle.getBoolean();
         return gicConnectionStatus;
     }
         
@@ -170,365 +259,42 @@ public class ABPlcioConnectionGis extends ABPlcioConnection implements IABPlcioC
     // get*InterlockStatus methods documented in IABPlcioConnectionGis
     @Override
     public Boolean getGICInterlockStatus(){
-        Boolean gicInterlockStatus;
-        if (Cache.lookup(tagR_CStatus.getTagItemPropName(GICESTOP)).getBoolean() == false){
-            //Log.note("CACHE getGICInterlockStatus: " +Cache.lookup(tagR_CStatus.getTagItemPropName(GICESTOP)).getBoolean().toString());
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZREADY)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCALTREADY)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTREADY)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZREADY)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ROTREADY)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(GICRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(INSTRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(OSSRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ROTRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FTSRUNMODE)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(GICIOSTAT)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCALTTRAP)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZTRAP)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTTRAP)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZTRAP)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ROTTRAP)).getBoolean() == false){
-            gicInterlockStatus = false;
-        }
-        else{
-            gicInterlockStatus = true;
-        }
-       
-        return gicInterlockStatus;
+        return isAllTrue(gicInterlockHandles);
     }
     
     @Override
     public Boolean getENCInterlockStatus(){
-        Boolean encInterlockStatus;
-        if (Cache.lookup(tagR_CStatus.getTagItemPropName(ENCESTOP)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCIOSTAT)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZCWOTENSION)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCALTCWOTENSION)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZMSTOP)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZSPEEDLIM)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZNEGLIM)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZPOSLIM)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCALTMSTOP)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCELENEGLIM)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCELEPOSLIM)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAPCLOSE)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCBCRANE)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCJCRANE)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TEOAPLAT)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCAZALIGNLIFT)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ENCTCRANE)).getBoolean() == false){
-            encInterlockStatus = false;
-        }
-        else {
-            encInterlockStatus = true;
-        }
-        
-        return encInterlockStatus;
+        return isAllTrue(encInterlockHandles);
     }
     
     @Override
     public Boolean getROTInterlockStatus(){
-        Boolean rotInterlockStatus;
-        if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTESTOP)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(ROTIOSTAT)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTMSTOP)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTSAFELIMSPEED)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTAZCCWLIM)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTAZCWLIM)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else if (Cache.lookup(tagR_CStatus.getTagItemPropName(ROTOSPEED)).getBoolean() == false){
-            rotInterlockStatus = false;
-        }
-        else {
-            rotInterlockStatus = true;
-        }
-        
-        return rotInterlockStatus;
+        return isAllTrue(rotInterlockHandles);
     }
     
     @Override
     public Boolean getOSSInterlockStatus(){
-        Boolean ossInterlockStatus;
-        if(Cache.lookup(tagR_CStatus.getTagItemPropName(OSSIOSTAT)).getBoolean() == false){
-            ossInterlockStatus = false;
-        }
-        else{
-            ossInterlockStatus = true;
-        }
-        
-        return ossInterlockStatus;
+        return isAllTrue(ossInterlockHandles);
     }
     
     @Override
     public Boolean getFACInterlockStatus(){
-        Boolean facInterlockStatus;
-        if (Cache.lookup(tagR_CStatus.getTagItemPropName(FACESTOPOK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACIOSTAT)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACFIREOK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACSEISMICOK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACIPHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACMLHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACCLHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACULHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACCATHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACSRHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACEFHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACTELHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACUEHZONELOCK)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACBLIFT)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACBLIFTPERM)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACCLCRANE)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACCLCRANEPERM)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACPFLIFT)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACPFLIFTPERM)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(FACPFRLATCH)).getBoolean() == false){
-            facInterlockStatus = false;
-        }
-        else{
-            facInterlockStatus = true;
-        }
-        
-        return facInterlockStatus;
+        return isAllTrue(facInterlockHandles);
     }
     
     @Override
     public Boolean getINSTInterlockStatus(){
-        Boolean instInterlockStatus;
-        if(Cache.lookup(tagR_CStatus.getTagItemPropName(INSTIOSTAT)).getBoolean() == false){
-            instInterlockStatus = false;
-        }
-        else {
-            instInterlockStatus = true;
-        }
-        
-        return instInterlockStatus;
+        return isAllTrue(instInterlockHandles);
     }
     
     @Override
     public Boolean getTELInterlockStatus(){
-        Boolean telInterlockStatus;
-        if (Cache.lookup(tagR_CStatus.getTagItemPropName(TELESTOP)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELIOSTAT)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M1AZMAINTPOS)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M1ALTMAINTPOS)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TEOAAZMAINTPOS)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TEOAALTMAINTPOS)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZMSTOP)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZSPEED)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZNEGLIM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZPOSLIM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTMSTOP)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTSPEED)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTNEGLIM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTPOSLIM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZCWSTOP)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZCWALIGN)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZCWOTENSION)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELAZOSPEED)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELALTOSPEED)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(OSSBRIDGE)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(OSSBRIDGEPERM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M5BRIDGE)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M5BRIDGEPERM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(TELDOORNOTCLOSE)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M1CARTJACKS)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M1COVER)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else if(Cache.lookup(tagR_CStatus.getTagItemPropName(M1COVERPERM)).getBoolean() == false){
-            telInterlockStatus = false;
-        }
-        else{
-            telInterlockStatus = true;
-        }
-        
-        return telInterlockStatus;
+        return isAllTrue(telInterlockHandles);
     }
     
     @Override
     public Boolean getFTSInterlockStatus(){
-        Boolean ftsInterlockStatus;
-        if(Cache.lookup(tagR_CStatus.getTagItemPropName(FTSIOSTAT)).getBoolean() == false){
-            ftsInterlockStatus = false;
-        }
-        else {
-            ftsInterlockStatus = true;
-        }
-        
-        return ftsInterlockStatus;
+        return isAllTrue(ftsInterlockHandles);
     }
 
 } // end class ABPlcioConnectionAux
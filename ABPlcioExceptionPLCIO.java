@@ -1,5 +1,10 @@
 package atst.giss.abplc;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.*;
 
 import atst.base.hardware.connections.ConnectionException;
@@ -8,6 +13,14 @@ import atst.cs.services.Log;
 /**
  * Class containing the exception thrown when unable to communicate with the
  * GIS PLC due to a PLCIO error.
+ * <p>
+ * Exceptions constructed with the PLCIO error code, as thrown by
+ * {@linkplain ABPlcioMaster}'s JNI methods on every failed PLCIO call, have no
+ * stack trace. The exception is caught by {@linkplain ABPlcioMaster#plcCall(IPlcioCall)}
+ * and only its error code and message used, so while the PLC is not responding and
+ * every read times out no stack trace is walked for each failed call. Exceptions
+ * constructed without the error code, which wrap or describe other failures, keep
+ * their stack trace.
  * 
  * @author Alastair Borrowman (OSL)
  *
@@ -16,13 +29,77 @@ public class ABPlcioExceptionPLCIO extends ConnectionException {
 
 	private static final long serialVersionUID = 1L;
 	
-	private static final Pattern PATTERN_PLCIO_ERROR_CODE = Pattern.compile("[0-9]+");
-	private static final Pattern PATTERN_PLCIO_ERROR_MSG = Pattern.compile("PLCIO Err [0-9]+: ");
+	/** The PLCIO error in the message of exceptions not given the PLCIO error code,
+	 * group 1 being the error code. */
+	private static final Pattern PATTERN_PLCIO_ERROR_MSG = Pattern.compile("PLCIO Err ([0-9]+): ");
 	
 	private final PlcioErrorCode myPlcioErrorCode;
+	private final PlcioErrorCategory myPlcioErrorCategory;
 	private final int myPlcioErrorCodeInt;
 	private final String myPlcioErrorString;
 	
+	/**
+	 * Enumeration of the categories of PLCIO errors, used to choose the action
+	 * taken on an error without depending on its exact error code so that
+	 * errors without a {@linkplain PlcioErrorCode} are still handled.
+	 * <p>
+	 * The category is given by the JNI method when the PLCIO function that failed
+	 * determines it, e.g. any failure of <code>plc_open()</code> is a
+	 * {@linkplain #CONNECTION} error, otherwise it is that of the error code.
+	 * 
+	 * @author agent
+	 *
+	 */
+	public enum PlcioErrorCategory {
+		/** A connection to the PLC could not be established or has been lost. */
+		CONNECTION(1),
+		/** A request was made to the PLC and no response was received within timeout. */
+		TIMEOUT(2),
+		/** The tag accessed is not valid in the PLC. */
+		TAG(3),
+		/** Any other error. */
+		OTHER(0);
+		
+		/** The category code given by a JNI method that leaves the category to be
+		 * found from the PLCIO error code. */
+		public static final int FROM_ERROR_CODE = -1;
+		
+		private final int private_categoryCode;
+		
+		PlcioErrorCategory(int categoryCode) {
+			private_categoryCode = categoryCode;
+		}
+		
+		/**
+		 * Return the code of this category, as passed by the JNI methods.
+		 * 
+		 * @return The category code.
+		 */
+		public int getCategoryCode() {
+			return this.private_categoryCode;
+		}
+		
+		/**
+		 * Get the category of a PLCIO error.
+		 * 
+		 * @param errorCode The PLCIO error code, -1 if not known.
+		 * @param categoryCode The category code given by the JNI method, or
+		 * {@linkplain #FROM_ERROR_CODE} if the category is that of the error code.
+		 * 
+		 * @return The category given by categoryCode if it is a category other than
+		 * {@linkplain #OTHER}, otherwise the category of the error code.
+		 */
+		public static PlcioErrorCategory of(int errorCode, int categoryCode) {
+			for (PlcioErrorCategory category : values()) {
+				if ((category != OTHER) && (category.getCategoryCode() == categoryCode)) {
+					return category;
+				}
+			}
+			return PlcioErrorCode.parse(errorCode).getCategory();
+		}
+		
+	} // end enum PlcioErrorCategory
+	
 	/**
 	 * Enumeration of PLCIO error codes returned when call to PLCIO
 	 * function fails.
@@ -36,23 +113,47 @@ public class ABPlcioExceptionPLCIO extends ConnectionException {
 	public enum PlcioErrorCode {
 		/** The PLCIO error returned when the tag name used does not exist
 		 * in the PLC. */
-		BAD_TAG_NAME(20, "PLCIO Err 20 Bad Tag Name"),
+		BAD_TAG_NAME(20, "PLCIO Err 20 Bad Tag Name", PlcioErrorCategory.TAG),
 		/** The PLCIO error returned when a connection to the PLC could not
 		 * be established. */
-		CONNECT(45, "PLCIO Err 45 Connect"),
+		CONNECT(45, "PLCIO Err 45 Connect", PlcioErrorCategory.CONNECTION),
 		/** The PLCIO error returned when a request was made to the PLC and
 		 * no response was received within timeout. */
-		TIMEOUT(48, "PLCIO Err 48 Timeout"),
+		TIMEOUT(48, "PLCIO Err 48 Timeout", PlcioErrorCategory.TIMEOUT),
 		/** Enumeration used when no specific enumeration exists for the
 		 * PLCIO error returned. */
-		NOT_HANDLED(999, "PLCIO Err Not Handled");
+		NOT_HANDLED(999, "PLCIO Err Not Handled", PlcioErrorCategory.OTHER);
+		
+		/** The handled errors indexed by error code. */
+		private static final PlcioErrorCode[] BY_ERROR_CODE;
+		/** The number of times each PLCIO error code without an enumeration
+		 * has been received, by error code. */
+		private static final ConcurrentHashMap<Integer,AtomicLong> NOT_HANDLED_COUNTS =
+				new ConcurrentHashMap<Integer,AtomicLong>();
+		
+		static {
+			int maxErrorCode = 0;
+			for (PlcioErrorCode error : values()) {
+				if (error != NOT_HANDLED) {
+					maxErrorCode = Math.max(maxErrorCode, error.getErrorCode());
+				}
+			}
+			BY_ERROR_CODE = new PlcioErrorCode[maxErrorCode + 1];
+			for (PlcioErrorCode error : values()) {
+				if (error != NOT_HANDLED) {
+					BY_ERROR_CODE[error.getErrorCode()] = error;
+				}
+			}
+		}
 		
 		private final int private_errorCode;
 		private final String private_errorString;
+		private final PlcioErrorCategory private_category;
 		
-		PlcioErrorCode(int errorCode, String errorString) {
+		PlcioErrorCode(int errorCode, String errorString, PlcioErrorCategory category) {
 			private_errorCode = errorCode;
 			private_errorString = errorString;
+			private_category = category;
 		}
 		
 		/**
@@ -73,49 +174,141 @@ public class ABPlcioExceptionPLCIO extends ConnectionException {
 			return this.private_errorString;
 		}
 		
+		/**
+		 * Return the category of this error.
+		 * 
+		 * @return The category of this error, {@linkplain PlcioErrorCategory#OTHER}
+		 * for {@linkplain #NOT_HANDLED}.
+		 */
+		public PlcioErrorCategory getCategory() {
+			return this.private_category;
+		}
+		
 		/**
 		 * Translate an integer representing a error code into its
 		 * enum value.
 		 * 
-		 * @param errorCode int equating to a command value.
+		 * @param errorCode int equating to a PLCIO error code.
 		 * 
-		 * @return The enum value of the command name. Value {@linkplain #NOT_HANDLED}
-		 * is returned if cmdInt is not a recognized command.
+		 * @return The enum value of the error code. Value {@linkplain #NOT_HANDLED}
+		 * is returned if errorCode is not a handled error.
 		 */
 		public static PlcioErrorCode parse(int errorCode) {
-			for (PlcioErrorCode error : PlcioErrorCode.values()) {
-				if (error.getErrorCode() == errorCode) {
-					return error;
-				}
+			if ((errorCode >= 0) && (errorCode < BY_ERROR_CODE.length) && (BY_ERROR_CODE[errorCode] != null)) {
+				return BY_ERROR_CODE[errorCode];
 			}
 			return NOT_HANDLED;
 		}
 		
+		/**
+		 * Translate the error code of a PLCIO error that has been received into
+		 * its enum value, as {@linkplain #parse(int)}, counting the error if it
+		 * is not handled. The first time an unhandled error code is received a
+		 * warning is logged.
+		 * <p>
+		 * Called once for each PLCIO error received so that the counts returned by
+		 * {@linkplain #getNotHandledCounts()} are the number of errors received.
+		 * 
+		 * @param errorCode The PLCIO error code received, -1 if not known.
+		 * 
+		 * @return The enum value of the error code.
+		 */
+		public static PlcioErrorCode received(int errorCode) {
+			PlcioErrorCode error = parse(errorCode);
+			if ((error == NOT_HANDLED) && (errorCode >= 0)) {
+				AtomicLong count = NOT_HANDLED_COUNTS.get(errorCode);
+				if (count == null) {
+					AtomicLong newCount = new AtomicLong(0);
+					count = NOT_HANDLED_COUNTS.putIfAbsent(errorCode, newCount);
+					if (count == null) {
+						count = newCount;
+						Log.warn("ABPlcioExceptionPLCIO received PLCIO error code "+errorCode+
+								" that the GISS does not handle");
+					}
+				}
+				count.incrementAndGet();
+			}
+			return error;
+		}
+		
+		/**
+		 * Get the number of times each PLCIO error code not handled by the GISS
+		 * has been received.
+		 * 
+		 * @return The counts by error code, ordered by error code.
+		 */
+		public static Map<Integer,Long> getNotHandledCounts() {
+			Map<Integer,Long> counts = new TreeMap<Integer,Long>();
+			for (Map.Entry<Integer,AtomicLong> entry : NOT_HANDLED_COUNTS.entrySet()) {
+				counts.put(entry.getKey(), entry.getValue().get());
+			}
+			return Collections.unmodifiableMap(counts);
+		}
+		
 	} // end enum PlcioErrorCode
 
 	public ABPlcioExceptionPLCIO() {
 		super();
+		super.fillInStackTrace();
 		myPlcioErrorCode = PlcioErrorCode.NOT_HANDLED;
+		myPlcioErrorCategory = PlcioErrorCategory.OTHER;
 		myPlcioErrorCodeInt = -1;
 		myPlcioErrorString = null;
 	}
 	
 	/**
 	 * Exception thrown in {@linkplain ABPlcioMaster}'s JNI methods accessing
-	 * PLCIO functions when the function returns an error.
+	 * PLCIO functions when the JNI method is not given the PLCIO error code.
+	 * The PLCIO error is found in the message if it contains one.
 	 * 
 	 * @param message The PLCIO error message.
 	 */
 	public ABPlcioExceptionPLCIO(String message) {
 		super(message);
-		myPlcioErrorCode = PlcioErrorCode.NOT_HANDLED;
-		myPlcioErrorCodeInt = -1;
-		myPlcioErrorString = null;
+		super.fillInStackTrace();
+		myPlcioErrorCodeInt = parsePlcioErrorCode(message);
+		myPlcioErrorCode = PlcioErrorCode.parse(myPlcioErrorCodeInt);
+		myPlcioErrorCategory = myPlcioErrorCode.getCategory();
+		myPlcioErrorString = parsePlcioErrorString(message);
+	}
+	
+	/**
+	 * Exception thrown in {@linkplain ABPlcioMaster}'s JNI methods accessing
+	 * PLCIO functions when the function returns an error, and by
+	 * {@linkplain PlcioCallStatus#toException(String)}. The exception has no stack trace.
+	 * 
+	 * @param message The message describing the failure.
+	 * @param plcioErrorCode The PLCIO error code returned by the PLCIO function.
+	 * @param plcioErrorString The PLCIO error description returned by the PLCIO function.
+	 */
+	public ABPlcioExceptionPLCIO(String message, int plcioErrorCode, String plcioErrorString) {
+		this(message, plcioErrorCode, PlcioErrorCategory.FROM_ERROR_CODE, plcioErrorString);
+	}
+	
+	/**
+	 * Exception thrown in {@linkplain ABPlcioMaster}'s JNI methods accessing
+	 * PLCIO functions when the function returns an error, giving the category of
+	 * the error as well as its code. The exception has no stack trace.
+	 * 
+	 * @param message The message describing the failure.
+	 * @param plcioErrorCode The PLCIO error code returned by the PLCIO function.
+	 * @param plcioErrorCategory The code of the error's {@linkplain PlcioErrorCategory},
+	 * {@linkplain PlcioErrorCategory#FROM_ERROR_CODE} if it is that of the error code.
+	 * @param plcioErrorString The PLCIO error description returned by the PLCIO function.
+	 */
+	public ABPlcioExceptionPLCIO(String message, int plcioErrorCode, int plcioErrorCategory, String plcioErrorString) {
+		super(message);
+		myPlcioErrorCodeInt = plcioErrorCode;
+		myPlcioErrorCode = PlcioErrorCode.parse(plcioErrorCode);
+		myPlcioErrorCategory = PlcioErrorCategory.of(plcioErrorCode, plcioErrorCategory);
+		myPlcioErrorString = plcioErrorString;
 	}
 
 	public ABPlcioExceptionPLCIO(Throwable cause) {
 		super(cause);
+		super.fillInStackTrace();
 		myPlcioErrorCode = PlcioErrorCode.NOT_HANDLED;
+		myPlcioErrorCategory = PlcioErrorCategory.OTHER;
 		myPlcioErrorCodeInt = -1;
 		myPlcioErrorString = null;
 	}
@@ -131,40 +324,79 @@ public class ABPlcioExceptionPLCIO extends ConnectionException {
 	 */
 	public ABPlcioExceptionPLCIO(String message, Throwable cause) {
 		super(message, cause);
+		super.fillInStackTrace();
 		
-		// retrieve PLCIO error information from message:
+		// use the PLCIO error of the cause if it has one, otherwise retrieve PLCIO
+		// error information from message
+		if ((cause instanceof ABPlcioExceptionPLCIO) && (((ABPlcioExceptionPLCIO) cause).getPlcioErrorCodeInt() >= 0)) {
+			ABPlcioExceptionPLCIO plcioCause = (ABPlcioExceptionPLCIO) cause;
+			myPlcioErrorCodeInt = plcioCause.getPlcioErrorCodeInt();
+			myPlcioErrorCategory = plcioCause.getPlcioErrorCategory();
+			myPlcioErrorString = plcioCause.getPlcioErrorString();
+		}
+		else {
+			myPlcioErrorCodeInt = parsePlcioErrorCode(message);
+			myPlcioErrorString = parsePlcioErrorString(message);
+			myPlcioErrorCategory = PlcioErrorCode.parse(myPlcioErrorCodeInt).getCategory();
+			if (myPlcioErrorCodeInt < 0) {
+				Log.warn("ABPlcioExceptionPLCIO couldn't find PLCIO error information in '"+
+						message);
+			}
+		}
+		myPlcioErrorCode = PlcioErrorCode.parse(myPlcioErrorCodeInt);
+	} // end Constructor
+	
+	/**
+	 * Does not fill in the stack trace, the constructors of exceptions that are to
+	 * have a stack trace fill it in themselves.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	} // end fillInStackTrace()
+	
+	/**
+	 * Get the PLCIO error code from a message containing a PLCIO error in
+	 * the form <code>PLCIO Err [0-9]+: </code>, as used in the message of
+	 * exceptions thrown by {@linkplain ABPlcioMaster}'s JNI methods.
+	 * 
+	 * @param message The message containing the PLCIO error.
+	 * 
+	 * @return The PLCIO error code, -1 if the message contains no PLCIO error.
+	 */
+	public static int parsePlcioErrorCode(String message) {
+		if (message == null) {
+			return -1;
+		}
 		// the PLCIO error is identified by string using format 'PLCIO Err [0-9]+: ',
-		// the digits in the format represent the PLCIO error code,
-		// following this is the PLCIO error string
+		// the digits in the format represent the PLCIO error code
 		Matcher errorMatcher = PATTERN_PLCIO_ERROR_MSG.matcher(message);
 		if (errorMatcher.find()) {
-			String errCodeString = errorMatcher.group();
-			// in 'message' the PLCIO error string begins at end of match and
-			// continues until end of string
-			myPlcioErrorString = message.substring(errorMatcher.end());
-			// from the error code string extract the error code number
-			Matcher errCodeNumber = PATTERN_PLCIO_ERROR_CODE.matcher(errCodeString);
-			if (errCodeNumber.find()) {
-				myPlcioErrorCodeInt = Integer.parseInt(errCodeNumber.group());
-				myPlcioErrorCode = PlcioErrorCode.parse(myPlcioErrorCodeInt);
-			}
-			else {
-				// failed to find PLCIO error code in message
-				myPlcioErrorCode = PlcioErrorCode.NOT_HANDLED;
-				myPlcioErrorCodeInt = -1;
-				Log.warn("ABPlcioExceptionPLCIO couldn't find PLCIO error code in '"+
-						message+", error string extracted successfully='"+myPlcioErrorString+"'");
-			}
+			return Integer.parseInt(errorMatcher.group(1));
 		}
-		else {
-			// failed to find PLCIO error in message
-			myPlcioErrorCode = PlcioErrorCode.NOT_HANDLED;
-			myPlcioErrorCodeInt = -1;
-			myPlcioErrorString = message;
-			Log.warn("ABPlcioExceptionPLCIO couldn't find PLCIO error information in '"+
-					message);
+		return -1;
+	} // end parsePlcioErrorCode()
+	
+	/**
+	 * Get the PLCIO error description from a message containing a PLCIO error
+	 * in the form <code>PLCIO Err [0-9]+: </code>.
+	 * 
+	 * @param message The message containing the PLCIO error.
+	 * 
+	 * @return The message following the PLCIO error code, the whole message if it
+	 * contains no PLCIO error.
+	 */
+	private static String parsePlcioErrorString(String message) {
+		if (message == null) {
+			return null;
 		}
-	} // end Constructor
+		// the PLCIO error string begins at end of match and continues until end of message
+		Matcher errorMatcher = PATTERN_PLCIO_ERROR_MSG.matcher(message);
+		if (errorMatcher.find()) {
+			return message.substring(errorMatcher.end());
+		}
+		return message;
+	} // end parsePlcioErrorString()
 	
 	/**
 	 * Get the PLCIO error status code returned by PLCIO function
@@ -176,6 +408,15 @@ public class ABPlcioExceptionPLCIO extends ConnectionException {
 		return myPlcioErrorCode;
 	} // end getPlcioErrorCode()
 	
+	/**
+	 * Get the category of the PLCIO error that caused this exception.
+	 * 
+	 * @return The PLCIO error category.
+	 */
+	public PlcioErrorCategory getPlcioErrorCategory() {
+		return myPlcioErrorCategory;
+	} // end getPlcioErrorCategory()
+	
 	/**
 	 * Get the PLCIO error status code as the raw integer value
 	 * returned by PLCIO function that caused this exception
@@ -330,6 +330,30 @@ public class ABPlcioMaster implements IABPlcioMaster {
         master.realAccessPlc(plcioCall);
     } // end plcAccess()
     
+    // Documented in IABPlcioMaster
+    @Override
+    public boolean plcCall(IPlcioCall plcioCall) {
+        try {
+            plcAccess(plcioCall);
+        }
+        catch (ABPlcioExceptionPLCIO ex) {
+            // the PLCIO error code is given to the exception by the JNI method
+            plcioCall.setStatus(IPlcioCallStatus.Outcome.PLCIO_ERROR, ex.getPlcioErrorCodeInt(),
+                    ex.getPlcioErrorCategory().getCategoryCode(), ex.getMessage());
+            return false;
+        }
+        catch (ABPlcioExceptionJNI ex) {
+            plcioCall.setStatus(IPlcioCallStatus.Outcome.JNI_ERROR, -1, ABPlcioExceptionPLCIO.PlcioErrorCategory.FROM_ERROR_CODE, ex.getMessage());
+            return false;
+        }
+        catch (Exception ex) {
+            plcioCall.setStatus(IPlcioCallStatus.Outcome.ERROR, -1, ABPlcioExceptionPLCIO.PlcioErrorCategory.FROM_ERROR_CODE, ex.getMessage());
+            return false;
+        }
+        plcioCall.setStatus(IPlcioCallStatus.Outcome.OK, -1, ABPlcioExceptionPLCIO.PlcioErrorCategory.FROM_ERROR_CODE, null);
+        return true;
+    } // end plcCall()
+    
     /*
      * Private inner class RealABPlcioMaster
      */
@@ -0,0 +1,195 @@
+package atst.giss.abplc;
+
+import atst.base.hardware.interfaces.IInterruptHandler;
+import atst.cs.data.HealthStatus;
+import atst.cs.services.Health;
+import atst.cs.services.Log;
+
+/**
+ * The class ChannelHealthTracker reports the health of the {@linkplain ABPlcioChannel}
+ * objects of a connection to a single Health category.
+ * <p>
+ * The tracker holds the health it last reported and only calls the Health service when
+ * the health changes, a channel call succeeding while the health is good costing a single
+ * read of the tracker's state:
+ * <ul>
+ * <li>The first failure after a success sets the health bad, the first success after
+ * a failure sets the health good.
+ * <li>While the health is bad further failures update the bad health message at most once
+ * every {@linkplain #BAD_REPORT_INTERVAL_MS}, the message giving the number of failures
+ * not reported since the last update.
+ * </ul>
+ * Until the tracker has reported health it reads the Health service to decide whether
+ * its first report is a change, so that a tracker created with the health already set by
+ * a previous connection does not report it again.
+ * <p>
+ * A tracker constructed without a Health category records failures without
+ * reporting them, e.g. for channels used to probe a PLC address not in use.
+ * <p>
+ * A tracker may also be given an interrupt handler that is called each time the health
+ * changes: with the status of the failing call when the health is set bad, the health
+ * tripping, and with {@linkplain PlcioCallStatus#OK} when it is set good following a
+ * failure. The handler is called holding the tracker's lock so it must not block.
+ *
+ * @author agent
+ */
+public class ChannelHealthTracker {
+
+	/** Log category of ChannelHealthTracker. */
+	private static final String LOG_CAT = "CHANNEL_HEALTH_TRACKER";
+
+	/** The minimum interval between updates of the bad health message while the health is bad. */
+	public static final long BAD_REPORT_INTERVAL_MS = 10000;
+
+	/** The health last reported by a tracker. */
+	private enum State {
+		/** No health reported yet. */
+		UNKNOWN,
+		GOOD,
+		BAD
+	}
+
+	/*
+	 *  Private instance variables
+	 */
+	private final String healthCategory;
+	private final IInterruptHandler<IPlcioCallStatus> healthChangeIH;
+	/** The health last reported, only changed holding this tracker's lock. */
+	private volatile State state;
+	private long lastBadReportMs;
+	private int unreportedFailureTotal;
+	private long failureTotal;
+
+	/**
+	 * Construct a tracker reporting to the given Health category.
+	 *
+	 * @param category The Health category of the channels' health, null if
+	 * the channels' health is not reported.
+	 */
+	public ChannelHealthTracker(String category) {
+		this(category, null);
+	} // end Constructor
+
+	/**
+	 * Construct a tracker reporting to the given Health category and calling the given
+	 * interrupt handler when the health changes.
+	 *
+	 * @param category The Health category of the channels' health, null if
+	 * the channels' health is not reported.
+	 * @param healthChangeIHandler The interrupt handler called with the status of the failing
+	 * call when the health is set bad and {@linkplain PlcioCallStatus#OK} when it is set good
+	 * following a failure, null if none.
+	 */
+	public ChannelHealthTracker(String category, IInterruptHandler<IPlcioCallStatus> healthChangeIHandler) {
+		healthCategory = category;
+		healthChangeIH = healthChangeIHandler;
+		state = State.UNKNOWN;
+	} // end Constructor
+
+	/**
+	 * Record the success of a call of a channel, setting the health good if it was bad.
+	 * The health message is only built if the health is set.
+	 *
+	 * @param channel The channel making the call.
+	 * @param operation A description of the call, e.g. <code>read</code>.
+	 */
+	void succeeded(ABPlcioChannel channel, String operation) {
+		if (state == State.GOOD) {
+			return;
+		}
+		synchronized (this) {
+			if (state == State.GOOD) {
+				return;
+			}
+			if ((healthCategory != null) && ((state == State.BAD) || Health.get(healthCategory).isBad())) {
+				String msg = "Connection channel " + operation + " succeeded: " + channel.toString();
+				Health.set(healthCategory, HealthStatus.good(msg));
+				if (unreportedFailureTotal > 0) {
+					Log.note(LOG_CAT, "Health '" + healthCategory + "' good following " + unreportedFailureTotal +
+							" channel failure(s) not reported. " + msg);
+				}
+			}
+			boolean wasBad = (state == State.BAD);
+			state = State.GOOD;
+			unreportedFailureTotal = 0;
+			if (wasBad && (healthChangeIH != null)) {
+				healthChangeIH.interrupt(PlcioCallStatus.OK);
+			}
+		}
+	} // end succeeded()
+
+	/**
+	 * Record the failure of a call of a channel, setting the health bad if it was good
+	 * or updating the bad health message if it has not been updated recently.
+	 *
+	 * @param status The status of the failed call.
+	 * @param msg The description of the failure.
+	 */
+	synchronized void failed(IPlcioCallStatus status, String msg) {
+		failureTotal++;
+		long nowMs = System.currentTimeMillis();
+		if (state == State.BAD) {
+			if ((nowMs - lastBadReportMs) < BAD_REPORT_INTERVAL_MS) {
+				unreportedFailureTotal++;
+				return;
+			}
+			if (unreportedFailureTotal > 0) {
+				msg = msg + " (" + unreportedFailureTotal + " further failure(s) since last report)";
+			}
+			if (healthCategory != null) {
+				Health.set(healthCategory, HealthStatus.bad(msg));
+			}
+		}
+		else if ((healthCategory != null) && ((state == State.GOOD) || Health.get(healthCategory).isGood())) {
+			Health.set(healthCategory, HealthStatus.bad(msg));
+		}
+		boolean tripped = (state != State.BAD);
+		state = State.BAD;
+		lastBadReportMs = nowMs;
+		unreportedFailureTotal = 0;
+		if (tripped && (healthChangeIH != null)) {
+			healthChangeIH.interrupt(status);
+		}
+	} // end failed()
+
+	/**
+	 * Record the failure of a call of a channel in the same way as {@linkplain #failed(IPlcioCallStatus, String)},
+	 * the description of the failure only being built if the health is set.
+	 *
+	 * @param channel The channel making the call.
+	 * @param plcioCall The failed call.
+	 */
+	synchronized void failed(ABPlcioChannel channel, IPlcioCall plcioCall) {
+		if ((state == State.BAD) && ((System.currentTimeMillis() - lastBadReportMs) < BAD_REPORT_INTERVAL_MS)) {
+			failureTotal++;
+			unreportedFailureTotal++;
+			return;
+		}
+		failed(plcioCall.getStatus(), channel.describeFailure(plcioCall));
+	} // end failed()
+
+	/**
+	 * Whether the health last reported is bad.
+	 *
+	 * @return true if the last call of a channel failed.
+	 */
+	public boolean isBad() {
+		return (state == State.BAD);
+	} // end isBad()
+
+	/**
+	 * Get the total number of failed channel calls recorded.
+	 *
+	 * @return The number of failures.
+	 */
+	public synchronized long getFailureTotal() {
+		return failureTotal;
+	} // end getFailureTotal()
+
+	@Override
+	public synchronized String toString() {
+		return "ChannelHealthTracker {category='" + healthCategory + "', state=" + state +
+				", failures=" + failureTotal + ", unreported=" + unreportedFailureTotal + "}";
+	} // end toString()
+
+} // end class ChannelHealthTracker
@@ -39,10 +39,28 @@ public interface IABPlcioConnection {
 	/**
 	 * Signal the connection to start its {@linkplain PlcTagReader}(s).
 	 * <p>
+	 * A reader is started for every read tag of the connection's controller that has an
+	 * <code>:interval</code> property, including the controller's CStatus tag. Readers are
+	 * started in order of the tags' <code>:priority</code> property, highest first.
+	 * <p>
 	 * Provided to be called when connection's controller receives doStartup().
 	 */
 	public void startPlcTagReaders();
 	
+	/**
+	 * Signal the connection to start the {@linkplain PlcTagReader} of a single tag,
+	 * which must be a read tag with an <code>:interval</code> property.
+	 * <p>
+	 * A channel to the GIS PLC is opened for the tag, retrying until the PLC can be
+	 * connected to, and the tag's reader is then started.
+	 * 
+	 * @param tagName The name of the tag to be read.
+	 * 
+	 * @return <b>true</b> if the tag's channel is being opened, <b>false</b> if the tag
+	 * is not a periodically read tag or its reader is already started.
+	 */
+	public boolean startPlcTagReader(String tagName);
+	
 	/**
 	 * Signal the connection to stop its {@linkplain PlcTagReader}s.
 	 * <p>
@@ -115,6 +133,11 @@ public interface IABPlcioConnection {
 
 	/**
 	 * Read GIS PLC tag[s] that are named in attributes contained in the table.
+	 * <p>
+	 * A tag's channel opened by this method, or by {@linkplain #writeTag(IAttributeTable)},
+	 * is kept open following the transfer until it has been idle for the connection's
+	 * <code>.connection:channelIdleTimeout</code>. If a kept open channel is found to have
+	 * lost its connection to the PLC it is reopened and the read retried once.
 	 * 
 	 * @param table Contains attribute[s] naming the tag[s] to read.
 	 * @throws ConnectionException if there is a problem communicating with the hardware
@@ -124,12 +147,56 @@ public interface IABPlcioConnection {
 	/**
 	 * Write GIS PLC tag item[s] that are named in attributes contained in the 
 	 * Table.
+	 * <p>
+	 * As for {@linkplain #readTag(IAttributeTable)} a channel opened by this method
+	 * is kept open until idle for the connection's channel idle timeout.
+	 * <p>
+	 * Attributes in the Table that are properties of the tag rather than tag items,
+	 * e.g. <code>:enabled</code> or <code>:readNow</code>, are not written but passed
+	 * to {@linkplain #propertiesChanged(IAttributeTable)}.
 	 * 
 	 * @param table Contains attribute[s] naming the tag item[s] to write.
 	 * @throws ConnectionException if there is a problem communicating with the hardware
 	 */
 	public void writeTag(IAttributeTable table) throws ConnectionException;
 	
+	/**
+	 * Notify the connection that propertyDB attributes have been changed.
+	 * <p>
+	 * Provided to be called by the connection's controller when attributes are
+	 * set, e.g. in the controller's doSet(), or when the controller's properties
+	 * are reloaded. The connection uses the names of the changed attributes to
+	 * refresh any tag information it has cached, such as the default values of a
+	 * write tag's data items. Changes to a read tag's <code>:enabled</code> attribute
+	 * enable or disable the tag's periodic reading. Attributes not relating to a tag of
+	 * this connection's controller are ignored.
+	 * <p>
+	 * The connection does not check the Cache for changes, those not notified take
+	 * effect on the next connect(). A tag's property attributes included in the table
+	 * passed to {@linkplain #writeTag(IAttributeTable)} are notified by the connection
+	 * itself, so a controller passing its set attributes of a tag to writeTag() need
+	 * not also call this method for them.
+	 * 
+	 * @param table Contains the changed attribute[s].
+	 */
+	public void propertiesChanged(IAttributeTable table);
+	
+	/**
+	 * Request an immediate read of a periodically read tag, outside of the tag's
+	 * read interval.
+	 * <p>
+	 * The read is made by the tag's reader using its already open channel. If a read
+	 * of the tag is already in progress or requested no further read is made. The same
+	 * request is made by setting the tag's <code>:readNow</code> attribute to true and
+	 * passing it to {@linkplain #propertiesChanged(IAttributeTable)}.
+	 * 
+	 * @param tagName The name of the tag to be read.
+	 * 
+	 * @return <b>true</b> if an immediate read was scheduled, <b>false</b> if the tag is
+	 * not periodically read or the request was satisfied by a read in progress.
+	 */
+	public boolean readNow(String tagName);
+	
 	/**
 	 * Explicitly open a connection to the GIS PLC - used for <b>testing</b> and <b>maintenance</b>/<b>engineering</b>
 	 * only.
@@ -28,4 +28,19 @@ public interface IABPlcioMaster {
 	public void plcAccess(IPlcioCall plcioCall)
 			throws ABPlcioExceptionPLCIO, ABPlcioExceptionJNI, ConnectionException;
 	
+	/**
+	 * Access PLCIO library functions in the same way as {@linkplain #plcAccess(IPlcioCall)}
+	 * but, rather than throwing an exception if the PLCIO function fails, record the
+	 * outcome of the call in the call object's status.
+	 * <p>
+	 * Used on paths where failures such as a PLCIO timeout are expected and are handled
+	 * by testing {@linkplain IPlcioCall#getStatus()}.
+	 * 
+	 * @param plcioCall {@linkplain PlcioCall} object describing the PLCIO
+	 * function to be called including all required parameters.
+	 * 
+	 * @return <b>true</b> if the call succeeded.
+	 */
+	public boolean plcCall(IPlcioCall plcioCall);
+	
 } // end interface IABPlcioMaster
@@ -94,6 +94,37 @@ public interface IPlcTag {
 	 */
 	public static final String PROPERTY_INTERVAL = ":interval";
 	/**
+	 * Property DB entry storing the shortest interval at which a read tag
+	 * will be read when its read interval adapts to the rate at which its values
+	 * change. Used together with {@linkplain #PROPERTY_INTERVAL_MAX}.
+	 */
+	public static final String PROPERTY_INTERVAL_MIN = ":intervalMin";
+	/**
+	 * Property DB entry storing the longest interval at which a read tag
+	 * will be read when its read interval adapts to the rate at which its values
+	 * change. Used together with {@linkplain #PROPERTY_INTERVAL_MIN}.
+	 */
+	public static final String PROPERTY_INTERVAL_MAX = ":intervalMax";
+	/**
+	 * Property DB entry storing the action taken when a read of a read tag overruns
+	 * the tag's next read deadline, one of <code>skip</code> (the default),
+	 * <code>catchUp</code> or <code>coalesce</code>.
+	 */
+	public static final String PROPERTY_OVERRUN_POLICY = ":overrunPolicy";
+	/**
+	 * Property DB entry storing the priority of a periodically read tag. When the
+	 * connection starts its tag readers, readers of tags with a higher priority are
+	 * started first. If the property does not exist the priority is 0 (zero).
+	 */
+	public static final String PROPERTY_PRIORITY = ":priority";
+	/**
+	 * Property DB entry storing the phase slot of a periodically read tag, the
+	 * slot within the tag's read interval at which the tag is read. Each interval
+	 * is divided into {@linkplain PlcTagReadScheduler#PHASE_SLOTS} slots. If the
+	 * property does not exist the phase is given by the hash of the tag's name.
+	 */
+	public static final String PROPERTY_PHASE_SLOT = ":phaseSlot";
+	/**
      * Property DB entry storing current connection status.
      */
     public static final String PROPERTY_CONNECTION_STATUS = ":connectionStatus";
@@ -111,6 +142,24 @@ public interface IPlcTag {
 	 * PropertyDB entry storing the last update (read or write) time of the tag.
 	 * */
 	public static final String PROPERTY_LAST_UPDATE_TIME = ":lastUpdateTime";
+	/**
+	 * PropertyDB entry storing the sample time of the tag's last read, the time at
+	 * which the read was intended to take place. Only stored for tags read with a
+	 * sample time, see {@linkplain #setSampleTime(long, String)}.
+	 */
+	public static final String PROPERTY_SAMPLE_TIME = ":sampleTime";
+	/**
+	 * Property DB entry storing whether a periodically read tag is read at
+	 * wall-clock multiples of its read interval, e.g. at .000, .100, .200 seconds
+	 * for an interval of 0.1s.
+	 */
+	public static final String PROPERTY_ALIGN_TO_CLOCK = ":alignToClock";
+	/**
+	 * Property DB entry storing the number of samples of the tag's values kept
+	 * in the tag's in-memory history. If the property does not exist or has
+	 * value 0 (zero) no history is kept.
+	 */
+	public static final String PROPERTY_HISTORY_SIZE = ":historySize";
 
 	
 	/**
@@ -404,6 +453,19 @@ public interface IPlcTag {
 	 */
 	public String getMemberValue(String itemName);
 
+	/**
+	 * Get the handle used to access the value of the given tag item.
+	 * <p>
+	 * The handle is created when the tag is created, users needing to
+	 * frequently access an item's value should get the item's handle once
+	 * and keep it rather than accessing the item's value by attribute name.
+	 * 
+	 * @param itemName A valid item name of this tag.
+	 * 
+	 * @return The item's handle or null if the tag contains no item of the given name.
+	 */
+	public ITagItemHandle getTagItemHandle(String itemName);
+
 	/**
      * Get all of this tag's data items from the Cache and return in
      * AttributeTable.
@@ -428,6 +490,36 @@ public interface IPlcTag {
      */
     public void setCacheTagItemValues(IAttributeTable newValues);
     
+    /**
+     * Set the member values of this WRITE tag to the data item values to be
+     * written to the PLC, and update the Cache and the last update time.
+     * <p>
+     * When a tag is written to the PLC all of its data items are written. The
+     * values of the data items contained in <code>tbl</code> are overlaid onto
+     * the tag's propertyDB default values, so that no stale values are written.
+     * The default values are resolved from the propertyDB when the tag is
+     * created and when {@linkplain #refreshWriteDefaults()} is called, not on
+     * each call of this method. Only the value of an item that is neither in
+     * <code>tbl</code> nor has a default value is taken from the Cache.
+     * <p>
+     * No values are written to the PLC, this method is used prior to passing
+     * the PlcTag object to {@linkplain ABPlcioChannel#write(IPlcTag)}.
+     * 
+     * @param tbl Attribute table containing the tag data items to be written.
+     * 
+     * @return	The length of this object's tagValues array or -1 if error occurred.
+     */
+    public int setWriteValues(IAttributeTable tbl);
+    
+    /**
+     * Re-read from the propertyDB the default values of this WRITE tag's data
+     * items used by {@linkplain #setWriteValues(IAttributeTable)}.
+     * <p>
+     * Called by the connection's propertiesChanged() when the tag's properties
+     * have changed. Has no effect on a READ tag.
+     */
+    public void refreshWriteDefaults();
+    
 	/**
 	 * Set the member values stored in this tag to new given values, also update
 	 * the Cache to new values and update the last update time.
@@ -457,6 +549,27 @@ public interface IPlcTag {
 	 */
 	public int setMemberValues();
 
+	/**
+	 * Set the sample time of the next update of this tag's member values by
+	 * {@linkplain #setMemberValues(String[])}.
+	 * <p>
+	 * Used when several tags are read together in one read cycle so that all tags
+	 * read in the cycle are given the same sample time, and when a tag is read at
+	 * clock-aligned times to record the time at which the read was intended. The sample
+	 * time is stored in the Cache as the tag's {@linkplain #PROPERTY_SAMPLE_TIME} alongside
+	 * its {@linkplain #PROPERTY_LAST_UPDATE_TIME}, the actual time of the update, and is
+	 * the time recorded in the tag's history. The sample time is only used by the next
+	 * update, following updates have no sample time. If the read the sample time was set
+	 * for fails the caller must clear the sample time by passing a null timeString, so that
+	 * it is not given to an unrelated update.
+	 * 
+	 * @param timeMs The sample time in ms as returned by {@linkplain System#currentTimeMillis()}.
+	 * @param timeString The sample time in format returned from
+	 * {@linkplain atst.cs.util.AtstDate#getCurrent()}.toString(), null to clear
+	 * a sample time that has not been used.
+	 */
+	public void setSampleTime(long timeMs, String timeString);
+
 	/**
 	 * Return a String representation of the time that this tag was last updated.
 	 * <p>
@@ -469,6 +582,19 @@ public interface IPlcTag {
 	 */
 	public String getValuesLastUpdateString();
 
+	/**
+	 * Get the in-memory history of this tag's values.
+	 * <p>
+	 * A history is only kept if the tag's propertyDB attribute
+	 * {@linkplain #PROPERTY_HISTORY_SIZE} is greater than zero when the
+	 * tag object is created. Every update to the tag's member values, by
+	 * either {@linkplain #setMemberValues(String[])} or {@linkplain #setMemberValues()},
+	 * is recorded in the history.
+	 * 
+	 * @return The tag's history or null if no history is kept for this tag.
+	 */
+	public IPlcTagHistory getHistory();
+
 	/**
 	 * Return a String representation of this tag object's tag values.<br>
 	 * <p>
@@ -0,0 +1,130 @@
+package atst.giss.abplc;
+
+/**
+ * Interface describing the in-memory value history kept for a {@linkplain PlcTag}.
+ * <p>
+ * A tag only keeps a history when its propertyDB attribute
+ * {@linkplain IPlcTag#PROPERTY_HISTORY_SIZE} contains a value greater than zero,
+ * in which case {@linkplain IPlcTag#getHistory()} returns the history object.
+ * The history is a fixed size ring buffer, allocated once when the tag is created,
+ * storing a timestamp and the value of every tag member each time the tag's values
+ * are updated. When the buffer is full the oldest sample is overwritten.
+ * <p>
+ * All query methods take a tag member number and a bit mask. To query a tag member's
+ * raw value pass a bit mask of <code>-1</code>, to query a boolean tag data item pass
+ * the item's member number and bit mask as returned by {@linkplain IPlcTag#getTagItemMemberNum(String)}
+ * and {@linkplain IPlcTag#getTagItemBitMask(String)}, boolean values are returned as
+ * <code>1.0</code> (true) or <code>0.0</code> (false).
+ * <p>
+ * The member number passed to a query method must be in the range <code>0</code> to
+ * the tag's number of members less one, otherwise an {@linkplain IllegalArgumentException}
+ * is thrown.
+ * <p>
+ * Query methods copy samples into arrays supplied by the caller so that no objects
+ * are created when the history is queried. Times are in ms as returned by
+ * {@linkplain System#currentTimeMillis()}.
+ *
+ * @author agent
+ *
+ */
+public interface IPlcTagHistory {
+
+	/**
+	 * Get the maximum number of samples the history can hold.
+	 *
+	 * @return The history's capacity in samples.
+	 */
+	public int getCapacity();
+
+	/**
+	 * Get the number of samples currently held in the history.
+	 *
+	 * @return The number of samples held, never more than {@linkplain #getCapacity()}.
+	 */
+	public int size();
+
+	/**
+	 * Get the time of the most recent sample.
+	 *
+	 * @return The time of the latest sample or <code>0</code> if the history is empty.
+	 */
+	public long getLatestTime();
+
+	/**
+	 * Get the number of samples not recorded because their number of members
+	 * did not match the tag's.
+	 *
+	 * @return The number of samples dropped since the history was created.
+	 */
+	public long getDroppedTotal();
+
+	/**
+	 * Copy the latest <code>n</code> samples of a tag member into the given arrays,
+	 * oldest sample first.
+	 *
+	 * @param memberNum The tag member number to be queried.
+	 * @param bitMask The bit mask of a boolean tag data item or <code>-1</code> for
+	 * the member's raw value.
+	 * @param n The number of samples required, must not be negative.
+	 * @param times Array into which the sample times are copied.
+	 * @param values Array into which the sample values are copied.
+	 *
+	 * @return The number of samples copied, limited by the number of samples held and
+	 * the length of the given arrays.
+	 *
+	 * @throws IllegalArgumentException If <code>memberNum</code> is out of range or
+	 * <code>n</code> is negative.
+	 */
+	public int getLatest(int memberNum, int bitMask, int n, long[] times, double[] values);
+
+	/**
+	 * Copy all samples of a tag member taken in the time range <code>fromMs</code> to
+	 * <code>toMs</code> (inclusive) into the given arrays, oldest sample first.
+	 *
+	 * @param memberNum The tag member number to be queried.
+	 * @param bitMask The bit mask of a boolean tag data item or <code>-1</code> for
+	 * the member's raw value.
+	 * @param fromMs Start of the time range.
+	 * @param toMs End of the time range.
+	 * @param times Array into which the sample times are copied.
+	 * @param values Array into which the sample values are copied.
+	 *
+	 * @return The number of samples copied. If more samples exist in the range than
+	 * fit in the given arrays the most recent samples are copied.
+	 */
+	public int getRange(int memberNum, int bitMask, long fromMs, long toMs, long[] times, double[] values);
+
+	/**
+	 * Get the minimum value of a tag member in the time range <code>fromMs</code> to
+	 * <code>toMs</code> (inclusive).
+	 *
+	 * @param memberNum The tag member number to be queried.
+	 * @param bitMask The bit mask of a boolean tag data item or <code>-1</code> for
+	 * the member's raw value.
+	 * @param fromMs Start of the time range.
+	 * @param toMs End of the time range.
+	 *
+	 * @return The minimum value or {@linkplain Double#NaN} if no samples exist in the range.
+	 */
+	public double getMin(int memberNum, int bitMask, long fromMs, long toMs);
+
+	/**
+	 * Get the maximum value of a tag member in the time range <code>fromMs</code> to
+	 * <code>toMs</code> (inclusive).
+	 *
+	 * @param memberNum The tag member number to be queried.
+	 * @param bitMask The bit mask of a boolean tag data item or <code>-1</code> for
+	 * the member's raw value.
+	 * @param fromMs Start of the time range.
+	 * @param toMs End of the time range.
+	 *
+	 * @return The maximum value or {@linkplain Double#NaN} if no samples exist in the range.
+	 */
+	public double getMax(int memberNum, int bitMask, long fromMs, long toMs);
+
+	/**
+	 * Remove all samples from the history.
+	 */
+	public void clear();
+
+} // end interface IPlcTagHistory
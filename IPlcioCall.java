@@ -137,4 +137,26 @@ public interface IPlcioCall {
 	 * operation in ms.
 	 */
 	public void setOpTime(long oTime);
+	
+	/**
+	 * Get the outcome of the PLCIO function call made using this call object.
+	 * 
+	 * @return The status of the last call made, {@linkplain IPlcioCallStatus.Outcome#OK}
+	 * if no call has yet been made.
+	 */
+	public IPlcioCallStatus getStatus();
+	
+	/**
+	 * Used by {@linkplain ABPlcioMaster} to set the outcome of the PLCIO function call
+	 * returned by {@linkplain #getStatus()}. Only types shared between namespaces are
+	 * passed so that the status object is created in the namespace of the caller.
+	 * 
+	 * @param outcome The outcome of the call.
+	 * @param plcioErrorCode The PLCIO error code returned by the PLCIO function, -1 if none.
+	 * @param plcioErrorCategory The code of the PLCIO error's category given by the JNI method,
+	 * {@linkplain ABPlcioExceptionPLCIO.PlcioErrorCategory#FROM_ERROR_CODE} if none.
+	 * @param message The message describing the failure, null if the call succeeded.
+	 */
+	public void setStatus(IPlcioCallStatus.Outcome outcome, int plcioErrorCode, int plcioErrorCategory,
+			String message);
 }
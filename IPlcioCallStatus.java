@@ -0,0 +1,71 @@
+package atst.giss.abplc;
+
+/**
+ * Interface describing the outcome of a PLCIO function call made using an
+ * {@linkplain IPlcioCall} object, returned by {@linkplain IPlcioCall#getStatus()}.
+ * <p>
+ * The status allows expected failures of a PLCIO call, such as a timeout reading
+ * a tag from a busy PLC, to be handled by testing the status rather than by
+ * catching an exception. As the {@linkplain ABPlcioMaster} runs in the container's
+ * namespace the status only uses types that are shared between namespaces, the
+ * PLCIO error is given as its PLCIO error code number.
+ *
+ * @author agent
+ *
+ */
+public interface IPlcioCallStatus {
+
+	/**
+	 * Enumeration of the outcomes of a PLCIO function call.
+	 *
+	 * @author agent
+	 */
+	public enum Outcome {
+		/** The call succeeded. */
+		OK,
+		/** The PLCIO function returned an error. */
+		PLCIO_ERROR,
+		/** The JNI code calling the PLCIO function failed. */
+		JNI_ERROR,
+		/** The call failed for any other reason. */
+		ERROR
+	}
+
+	/**
+	 * Get the outcome of the call.
+	 *
+	 * @return The call's outcome.
+	 */
+	public Outcome getOutcome();
+
+	/**
+	 * Whether the call succeeded.
+	 *
+	 * @return <b>true</b> if the outcome is {@linkplain Outcome#OK}.
+	 */
+	public boolean isOk();
+
+	/**
+	 * Get the PLCIO error code returned by the PLCIO function.
+	 *
+	 * @return The PLCIO error code, -1 if the outcome is not
+	 * {@linkplain Outcome#PLCIO_ERROR} or the code is not known.
+	 */
+	public int getPlcioErrorCodeInt();
+
+	/**
+	 * Get the code of the category of the PLCIO error, as given by the JNI method.
+	 *
+	 * @return The code of the error's {@linkplain ABPlcioExceptionPLCIO.PlcioErrorCategory},
+	 * {@linkplain ABPlcioExceptionPLCIO.PlcioErrorCategory#FROM_ERROR_CODE} if the category
+	 * is that of the error code or the outcome is not {@linkplain Outcome#PLCIO_ERROR}.
+	 */
+	public int getPlcioErrorCategoryCode();
+
+	/**
+	 * Get the message describing the failure of the call.
+	 *
+	 * @return The failure message, null if the call succeeded.
+	 */
+	public String getMessage();
+}
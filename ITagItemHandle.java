@@ -0,0 +1,121 @@
+package atst.giss.abplc;
+
+/**
+ * Interface describing a handle to a single data item of a {@linkplain PlcTag}.
+ * <p>
+ * A handle is obtained once, using {@linkplain IPlcTag#getTagItemHandle(String)},
+ * and then used to get or set the item's value any number of times. The handle
+ * holds everything needed to locate the item's value - its tag member number, bit mask
+ * and propertyDB attribute name - so that accessing the item's value does not require
+ * the item's attribute name to be built or the tag's item map to be searched.
+ * <p>
+ * The value of an item of a READ tag is taken directly from the tag's member values
+ * as last read from the PLC. The Cache is only used if the tag has not yet been read.
+ * The value of an item of a WRITE tag is the value held in the Cache, that is the value
+ * that will be written to the PLC the next time the tag is written.
+ *
+ * @author agent
+ *
+ */
+public interface ITagItemHandle {
+
+	/**
+	 * Get the name of the tag containing the item.
+	 *
+	 * @return The tag name.
+	 */
+	public String getTagName();
+
+	/**
+	 * Get the name of the tag item.
+	 *
+	 * @return The item name.
+	 */
+	public String getItemName();
+
+	/**
+	 * Get the name of the propertyDB attribute storing the item's value.
+	 *
+	 * @return The item's full attribute name.
+	 */
+	public String getPropItemName();
+
+	/**
+	 * Get the item's value as a boolean. For items not of type boolean the
+	 * value is <code>true</code> if it is not zero.
+	 *
+	 * @return The item's value or <code>false</code> if no value exists.
+	 */
+	public boolean getBoolean();
+
+	/**
+	 * Get the item's value as an integer. Boolean items return <code>1</code> (true)
+	 * or <code>0</code> (false).
+	 *
+	 * @return The item's value or <code>0</code> if no value exists.
+	 */
+	public int getInteger();
+
+	/**
+	 * Get the item's value as a double. Boolean items return <code>1.0</code> (true)
+	 * or <code>0.0</code> (false).
+	 *
+	 * @return The item's value or {@linkplain Double#NaN} if no value exists.
+	 */
+	public double getDouble();
+
+	/**
+	 * Get the item's value as a String. Boolean items return <code>"true"</code>
+	 * or <code>"false"</code>.
+	 *
+	 * @return The item's value or null if no value exists.
+	 */
+	public String getString();
+
+	/**
+	 * Set the item's value in the Cache.
+	 * <p>
+	 * The Cache is only updated if the new value differs from the item's current value,
+	 * setting an item to the value it already holds does not access the Cache.
+	 *
+	 * @param value The item's new value.
+	 *
+	 * @return <code>true</code> if the Cache was updated, <code>false</code> if the item
+	 * already held the value.
+	 */
+	public boolean set(String value);
+
+	/**
+	 * Set the value of a boolean item in the Cache.
+	 *
+	 * @param value The item's new value.
+	 *
+	 * @return <code>true</code> if the Cache was updated.
+	 *
+	 * @see #set(String)
+	 */
+	public boolean setBoolean(boolean value);
+
+	/**
+	 * Set the value of an integer item in the Cache.
+	 *
+	 * @param value The item's new value.
+	 *
+	 * @return <code>true</code> if the Cache was updated.
+	 *
+	 * @see #set(String)
+	 */
+	public boolean setInteger(int value);
+
+	/**
+	 * Set the value of a real item in the Cache.
+	 *
+	 * @param value The item's new value.
+	 *
+	 * @return <code>true</code> if the Cache was updated.
+	 *
+	 * @see #set(String)
+	 */
+	public boolean setDouble(double value);
+
+} // end interface ITagItemHandle
@@ -0,0 +1,212 @@
+package atst.giss.abplc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import atst.cs.data.Attribute;
+import atst.cs.services.Log;
+import atst.cs.util.Cache;
+
+/**
+ * The class OpenChannelRegistry holds the names and PLCIO connection numbers of a
+ * connection's open channels.
+ * <p>
+ * Adding, removing and testing for channels only accesses the registry's in-memory map.
+ * The registry's contents are published to the Cache attribute given at construction
+ * as a String array of elements of the form <code>name (ch#)</code>, ordered by name.
+ * Publishing is debounced, following a change the registry is published once after
+ * {@linkplain #PUBLISH_DELAY_MS} so that the many changes made when a connection opens or
+ * closes all its channels result in a single update of the Cache. The delayed publish is
+ * run by the connection's {@linkplain PlcioTaskExecutor} given by
+ * {@linkplain #setPublishExecutor(PlcioTaskExecutor)}, without one each change is published
+ * immediately. When the registry is empty the attribute is removed from the Cache.
+ *
+ * @author agent
+ */
+public class OpenChannelRegistry {
+
+    /** Log category of OpenChannelRegistry. */
+    private static final String LOG_CAT = "OPEN_CHANNEL_REGISTRY";
+
+    /** The delay from a change of the registry to the registry being published. */
+    public static final long PUBLISH_DELAY_MS = 100;
+
+    /*
+     *  Private instance variables
+     */
+    private final String attributeName;
+    /** The PLCIO connection number of each open channel by channel name. */
+    private final Map<String,Integer> channels = new ConcurrentHashMap<String,Integer>();
+    /** The executor running the delayed publish, null if changes are published immediately. */
+    private volatile PlcioTaskExecutor publishExecutor = null;
+    /** Whether a publish has been scheduled but not yet run. */
+    private final AtomicBoolean publishScheduled = new AtomicBoolean(false);
+    private final Runnable publishTask = new Runnable() {
+        @Override
+        public void run() {
+            publishScheduled.set(false);
+            publish();
+        }
+    };
+
+    /**
+     * Construct an empty registry.
+     *
+     * @param cacheAttributeName The name of the Cache attribute the registry is published to.
+     */
+    public OpenChannelRegistry(String cacheAttributeName) {
+        attributeName = cacheAttributeName;
+    } // end Constructor
+
+    /**
+     * Set the executor running the delayed publish following a change of the registry.
+     *
+     * @param executor The connection's task executor, or null if changes are to be
+     * published immediately, e.g. when the connection has been disconnected.
+     */
+    public void setPublishExecutor(PlcioTaskExecutor executor) {
+        publishExecutor = executor;
+        // a publish scheduled on a previous executor may never run
+        publishScheduled.set(false);
+    } // end setPublishExecutor()
+
+    /**
+     * Add an open channel, replacing any channel of the same name.
+     *
+     * @param name The channel's name.
+     * @param connectionNumber The channel's PLCIO connection number.
+     */
+    public void add(String name, int connectionNumber) {
+        Integer previous = channels.put(name, connectionNumber);
+        if ((previous == null) || (previous.intValue() != connectionNumber)) {
+            schedulePublish();
+        }
+    } // end add()
+
+    /**
+     * Remove a channel that is no longer open.
+     *
+     * @param name The channel's name.
+     *
+     * @return true if the channel was in the registry.
+     */
+    public boolean remove(String name) {
+        boolean removed = (channels.remove(name) != null);
+        if (removed) {
+            schedulePublish();
+        }
+        return removed;
+    } // end remove()
+
+    /**
+     * Whether the named channel is open.
+     *
+     * @param name The channel's name.
+     *
+     * @return true if the channel is in the registry.
+     */
+    public boolean contains(String name) {
+        return channels.containsKey(name);
+    } // end contains()
+
+    /**
+     * Whether the registry holds no open channels.
+     *
+     * @return true if no channels are open.
+     */
+    public boolean isEmpty() {
+        return channels.isEmpty();
+    } // end isEmpty()
+
+    /**
+     * Get the number of open channels.
+     *
+     * @return The number of channels in the registry.
+     */
+    public int size() {
+        return channels.size();
+    } // end size()
+
+    /**
+     * Remove all channels and publish the empty registry immediately.
+     */
+    public void clear() {
+        channels.clear();
+        publish();
+    } // end clear()
+
+    /**
+     * Publish the registry to the Cache immediately.
+     */
+    public synchronized void publish() {
+        String[] openChNames = toStringArray();
+        if (openChNames.length > 0) {
+            Cache.store(new Attribute(attributeName, openChNames));
+        }
+        else {
+            // remove attribute from Cache when no channels are open
+            // so that on next open channel attribute is created afresh
+            Cache.remove(attributeName);
+        }
+        if (Log.getDebugLevel(LOG_CAT) >= 2) {
+            Log.debug(LOG_CAT, 2, "Cache '." + attributeName + "' now = " +
+                    ((openChNames.length > 0) ? toString() : "<no open channels>"));
+        }
+    } // end publish()
+
+    /**
+     * Get the open channels as an array of <code>name (ch#)</code> Strings ordered by name.
+     *
+     * @return The open channels.
+     */
+    public String[] toStringArray() {
+        List<String> names = new ArrayList<String>(channels.keySet());
+        Collections.sort(names);
+        List<String> openChNames = new ArrayList<String>(names.size());
+        for (String name : names) {
+            Integer connectionNumber = channels.get(name);
+            if (connectionNumber != null) {
+                openChNames.add(name + " (" + connectionNumber + ")");
+            }
+        }
+        return openChNames.toArray(new String[openChNames.size()]);
+    } // end toStringArray()
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (String openChName : toStringArray()) {
+            sb.append((sb.length() == 0) ? "" : ",").append(openChName);
+        }
+        return sb.toString();
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Schedule the registry to be published if a publish is not already scheduled.
+     */
+    private void schedulePublish() {
+        if (publishScheduled.compareAndSet(false, true)) {
+            PlcioTaskExecutor executor = publishExecutor;
+            if (executor != null) {
+                try {
+                    executor.schedule(publishTask, "openChannelRegistryPublish", PUBLISH_DELAY_MS);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    // executor shut down, publish now
+                }
+            }
+            publishScheduled.set(false);
+            publish();
+        }
+    } // end schedulePublish()
+
+} // end class OpenChannelRegistry
@@ -0,0 +1,276 @@
+package atst.giss.abplc;
+
+/**
+ * The class PlcAddressFailover holds the ordered list of PLC addresses a connection
+ * may use, the first being the primary address and the others standby addresses,
+ * and which of them is active.
+ * <p>
+ * Connection failures of the active address are counted. Once
+ * {@linkplain #getFailureThreshold()} consecutive failures have occurred without a
+ * success the connection should switch to the next address in the list, wrapping to
+ * the primary address after the last. The time from the start of a switch to the
+ * connection being usable on the new address is measured, see
+ * {@linkplain #switchCompleted()}.
+ * <p>
+ * While a standby address is active the primary address is probed. So that a primary
+ * address that is only briefly reachable does not cause the connection to switch back
+ * and forth, the connection should only switch back once
+ * {@linkplain #getFailbackProbes()} consecutive probes have succeeded over at least
+ * {@linkplain #getFailbackMinTimeMs()}, see {@linkplain #primaryProbed(boolean)}.
+ * <p>
+ * Each address is held both as given in the connection's properties, used when
+ * reporting the active address, and as the address passed to PLCIO.
+ *
+ * @author agent
+ */
+public class PlcAddressFailover {
+
+    /*
+     *  Private instance variables
+     */
+    private final String[] addresses;
+    private final String[] plcioAddresses;
+    private final int failureThreshold;
+    private int activeIndex;
+    private int failureTotal;
+    /** The time the switch to the active address started, 0 if no switch is in progress. */
+    private long switchStartMs;
+    private long lastSwitchMs;
+    private int switchTotal;
+    private final int failbackProbes;
+    private final long failbackMinTimeMs;
+    /** The number of consecutive successful probes of the primary address. */
+    private int goodProbeTotal;
+    /** The time of the first of the consecutive successful probes of the primary address. */
+    private long firstGoodProbeMs;
+
+    /**
+     * Construct a failover with the primary address active.
+     *
+     * @param plcAddresses The PLC addresses as given in the connection's properties,
+     * primary address first.
+     * @param plcioPlcAddresses The PLCIO addresses of the PLC addresses, in the same order.
+     * @param threshold The number of consecutive failures of the active address
+     * after which the connection should switch address.
+     * @param probes The number of consecutive successful probes of the primary address
+     * after which the connection should switch back to it.
+     * @param minTimeMs The minimum time over which the consecutive probes must have
+     * succeeded before the connection should switch back to the primary address.
+     */
+    public PlcAddressFailover(String[] plcAddresses, String[] plcioPlcAddresses, int threshold,
+            int probes, long minTimeMs) {
+        if ((plcAddresses.length == 0) || (plcAddresses.length != plcioPlcAddresses.length)) {
+            throw new IllegalArgumentException("PlcAddressFailover requires one PLCIO address for each of " +
+                    plcAddresses.length + " address(es), " + plcioPlcAddresses.length + " given");
+        }
+        addresses = plcAddresses.clone();
+        plcioAddresses = plcioPlcAddresses.clone();
+        failureThreshold = Math.max(1, threshold);
+        activeIndex = 0;
+        failureTotal = 0;
+        switchStartMs = 0;
+        lastSwitchMs = -1;
+        switchTotal = 0;
+        failbackProbes = Math.max(1, probes);
+        failbackMinTimeMs = Math.max(0, minTimeMs);
+        goodProbeTotal = 0;
+        firstGoodProbeMs = 0;
+    } // end Constructor
+
+    /**
+     * Whether there is a standby address to switch to.
+     *
+     * @return true if more than one address is held.
+     */
+    public boolean hasStandby() {
+        return (addresses.length > 1);
+    } // end hasStandby()
+
+    /**
+     * Get the number of consecutive failures of the active address after which
+     * the connection should switch address.
+     *
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    } // end getFailureThreshold()
+
+    /**
+     * Get the number of consecutive successful probes of the primary address after
+     * which the connection should switch back to it.
+     *
+     * @return The number of probes.
+     */
+    public int getFailbackProbes() {
+        return failbackProbes;
+    } // end getFailbackProbes()
+
+    /**
+     * Get the minimum time over which consecutive probes of the primary address must
+     * have succeeded before the connection should switch back to it.
+     *
+     * @return The minimum time in ms.
+     */
+    public long getFailbackMinTimeMs() {
+        return failbackMinTimeMs;
+    } // end getFailbackMinTimeMs()
+
+    /**
+     * Record the result of a probe of the primary address while a standby address is
+     * active. A failed probe restarts the count of consecutive successful probes.
+     *
+     * @param succeeded true if the probe succeeded.
+     *
+     * @return true if the connection should now switch back to the primary address,
+     * {@linkplain #getFailbackProbes()} consecutive probes having succeeded over at
+     * least {@linkplain #getFailbackMinTimeMs()}.
+     */
+    public synchronized boolean primaryProbed(boolean succeeded) {
+        if (!succeeded || (activeIndex == 0)) {
+            goodProbeTotal = 0;
+            return false;
+        }
+        long nowMs = System.currentTimeMillis();
+        if (goodProbeTotal == 0) {
+            firstGoodProbeMs = nowMs;
+        }
+        goodProbeTotal++;
+        return (goodProbeTotal >= failbackProbes) && ((nowMs - firstGoodProbeMs) >= failbackMinTimeMs);
+    } // end primaryProbed()
+
+    /**
+     * Get the number of consecutive successful probes of the primary address.
+     *
+     * @return The number of probes.
+     */
+    public synchronized int getGoodProbeTotal() {
+        return goodProbeTotal;
+    } // end getGoodProbeTotal()
+
+    /**
+     * Get the active address as given in the connection's properties.
+     *
+     * @return The active address.
+     */
+    public synchronized String getActiveAddress() {
+        return addresses[activeIndex];
+    } // end getActiveAddress()
+
+    /**
+     * Get the PLCIO address of the active address.
+     *
+     * @return The active PLCIO address.
+     */
+    public synchronized String getActivePlcioAddress() {
+        return plcioAddresses[activeIndex];
+    } // end getActivePlcioAddress()
+
+    /**
+     * Get the PLCIO address of the primary address.
+     *
+     * @return The primary PLCIO address.
+     */
+    public String getPrimaryPlcioAddress() {
+        return plcioAddresses[0];
+    } // end getPrimaryPlcioAddress()
+
+    /**
+     * Whether the primary address is active.
+     *
+     * @return true if the first address is active.
+     */
+    public synchronized boolean isPrimaryActive() {
+        return (activeIndex == 0);
+    } // end isPrimaryActive()
+
+    /**
+     * Record a failure of a PLCIO address. Failures of an address that is not
+     * active, e.g. reported after a switch, are ignored.
+     *
+     * @param plcioAddress The PLCIO address that failed.
+     *
+     * @return true if the failure takes the active address's consecutive failures to
+     * the threshold and a standby address exists.
+     */
+    public synchronized boolean failed(String plcioAddress) {
+        if (!plcioAddresses[activeIndex].equals(plcioAddress)) {
+            return false;
+        }
+        failureTotal++;
+        return (failureTotal >= failureThreshold) && hasStandby();
+    } // end failed()
+
+    /**
+     * Record a success of a PLCIO address, clearing the active address's failures.
+     *
+     * @param plcioAddress The PLCIO address that succeeded.
+     */
+    public synchronized void succeeded(String plcioAddress) {
+        if (plcioAddresses[activeIndex].equals(plcioAddress)) {
+            failureTotal = 0;
+        }
+    } // end succeeded()
+
+    /**
+     * Make the next address in the list active, wrapping to the primary address
+     * after the last, and start timing the switch.
+     *
+     * @return The PLCIO address now active.
+     */
+    public synchronized String switchToNext() {
+        return switchTo((activeIndex + 1) % addresses.length);
+    } // end switchToNext()
+
+    /**
+     * Make the primary address active and start timing the switch.
+     *
+     * @return The PLCIO address now active.
+     */
+    public synchronized String switchToPrimary() {
+        return switchTo(0);
+    } // end switchToPrimary()
+
+    /**
+     * Stop timing the switch to the active address, called when the connection
+     * is usable on the address.
+     *
+     * @return The time taken by the switch in milliseconds, -1 if no switch
+     * was in progress.
+     */
+    public synchronized long switchCompleted() {
+        if (switchStartMs == 0) {
+            return -1;
+        }
+        lastSwitchMs = System.currentTimeMillis() - switchStartMs;
+        switchStartMs = 0;
+        return lastSwitchMs;
+    } // end switchCompleted()
+
+    @Override
+    public synchronized String toString() {
+        return "PlcAddressFailover {active='" + addresses[activeIndex] + "' (" + (activeIndex + 1) + " of " +
+                addresses.length + "), failures=" + failureTotal + "/" + failureThreshold + ", switches=" +
+                switchTotal + ", switching=" + (switchStartMs != 0) + ", lastSwitchMs=" + lastSwitchMs + "}";
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Make the address at the given index active and start timing the switch, if
+     * a switch is already in progress its timing continues.
+     */
+    private String switchTo(int index) {
+        activeIndex = index;
+        failureTotal = 0;
+        goodProbeTotal = 0;
+        if (switchStartMs == 0) {
+            switchStartMs = System.currentTimeMillis();
+        }
+        switchTotal++;
+        return plcioAddresses[activeIndex];
+    } // end switchTo()
+
+} // end class PlcAddressFailover
@@ -0,0 +1,303 @@
+package atst.giss.abplc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import atst.cs.services.Log;
+
+/**
+ * The class PlcReconnectSupervisor makes all attempts to reconnect to a single
+ * PLC address, there being one supervisor for each address used in the container.
+ * <p>
+ * Connections submit a {@linkplain ReconnectTask} for each channel that must be reopened.
+ * The supervisor's single thread makes the attempts of all submitted tasks, so that an outage
+ * of the PLC results in one thread retrying rather than a thread for every tag:
+ * <ul>
+ * <li>While the PLC can't be connected to only the first task, in priority order, is
+ * attempted as a probe of the PLC. Following each failed probe the supervisor waits before
+ * probing again, the wait starting at the tasks' reconnect interval and doubling after each
+ * failure up to a maximum. Each wait is varied randomly by up to &plusmn;{@linkplain #JITTER}
+ * so that supervisors of different PLCs, and of different containers, do not retry in step.
+ * <li>Once a probe reconnects all remaining tasks are attempted immediately, one after the
+ * other in priority order, and the wait returns to its minimum.
+ * <li>A probe that is abandoned, e.g. as it failed with an error other than being unable to
+ * connect, does not show that the PLC can be connected to. The task is removed and the
+ * supervisor waits and backs off before probing with the next task.
+ * </ul>
+ * A task is only held once, a task submitted with the name of a task already held
+ * is ignored.
+ * <p>
+ * The supervisor's thread is started when a task is submitted and ends when the supervisor
+ * holds no tasks.
+ *
+ * @author agent
+ */
+public class PlcReconnectSupervisor implements Runnable {
+
+    /**
+     * The result of a single reconnection attempt of a {@linkplain ReconnectTask}.
+     */
+    public enum AttemptResult {
+        /** The task reconnected, the PLC can be connected to. The task is complete. */
+        RECONNECTED,
+        /** The task gave up without reconnecting. The task is complete. */
+        ABANDONED,
+        /** The PLC can't yet be connected to, the attempt is to be repeated. */
+        RETRY;
+    } // end enum AttemptResult
+
+    /**
+     * A reconnection made by a {@linkplain PlcReconnectSupervisor}.
+     */
+    public interface ReconnectTask {
+        /**
+         * Get the name identifying the task, unique for the PLC address.
+         *
+         * @return The task's name.
+         */
+        public String getName();
+
+        /**
+         * Get the priority of the task, tasks with a higher priority are attempted first.
+         *
+         * @return The task's priority.
+         */
+        public int getPriority();
+
+        /**
+         * Make a single reconnection attempt. Called by the supervisor's thread, the
+         * method must not block for longer than the attempt takes.
+         *
+         * @return The result of the attempt, only {@linkplain AttemptResult#RECONNECTED}
+         * shows that the PLC can be connected to.
+         */
+        public AttemptResult attempt();
+    } // end interface ReconnectTask
+
+    /** Log category of PlcReconnectSupervisor. */
+    private static final String LOG_CAT = "PLC_RECONNECT_SUPERVISOR";
+    private static final String THREAD_NAME_PREFIX = "gissPlcReconnect_";
+
+    /** The fraction by which each wait between attempts is randomly varied. */
+    public static final double JITTER = 0.2;
+
+    /** All supervisors by PLC address. */
+    private static final Map<String,PlcReconnectSupervisor> supervisors = new HashMap<String,PlcReconnectSupervisor>();
+
+    /**
+     * Get the supervisor of reconnections to the given PLC address, creating it
+     * if this is the first use of the address.
+     *
+     * @param address The PLC address.
+     *
+     * @return The address's supervisor.
+     */
+    public static PlcReconnectSupervisor forAddress(String address) {
+        synchronized (supervisors) {
+            PlcReconnectSupervisor supervisor = supervisors.get(address);
+            if (supervisor == null) {
+                supervisor = new PlcReconnectSupervisor(address);
+                supervisors.put(address, supervisor);
+            }
+            return supervisor;
+        }
+    } // end forAddress()
+
+    /*
+     *  Private instance variables, all guarded by this supervisor's lock
+     */
+    private final String address;
+    private final Random random = new Random();
+    /** The tasks held, in the order they are attempted. */
+    private final List<ReconnectTask> tasks = new ArrayList<ReconnectTask>();
+    private boolean running;
+    private long minDelayMs;
+    private long maxDelayMs;
+    private long attemptTotal;
+
+    // Constructor
+    private PlcReconnectSupervisor(String plcAddress) {
+        address = plcAddress;
+        running = false;
+    } // end Constructor
+
+    /**
+     * Submit a reconnection task, starting the supervisor's thread if it is not running.
+     *
+     * @param task The task to be attempted.
+     * @param delayMs The minimum wait between failed attempts. When the supervisor holds
+     * several tasks the shortest of their minimum waits is used.
+     * @param delayMaxMs The maximum wait between failed attempts, the longest of the held
+     * tasks' maximum waits is used.
+     * @param threadFactory The factory used to start the supervisor's thread.
+     *
+     * @return true if the task was submitted, false if a task with the same
+     * name is already held.
+     */
+    public synchronized boolean submit(ReconnectTask task, long delayMs, long delayMaxMs,
+            PlcioThreadFactory threadFactory) {
+        for (ReconnectTask heldTask : tasks) {
+            if (heldTask.getName().equals(task.getName())) {
+                Log.debug(LOG_CAT, 3, "Reconnect task '" + task.getName() + "' for PLC address '" + address +
+                        "' already held - not submitted again");
+                return false;
+            }
+        }
+        // insert after all tasks with the same or higher priority
+        int index = 0;
+        while ((index < tasks.size()) && (tasks.get(index).getPriority() >= task.getPriority())) {
+            index++;
+        }
+        tasks.add(index, task);
+        if (tasks.size() == 1) {
+            minDelayMs = delayMs;
+            maxDelayMs = Math.max(delayMs, delayMaxMs);
+        }
+        else {
+            minDelayMs = Math.min(minDelayMs, delayMs);
+            maxDelayMs = Math.max(maxDelayMs, delayMaxMs);
+        }
+        Log.debug(LOG_CAT, 2, "Reconnect task '" + task.getName() + "' submitted for PLC address '" + address +
+                "', " + tasks.size() + " task(s) held");
+        if (!running) {
+            running = true;
+            threadFactory.startDaemon(this, THREAD_NAME_PREFIX + address);
+        }
+        return true;
+    } // end submit()
+
+    /**
+     * Remove a task so that it is no longer attempted. If the task is being attempted
+     * the attempt is not interrupted.
+     *
+     * @param task The task to be removed.
+     *
+     * @return true if the task was held.
+     */
+    public synchronized boolean cancel(ReconnectTask task) {
+        boolean removed = tasks.remove(task);
+        if (removed) {
+            Log.debug(LOG_CAT, 2, "Reconnect task '" + task.getName() + "' for PLC address '" + address +
+                    "' cancelled, " + tasks.size() + " task(s) held");
+            // wake the thread so that it ends if no tasks are left
+            notifyAll();
+        }
+        return removed;
+    } // end cancel()
+
+    /**
+     * Get the number of tasks held.
+     *
+     * @return The number of tasks waiting to reconnect.
+     */
+    public synchronized int getTaskTotal() {
+        return tasks.size();
+    } // end getTaskTotal()
+
+    /**
+     * Make the held tasks' reconnection attempts until no tasks are held.
+     */
+    @Override
+    public void run() {
+        Log.note(LOG_CAT, "Reconnect supervisor for PLC address '" + address + "' started");
+        long delayMs = 0;
+        while (true) {
+            ReconnectTask probe;
+            synchronized (this) {
+                if (tasks.isEmpty()) {
+                    running = false;
+                    break;
+                }
+                probe = tasks.get(0);
+                if (delayMs == 0) {
+                    delayMs = minDelayMs;
+                }
+            }
+
+            if (attempt(probe) == AttemptResult.RECONNECTED) {
+                // the PLC can be connected to, bring back all other tasks in order
+                List<ReconnectTask> remaining;
+                synchronized (this) {
+                    remaining = new ArrayList<ReconnectTask>(tasks);
+                }
+                for (ReconnectTask task : remaining) {
+                    attempt(task);
+                }
+                delayMs = 0;
+                synchronized (this) {
+                    if (tasks.isEmpty()) {
+                        continue;
+                    }
+                }
+            }
+
+            // wait before probing again, varying the wait to avoid retrying in step
+            long waitMs = (long) (delayMs * (1.0 - JITTER + (2.0 * JITTER * random.nextDouble())));
+            Log.debug(LOG_CAT, 3, "Reconnect supervisor for PLC address '" + address + "' retrying in " + waitMs + "ms");
+            synchronized (this) {
+                long endMs = System.currentTimeMillis() + waitMs;
+                long remainingMs = waitMs;
+                while (!tasks.isEmpty() && (remainingMs > 0)) {
+                    try {
+                        wait(remainingMs);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        running = false;
+                        return;
+                    }
+                    remainingMs = endMs - System.currentTimeMillis();
+                }
+                delayMs = Math.min(maxDelayMs, (delayMs == 0) ? minDelayMs : (2 * delayMs));
+            }
+        }
+        Log.note(LOG_CAT, "Reconnect supervisor for PLC address '" + address + "' has no tasks - stopped after " +
+                attemptTotal + " attempt(s)");
+    } // end run()
+
+    @Override
+    public synchronized String toString() {
+        return "PlcReconnectSupervisor {address='" + address + "', tasks=" + tasks.size() + ", running=" + running + "}";
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Make a single attempt of a task, removing the task if it is complete.
+     *
+     * @return The result of the attempt, {@linkplain AttemptResult#ABANDONED} if the
+     * task has been cancelled.
+     */
+    private AttemptResult attempt(ReconnectTask task) {
+        synchronized (this) {
+            if (!tasks.contains(task)) {
+                // cancelled
+                return AttemptResult.ABANDONED;
+            }
+            attemptTotal++;
+        }
+        AttemptResult result;
+        try {
+            result = task.attempt();
+        } catch (RuntimeException ex) {
+            Log.severe(LOG_CAT, "Reconnect task '" + task.getName() + "' for PLC address '" + address +
+                    "' failed with exception, task abandoned. Exception: " + ex.toString());
+            result = AttemptResult.ABANDONED;
+        }
+        if (result != AttemptResult.RETRY) {
+            synchronized (this) {
+                tasks.remove(task);
+            }
+            if (result == AttemptResult.ABANDONED) {
+                Log.debug(LOG_CAT, 2, "Reconnect task '" + task.getName() + "' for PLC address '" + address +
+                        "' abandoned, " + getTaskTotal() + " task(s) held");
+            }
+        }
+        return result;
+    } // end attempt()
+
+} // end class PlcReconnectSupervisor
@@ -152,17 +152,38 @@ public class PlcTag implements IPlcTag {
      * used to get the item's TagItem object from the tagItemMap. */
     private final Map<Integer,ArrayList<String>> tagMemberItemNamesMap;
 
+    /** The TagItem objects of all this tag's data items in the order they
+     * are listed in the tag's propertyDB item list. */
+    private final TagItem[] tagItems;
+
+    /** For a WRITE tag the propertyDB default value of each tag data item, indexed
+     * as {@linkplain #tagItems}. An element is null if the item has no default value.
+     * Resolved on creation and by {@linkplain #refreshWriteDefaults()}. Always
+     * null for a READ tag. */
+    private volatile IAttribute[] writeDefaults;
+
     /** The actual member data values of the tag stored as Strings. If this is
      * a READ tag then the values will be those read from the PLC. If this is a
      * WRITE tag then the values will be those that are to be written to the PLC.
      * The pcFormat is used to convert the actual values read or written to/from
      * the PLC to the correct data types contained in the tag. */
-    private String[] memberValues;
+    private volatile String[] memberValues;
 
     /** The time of the last update to memberValues as returned by call to
      *  {@linkplain AtstDate#getCurrent()}.toString() */
     private String valuesLastUpdated;
 
+    /** The sample time to be used by the next update of memberValues set by
+     * {@linkplain #setSampleTime(long, String)}, null if the current time is to be used. */
+    private volatile String sampleTimeString;
+    
+    /** The sample time in ms to be used with sampleTimeString. */
+    private volatile long sampleTimeMs;
+
+    /** The in-memory history of this tag's member values, null if the tag's
+     * {@linkplain IPlcTag#PROPERTY_HISTORY_SIZE} property does not enable a history. */
+    private final PlcTagHistory history;
+
     /*
      *  Class methods
      */
@@ -527,11 +548,31 @@ public class PlcTag implements IPlcTag {
         totalMembers = memberNum;
         totalByteLength = PlcioPcFormat.getPlcioPcFormatStrTotalBytes(pcFormat);
         
+        tagItems = new TagItem[tagItemNames.length];
+        for (int i = 0; i < tagItemNames.length; i++) {
+            tagItems[i] = tagItemMap.get(tagItemNames[i]);
+        }
+        
         // initialize tag values to null
         memberValues = new String[totalMembers];
         valuesLastUpdated = null;
         
+        // create the tag's history if one is required, all storage used by the
+        // history is allocated now so that recording samples does not allocate
+        int historySize = 0;
+        if (Cache.contains(propTagName + PROPERTY_HISTORY_SIZE)) {
+            historySize = Cache.lookup(propTagName + PROPERTY_HISTORY_SIZE).getInteger();
+        }
+        if (historySize > 0) {
+            history = new PlcTagHistory(tagName, historySize, pcFormatTypeAL);
+            Log.debug(LOG_CAT, 2, "tag '" + tagName + "' keeping history of last " + historySize + " samples");
+        }
+        else {
+            history = null;
+        }
+        
         // collect and store tag metadata in the Cache so that it can be retrieved using get
+        IAttribute[] itemDefaults = new IAttribute[tagItems.length];
         String[] tagMetadata = new String[TagMetadataIndex.values().length + (tagItemNames.length - 1)];
         tagMetadata[TagMetadataIndex.PCFORMAT.getIndex()] = pcFormat;
         tagMetadata[TagMetadataIndex.BYTE_LENGTH.getIndex()] = String.valueOf(totalByteLength);
@@ -549,13 +590,21 @@ public class PlcTag implements IPlcTag {
                 itemMetadata[TagItemMetadataIndex.BYTE_POS.getIndex()] = String.valueOf(item.getBytePos());
             }
             itemMetadata[TagItemMetadataIndex.DESCRIPTION.getIndex()] = Property.getDescription(item.getPropItemName());
-            itemMetadata[TagItemMetadataIndex.DEFAULT_VAL.getIndex()] = Property.getDefault(item.getPropItemName()).getString();
+            IAttribute itemDefault = Property.getDefault(item.getPropItemName());
+            itemMetadata[TagItemMetadataIndex.DEFAULT_VAL.getIndex()] = itemDefault.getString();
+            if (!itemDefault.isEmpty()) {
+                itemDefaults[i] = itemDefault;
+            }
             
             tagMetadataTable.insert(item.getPropItemName()+TAG_METADATA, itemMetadata);
         }
         tagMetadataTable.insert(propTagName+TAG_METADATA, tagMetadata);
         Cache.storeAll(tagMetadataTable);
         
+        // a WRITE tag keeps its items' default values so that they do not need
+        // to be looked up on every write of the tag
+        writeDefaults = (direction == IPlcTag.DIRECTION_WRITE) ? itemDefaults : null;
+        
         Log.debug(LOG_CAT, 4, "PlcTag object created = " + this.toString());
 
     } // end Constructor
@@ -703,6 +752,25 @@ public class PlcTag implements IPlcTag {
         return memberValues[tagItemMap.get(itemName).getMemberNum()];
     } // end getMemberValue()
     
+    // Documented in IPlcTag
+    @Override
+    public ITagItemHandle getTagItemHandle(String itemName) {
+        TagItem item = tagItemMap.get(itemName);
+        return (item == null) ? null : item.getHandle();
+    } // end getTagItemHandle()
+    
+    /**
+     * Get the current value of a tag member, used by {@linkplain TagItemHandle}
+     * to read item values without searching the tag's item map.
+     * 
+     * @param memberNum The tag member number.
+     * 
+     * @return The member's value or null if no value has been set.
+     */
+    String getMemberValue(int memberNum) {
+        return memberValues[memberNum];
+    } // end getMemberValue()
+    
     // Documented in IPlcTag
     @Override
     public IAttributeTable getCacheTagItemValues() {
@@ -720,6 +788,82 @@ public class PlcTag implements IPlcTag {
         Cache.storeAll(newValues);
     } // end setTagItemsInCache()
     
+    // Documented in IPlcTag
+    @Override
+    public int setWriteValues(IAttributeTable tbl) {
+        IAttribute[] defaults = writeDefaults;
+        String[] newValues = new String[memberValues.length];
+        int[] statusWords = new int[memberValues.length];
+        
+        for (int i = 0; i < tagItems.length; i++) {
+            TagItem item = tagItems[i];
+            String value;
+            if (tbl.contains(item.getPropItemName())) {
+                value = tbl.get(item.getPropItemName()).getString();
+            }
+            else if ((defaults != null) && (defaults[i] != null)) {
+                value = defaults[i].getString();
+            }
+            else {
+                value = item.getItemValueFromCache();
+            }
+            if (value == null) {
+                Log.warn(LOG_CAT, "tag '" + tagName + "' item '" + item.getItemName() +
+                        "' has no value to write, not in table, no default value and not in Cache");
+                return -1;
+            }
+            
+            int memberIndex = item.getMemberNum();
+            if (tagMemberItemNamesMap.get(memberIndex).size() > 1) {
+                // set or clear this item's bit of the data word stored in this tag member
+                if (!item.isBoolean()) {
+                    // this should never happen...
+                    Log.severe(LOG_CAT, "tag '" + tagName + "' memberNumber " + memberIndex +
+                            " contains multiple data items but item '" + item.getItemName() +
+                            "' is NOT of type boolean, item details:" + item.toString() +
+                            "\n. Tag details: " + toString());
+                    return -1;
+                }
+                if (Boolean.parseBoolean(value)) {
+                    statusWords[memberIndex] |= item.getBitMask();
+                }
+                newValues[memberIndex] = Integer.toString(statusWords[memberIndex]);
+            }
+            else {
+                newValues[memberIndex] = value;
+            }
+        }
+        
+        for (int memberIndex = 0; memberIndex < newValues.length; memberIndex++) {
+            if (newValues[memberIndex] == null) {
+                // this should never happen...
+                Log.warn(LOG_CAT, "tag '" + tagName + "' memberNumber " + memberIndex +
+                        " contains no data items. Tag details: " + toString());
+                return -1;
+            }
+        }
+        
+        // store the new values and update the Cache, including items not in tbl
+        return setMemberValues(newValues);
+    } // end setWriteValues()
+    
+    // Documented in IPlcTag
+    @Override
+    public void refreshWriteDefaults() {
+        if (direction != IPlcTag.DIRECTION_WRITE) {
+            return;
+        }
+        IAttribute[] defaults = new IAttribute[tagItems.length];
+        for (int i = 0; i < tagItems.length; i++) {
+            IAttribute itemDefault = Property.getDefault(tagItems[i].getPropItemName());
+            if ((itemDefault != null) && (!itemDefault.isEmpty())) {
+                defaults[i] = itemDefault;
+            }
+        }
+        writeDefaults = defaults;
+        Log.debug(LOG_CAT, 3, "tag '" + tagName + "' write default values refreshed from propertyDB");
+    } // end refreshWriteDefaults()
+    
     // Documented in IPlcTag
     @Override
     public int setMemberValues(String[] newValues) {
@@ -729,7 +873,17 @@ public class PlcTag implements IPlcTag {
             return -1;
         }
         memberValues = newValues;
+        long updateTimeMs = System.currentTimeMillis();
         valuesLastUpdated = AtstDate.getCurrent().toString();
+        String sampleTime = sampleTimeString;
+        if (sampleTime != null) {
+            // record the values at the time they were intended to be sampled
+            sampleTimeString = null;
+            updateTimeMs = sampleTimeMs;
+        }
+        if (history != null) {
+            history.record(updateTimeMs, memberValues);
+        }
         
         // update the tag data items in Cache
         AttributeTable tagItemsTable = new AttributeTable();
@@ -749,6 +903,9 @@ public class PlcTag implements IPlcTag {
         
         // add the tag last update time attribute
         tagItemsTable.insert(propTagName + PROPERTY_LAST_UPDATE_TIME, valuesLastUpdated);
+        if (sampleTime != null) {
+            tagItemsTable.insert(propTagName + PROPERTY_SAMPLE_TIME, sampleTime);
+        }
         
         // store values in Cache
         Cache.storeAll(tagItemsTable);
@@ -830,6 +987,9 @@ public class PlcTag implements IPlcTag {
         // update in Cache tag's last update time attribute setting value to time now
         valuesLastUpdated = AtstDate.getCurrent().toString();
         Cache.store(new Attribute(propTagName + PROPERTY_LAST_UPDATE_TIME, valuesLastUpdated));
+        if (history != null) {
+            history.record(System.currentTimeMillis(), memberValues);
+        }
         
         Log.debug(LOG_CAT, 4, "tag '" + tagName +
                 "' after setting memberValues from Cache tag data items memberValues = " +
@@ -838,12 +998,25 @@ public class PlcTag implements IPlcTag {
         return memberValuesSet;    
     } // end setMemberValues()
     
+    // Documented in IPlcTag
+    @Override
+    public void setSampleTime(long timeMs, String timeString) {
+        sampleTimeMs = timeMs;
+        sampleTimeString = timeString;
+    } // end setSampleTime()
+    
     // Documented in IPlcTag
     @Override
     public String getValuesLastUpdateString() {
         return valuesLastUpdated;
     } // end getValuesLastUpdateString()
     
+    // Documented in IPlcTag
+    @Override
+    public IPlcTagHistory getHistory() {
+        return history;
+    } // end getHistory()
+    
     // Documented in IPlcTag
     @Override
     public String tagValuesToString() {
@@ -939,6 +1112,10 @@ public class PlcTag implements IPlcTag {
         result.append(leftMargin + "tagValuesLastUpdate" + separator +
                 valuesLastUpdated);
         result.append(newLine);
+        
+        if (history != null) {
+            result.append(leftMargin + "history" + separator + history.toString() + newLine);
+        }
 
         result.append("}");
         
@@ -989,6 +1166,7 @@ public class PlcTag implements IPlcTag {
         private final int bitPos;
         private final int bitMask;
         private final boolean isBoolean;
+        private final TagItemHandle handle;
         
         // Constructor
         TagItem(String name, String propName, String propTypeString, int memberNum, char plcioType, int bytePos) {
@@ -1015,6 +1193,7 @@ public class PlcTag implements IPlcTag {
                 bitPos = bitMask = -1;
                 isBoolean = false;
             }
+            handle = new TagItemHandle(PlcTag.this, itemName, propItemName, memberNum, bitMask, memberPlcioType);
         } // end Constructor
         
         String getItemName() {
@@ -1085,6 +1264,10 @@ public class PlcTag implements IPlcTag {
             return isBoolean;
         } // end isBoolean()
         
+        TagItemHandle getHandle() {
+            return handle;
+        } // end getHandle()
+        
         @Override
         public String toString() {
             StringBuilder result = new StringBuilder();
@@ -0,0 +1,327 @@
+package atst.giss.abplc;
+
+import java.util.ArrayList;
+
+import atst.cs.services.Log;
+
+/**
+ * The class PlcTagHistory is a fixed size ring buffer storing the recent values
+ * of a {@linkplain PlcTag}'s members.
+ * <p>
+ * All storage is allocated on construction: one array holding the sample times, one
+ * holding the tag's String member values of every sample and one holding their parsed
+ * values. Recording a sample only copies the member value references into the
+ * preallocated arrays, so no objects are created and no values are parsed per sample.
+ * A sample's values are parsed the first time the sample is queried. Members of PLCIO
+ * type real and double are parsed as their double value, all other types as their
+ * integer value.
+ * <p>
+ * The history is written by the thread updating the tag's values and may be queried
+ * concurrently by any thread, all methods are therefore synchronized.
+ *
+ * @author agent
+ */
+public class PlcTagHistory implements IPlcTagHistory {
+
+    /*
+     *  Private class constants
+     */
+    /** The log category used by this class, that of {@linkplain PlcTag} whose
+     * log categories are registered by the connection. */
+    private static final String LOG_CAT = "PLC_TAG";
+
+    /*
+     *  Private instance variables
+     */
+    /** The name of the tag whose history this is. */
+    private final String tagName;
+
+    /** The maximum number of samples held. */
+    private final int capacity;
+
+    /** The number of members in each sample. */
+    private final int memberTotal;
+
+    /** For each tag member whether it is stored in the PLC as a floating point type. */
+    private final boolean[] memberIsReal;
+
+    /** The time of each sample, indexed by sample slot. */
+    private final long[] sampleTimes;
+
+    /** The String member values of each sample as recorded, sample slot <code>s</code>
+     * member <code>m</code> is stored at index <code>(s * memberTotal) + m</code>. */
+    private final String[] sampleStrings;
+
+    /** The parsed member values of each sample, indexed as {@linkplain #sampleStrings}. */
+    private final double[] sampleValues;
+
+    /** For each sample slot whether its values have been parsed into {@linkplain #sampleValues}. */
+    private final boolean[] slotParsed;
+
+    /** The number of samples not recorded because their number of members was wrong. */
+    private long droppedTotal;
+
+    /** The slot the next sample will be written to. */
+    private int head;
+
+    /** The number of samples currently held. */
+    private int count;
+
+    /**
+     * Construct a history for a tag described by the given pcFormat types.
+     *
+     * @param name The name of the tag whose history this is.
+     * @param cap The number of samples the history is to hold, must be greater than zero.
+     * @param pcFormatTypeAL The tag's pcFormat type descriptors as returned
+     * by {@linkplain IPlcTag#getPcFormatTypeAL()}.
+     *
+     * @throws IllegalArgumentException If <code>cap</code> is not greater than zero.
+     */
+    public PlcTagHistory(String name, int cap, ArrayList<PlcioPcFormatType> pcFormatTypeAL) {
+        if (cap <= 0) {
+            throw new IllegalArgumentException("PlcTagHistory of tag '" + name + "' capacity must be greater than zero, was " + cap);
+        }
+        int members = 0;
+        for (PlcioPcFormatType pcFormatType : pcFormatTypeAL) {
+            members += pcFormatType.getNumberOfMembers();
+        }
+        tagName = name;
+        capacity = cap;
+        memberTotal = members;
+        memberIsReal = new boolean[memberTotal];
+        int memberNum = 0;
+        for (PlcioPcFormatType pcFormatType : pcFormatTypeAL) {
+            boolean isReal = ((pcFormatType.getTypeId() == PlcioPcFormat.TYPE_R) ||
+                    (pcFormatType.getTypeId() == PlcioPcFormat.TYPE_D));
+            for (int i = 0; i < pcFormatType.getNumberOfMembers(); i++) {
+                memberIsReal[memberNum++] = isReal;
+            }
+        }
+        sampleTimes = new long[capacity];
+        sampleStrings = new String[capacity * memberTotal];
+        sampleValues = new double[capacity * memberTotal];
+        slotParsed = new boolean[capacity];
+        head = 0;
+        count = 0;
+        droppedTotal = 0;
+    } // end Constructor
+
+    /**
+     * Record a sample of the tag's member values.
+     * <p>
+     * Called by {@linkplain PlcTag} each time its member values are updated. If the
+     * history is full the oldest sample is overwritten. A sample whose number of
+     * members is wrong is not recorded, the first such sample being logged as a warning
+     * and all being counted by {@linkplain #getDroppedTotal()}.
+     *
+     * @param timeMs The time of the sample.
+     * @param memberValues The tag's member values, must have length equal to the tag's
+     * total number of members. Null values are queried as {@linkplain Double#NaN}.
+     */
+    public synchronized void record(long timeMs, String[] memberValues) {
+        if ((memberValues == null) || (memberValues.length != memberTotal)) {
+            droppedTotal++;
+            if (droppedTotal == 1) {
+                Log.warn(LOG_CAT, "tag '" + tagName + "' history sample dropped, it has " +
+                        ((memberValues == null) ? "no" : String.valueOf(memberValues.length)) +
+                        " members but the tag has " + memberTotal + ", further dropped samples are only counted");
+            }
+            return;
+        }
+        sampleTimes[head] = timeMs;
+        System.arraycopy(memberValues, 0, sampleStrings, head * memberTotal, memberTotal);
+        slotParsed[head] = false;
+        head = (head + 1) % capacity;
+        if (count < capacity) {
+            count++;
+        }
+    } // end record()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public int getCapacity() {
+        return capacity;
+    } // end getCapacity()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized int size() {
+        return count;
+    } // end size()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized long getLatestTime() {
+        if (count == 0) {
+            return 0;
+        }
+        return sampleTimes[slotOf(count - 1)];
+    } // end getLatestTime()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized long getDroppedTotal() {
+        return droppedTotal;
+    } // end getDroppedTotal()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized int getLatest(int memberNum, int bitMask, int n, long[] times, double[] values) {
+        checkMemberNum(memberNum);
+        if (n < 0) {
+            throw new IllegalArgumentException("PlcTagHistory of tag '" + tagName + "' number of samples must not be negative, was " + n);
+        }
+        int copyTotal = Math.min(Math.min(n, count), Math.min(times.length, values.length));
+        int firstSample = count - copyTotal;
+        for (int i = 0; i < copyTotal; i++) {
+            int slot = slotOf(firstSample + i);
+            times[i] = sampleTimes[slot];
+            values[i] = valueAt(slot, memberNum, bitMask);
+        }
+        return copyTotal;
+    } // end getLatest()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized int getRange(int memberNum, int bitMask, long fromMs, long toMs,
+            long[] times, double[] values) {
+        checkMemberNum(memberNum);
+        // count samples in range so that when more exist than can be copied the
+        // most recent samples are the ones copied
+        int inRangeTotal = 0;
+        for (int i = 0; i < count; i++) {
+            long t = sampleTimes[slotOf(i)];
+            if ((t >= fromMs) && (t <= toMs)) {
+                inRangeTotal++;
+            }
+        }
+        int skip = inRangeTotal - Math.min(times.length, values.length);
+        int copied = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(i);
+            long t = sampleTimes[slot];
+            if ((t >= fromMs) && (t <= toMs)) {
+                if (skip > 0) {
+                    skip--;
+                }
+                else {
+                    times[copied] = t;
+                    values[copied] = valueAt(slot, memberNum, bitMask);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    } // end getRange()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized double getMin(int memberNum, int bitMask, long fromMs, long toMs) {
+        checkMemberNum(memberNum);
+        double min = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(i);
+            long t = sampleTimes[slot];
+            if ((t >= fromMs) && (t <= toMs)) {
+                double value = valueAt(slot, memberNum, bitMask);
+                if (Double.isNaN(min) || (value < min)) {
+                    min = value;
+                }
+            }
+        }
+        return min;
+    } // end getMin()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized double getMax(int memberNum, int bitMask, long fromMs, long toMs) {
+        checkMemberNum(memberNum);
+        double max = Double.NaN;
+        for (int i = 0; i < count; i++) {
+            int slot = slotOf(i);
+            long t = sampleTimes[slot];
+            if ((t >= fromMs) && (t <= toMs)) {
+                double value = valueAt(slot, memberNum, bitMask);
+                if (Double.isNaN(max) || (value > max)) {
+                    max = value;
+                }
+            }
+        }
+        return max;
+    } // end getMax()
+
+    // Documented in IPlcTagHistory
+    @Override
+    public synchronized void clear() {
+        head = 0;
+        count = 0;
+    } // end clear()
+
+    @Override
+    public synchronized String toString() {
+        return "PlcTagHistory {capacity=" + capacity + ", members=" + memberTotal +
+                ", samples=" + count + ", dropped=" + droppedTotal + ", latestTime=" + ((count == 0) ? 0 : sampleTimes[slotOf(count - 1)]) + "}";
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Get the buffer slot of the sample at the given age order, where
+     * <code>0</code> is the oldest sample held.
+     */
+    private int slotOf(int sampleIndex) {
+        return (head - count + sampleIndex + capacity) % capacity;
+    } // end slotOf()
+
+    /**
+     * Check a queried member number is one of the tag's members.
+     *
+     * @throws IllegalArgumentException If <code>memberNum</code> is out of range.
+     */
+    private void checkMemberNum(int memberNum) {
+        if ((memberNum < 0) || (memberNum >= memberTotal)) {
+            throw new IllegalArgumentException("PlcTagHistory of tag '" + tagName + "' has no member number " +
+                    memberNum + ", it has " + memberTotal + " members");
+        }
+    } // end checkMemberNum()
+
+    /**
+     * Get the value of a member stored in the given slot, applying the bit mask
+     * if one is given. The slot's values are parsed if this is the first query
+     * of the sample.
+     */
+    private double valueAt(int slot, int memberNum, int bitMask) {
+        if (!slotParsed[slot]) {
+            int valueIndex = slot * memberTotal;
+            for (int i = 0; i < memberTotal; i++) {
+                sampleValues[valueIndex + i] = parseMemberValue(i, sampleStrings[valueIndex + i]);
+            }
+            slotParsed[slot] = true;
+        }
+        double value = sampleValues[(slot * memberTotal) + memberNum];
+        if ((bitMask == -1) || Double.isNaN(value)) {
+            return value;
+        }
+        return ((((long) value) & bitMask) == bitMask) ? 1.0 : 0.0;
+    } // end valueAt()
+
+    /**
+     * Parse a member's String value into the double stored in the history.
+     */
+    private double parseMemberValue(int memberNum, String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            if (memberIsReal[memberNum]) {
+                return Double.parseDouble(value);
+            }
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    } // end parseMemberValue()
+
+} // end class PlcTagHistory
@@ -0,0 +1,312 @@
+package atst.giss.abplc;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import atst.cs.services.Log;
+import atst.cs.util.AtstDate;
+
+/**
+ * The class PlcTagReadGroup reads all {@linkplain PlcTagReader} tags sharing the
+ * same PLC address and read interval together in a single read cycle.
+ * <p>
+ * Groups are held by the connection whose readers are members, so that the readers
+ * of different connections in the same container are never read in the same group
+ * even if they read the same PLC address. A group is created when the first reader
+ * joins it and runs its read cycles on the
+ * {@linkplain PlcTagReadScheduler} at fixed multiples of the group's interval, in the
+ * same way as an individual PlcTagReader, at a phase within the interval given by the
+ * group's key. In each cycle the tags of all member readers
+ * are read one after the other and every tag read is given the same sample time, taken
+ * at the start of the cycle, so that values read from different tags in the same cycle
+ * can be compared. When the last reader leaves the group the group stops.
+ * <p>
+ * Each member reader keeps its own enabled state, interrupt handlers, error
+ * handling and read statistics, the lateness of each member's read from the cycle's
+ * deadline and whether the cycle overran are recorded in the member's statistics.
+ * A reader that stops reading leaves the group.
+ *
+ * @author agent
+ */
+public class PlcTagReadGroup implements Runnable {
+
+	private static final String LOG_CAT = "PLCTAG_READ_GROUP";
+	private static final String THREAD_NAME_PREFIX = "gissPlcTagReadGroup_";
+	/** The longest time a cycle that finds the group has no members waits to stop it. */
+	private static final long EMPTY_STOP_WAIT_MS = 2000;
+
+	/**
+	 * Add a reader to the group reading tags at the given address and interval,
+	 * creating and starting the group if it does not exist.
+	 *
+	 * @param groups The running groups of the reader's connection by group key, also
+	 * used as the lock guarding them.
+	 * @param address The PLC address of the reader's connection.
+	 * @param intervalMs The reader's read interval in ms.
+	 * @param reader The reader to be added.
+	 * @param threadFactory The factory of the connection starting the reader, used if the
+	 * group is created to start each cycle on a new virtual thread. May be null.
+	 *
+	 * @return The group the reader has joined.
+	 */
+	static PlcTagReadGroup join(Map<String,PlcTagReadGroup> groups, String address, long intervalMs,
+			PlcTagReader reader, PlcioThreadFactory threadFactory) {
+		String key = address + "@" + intervalMs + "ms";
+		PlcTagReadGroup group;
+		synchronized (groups) {
+			group = groups.get(key);
+			if (group == null) {
+				group = new PlcTagReadGroup(groups, key, intervalMs, threadFactory);
+				groups.put(key, group);
+			}
+			group.members.add(reader);
+		}
+		group.start();
+		Log.debug(LOG_CAT, 2, "PlcTagReader for tag '" + reader.getTagName() + "' joined read group '" + key +
+				"', group now has " + group.members.size() + " member(s)");
+		return group;
+	} // end join()
+
+	/*
+	 *  Private instance variables
+	 */
+	/** The running groups of the connection this group belongs to. */
+	private final Map<String,PlcTagReadGroup> groups;
+	private final String key;
+	private final long intervalMs;
+	private final long intervalNs;
+	private final String threadName;
+	private final List<PlcTagReader> members = new CopyOnWriteArrayList<PlcTagReader>();
+	/** Held while a cycle is running or the group is being started or stopped. */
+	private final ReentrantLock cycleLock = new ReentrantLock();
+	/** The factory creating a thread for each cycle, null if cycles are run by the
+	 * scheduler's threads. */
+	private final PlcioThreadFactory cycleThreadFactory;
+	/** Scheduled in place of this group when each cycle is run by a new thread. */
+	private final Runnable cycleDispatcher = new Runnable() {
+		@Override
+		public void run() {
+			cycleThreadFactory.startDaemon(PlcTagReadGroup.this, threadName);
+		}
+	};
+	/** Whether the group's cycles are running, cleared by stop() without waiting for cycleLock. */
+	private volatile boolean running;
+	/** The System.nanoTime() deadline of the next cycle. */
+	private long nextCycleNs;
+	private volatile ScheduledFuture<?> nextCycle;
+
+	// Constructor
+	private PlcTagReadGroup(Map<String,PlcTagReadGroup> connectionGroups, String groupKey, long groupIntervalMs,
+			PlcioThreadFactory threadFactory) {
+		groups = connectionGroups;
+		key = groupKey;
+		intervalMs = groupIntervalMs;
+		intervalNs = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+		threadName = THREAD_NAME_PREFIX + key;
+		if ((threadFactory != null) && (threadFactory.getMode() == PlcioThreadFactory.ThreadMode.VIRTUAL)) {
+			cycleThreadFactory = threadFactory;
+		}
+		else {
+			cycleThreadFactory = null;
+		}
+		running = false;
+	} // end Constructor
+
+	/**
+	 * Get the key identifying this group, made from its address and interval.
+	 *
+	 * @return The group key.
+	 */
+	public String getKey() {
+		return key;
+	} // end getKey()
+
+	/**
+	 * Get the number of readers in this group.
+	 *
+	 * @return The number of member readers.
+	 */
+	public int getMemberTotal() {
+		return members.size();
+	} // end getMemberTotal()
+
+	/**
+	 * Remove a reader from the group, stopping the group if this was its last reader.
+	 * If the group is stopped while a cycle is running this method waits for the cycle
+	 * to complete, but only for a limited period.
+	 *
+	 * @param reader The reader to be removed.
+	 * @param waitMs The longest time to wait for a running cycle to complete.
+	 */
+	void leave(PlcTagReader reader, long waitMs) {
+		members.remove(reader);
+		Log.debug(LOG_CAT, 2, "PlcTagReader for tag '" + reader.getTagName() + "' left read group '" + key +
+				"', group now has " + members.size() + " member(s)");
+		removeIfEmpty(waitMs);
+	} // end leave()
+
+	/**
+	 * Run one read cycle, reading the tags of all member readers.
+	 */
+	@Override
+	public void run() {
+		Thread thread = Thread.currentThread();
+		String schedulerThreadName = thread.getName();
+
+		boolean noMembers = false;
+		cycleLock.lock();
+		try {
+			if (!running) {
+				return;
+			}
+			thread.setName(threadName);
+			long deadlineNs = nextCycleNs;
+			long sampleTimeMs = System.currentTimeMillis();
+			String sampleTimeString = new AtstDate(sampleTimeMs).toString();
+			for (PlcTagReader reader : members) {
+				if (!reader.runRead(sampleTimeMs, sampleTimeString, deadlineNs)) {
+					// the reader is no longer reading so is no longer a member
+					members.remove(reader);
+				}
+				thread.setName(threadName);
+			}
+			// a group stopped during the cycle is not rescheduled
+			if (running) {
+				boolean overran = scheduleNextCycle();
+				for (PlcTagReader reader : members) {
+					reader.recordCycleEnd(overran);
+				}
+			}
+			noMembers = members.isEmpty();
+		} finally {
+			thread.setName(schedulerThreadName);
+			cycleLock.unlock();
+		}
+		// all readers have stopped reading, removed outside of cycleLock
+		// as stopping the group waits for cycleLock
+		if (noMembers) {
+			removeIfEmpty(EMPTY_STOP_WAIT_MS);
+		}
+	} // end run()
+
+	@Override
+	public String toString() {
+		return "PlcTagReadGroup {key='" + key + "', members=" + members.size() + ", running=" + running + "}";
+	} // end toString()
+
+	/*
+	 *  Private methods
+	 */
+
+	/**
+	 * Remove and stop the group if it has no members. The group is removed holding the
+	 * groups lock but stopped outside of it, so that a cycle that has not completed does
+	 * not hold up readers joining or leaving other groups.
+	 */
+	private void removeIfEmpty(long waitMs) {
+		synchronized (groups) {
+			if (!members.isEmpty() || (groups.get(key) != this)) {
+				return;
+			}
+			groups.remove(key);
+		}
+		stop(waitMs);
+	} // end removeIfEmpty()
+
+	/**
+	 * Start the group's read cycles if not already started.
+	 */
+	private void start() {
+		if (running) {
+			// not waiting for cycleLock held by a running cycle
+			return;
+		}
+		cycleLock.lock();
+		try {
+			if (!running) {
+				running = true;
+				nextCycleNs = PlcTagReadScheduler.getNextPhaseDeadline(intervalNs,
+						PlcTagReadScheduler.getPhaseOffsetNs(key, intervalNs, -1));
+				nextCycle = scheduleCycle(nextCycleNs - System.nanoTime());
+				Log.debug(LOG_CAT, 2, "Read group '" + key + "' started");
+			}
+		} finally {
+			cycleLock.unlock();
+		}
+	} // end start()
+
+	/**
+	 * Stop the group's read cycles, waiting for a running cycle to complete but only
+	 * for a limited period. A running cycle that completes after this method returns
+	 * does not schedule a further cycle.
+	 */
+	private void stop(long waitMs) {
+		running = false;
+		cancelNextCycle();
+		boolean stopped = false;
+		try {
+			stopped = cycleLock.tryLock(waitMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (!stopped) {
+			Log.warn(LOG_CAT, "Read group '" + key + "' has been requested to stop but unable to verify its " +
+					"cycle is no longer running (waited " + waitMs + "ms), this may be due to a PLCIO call " +
+					"that has not returned.");
+			return;
+		}
+		try {
+			// a cycle that completed while waiting may have scheduled the next cycle
+			cancelNextCycle();
+			Log.debug(LOG_CAT, 2, "Read group '" + key + "' stopped");
+		} finally {
+			cycleLock.unlock();
+		}
+	} // end stop()
+	
+	/**
+	 * Cancel the group's next cycle if scheduled.
+	 */
+	private void cancelNextCycle() {
+		ScheduledFuture<?> cycle = nextCycle;
+		if (cycle != null) {
+			cycle.cancel(false);
+		}
+		nextCycle = null;
+	} // end cancelNextCycle()
+
+	/**
+	 * Schedule the next cycle at the group's next deadline, skipping any deadlines
+	 * overrun by the cycle just completed.
+	 *
+	 * @return true if the cycle just completed overran the next deadline.
+	 */
+	private boolean scheduleNextCycle() {
+		nextCycleNs += intervalNs;
+		long nowNs = System.nanoTime();
+		boolean overran = (nextCycleNs - nowNs <= 0);
+		if (overran) {
+			long missedTotal = ((nowNs - nextCycleNs) / intervalNs) + 1;
+			nextCycleNs += missedTotal * intervalNs;
+			Log.debug(LOG_CAT, 1, "Read group '" + key + "' cycle of " + members.size() + " tag(s) overran interval of " +
+					intervalMs + "ms skipping " + missedTotal + " cycle(s)");
+		}
+		nextCycle = scheduleCycle(nextCycleNs - nowNs);
+		return overran;
+	} // end scheduleNextCycle()
+
+	/**
+	 * Schedule a cycle of this group after the given delay.
+	 */
+	private ScheduledFuture<?> scheduleCycle(long delayNs) {
+		if (cycleThreadFactory == null) {
+			return PlcTagReadScheduler.schedule(this, delayNs);
+		}
+		return PlcTagReadScheduler.schedule(cycleDispatcher, delayNs);
+	} // end scheduleCycle()
+
+} // end class PlcTagReadGroup
@@ -0,0 +1,137 @@
+package atst.giss.abplc;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class PlcTagReadScheduler runs the periodic reads of all {@linkplain PlcTagReader}
+ * objects in the container using a small shared pool of threads.
+ * <p>
+ * Each PlcTagReader schedules a single read of its tag at a time, when the read completes
+ * the reader schedules its next read at the next deadline of its fixed read interval. The
+ * scheduler's threads are therefore only busy while a tag is actually being read, and the
+ * number of threads does not grow with the number of tags read. All PLCIO calls are
+ * serialized by {@linkplain ABPlcioMaster}, so more threads than the default would not
+ * increase the rate at which tags can be read.
+ * <p>
+ * To avoid all readers reading at the same instant, for example when a controller starts
+ * or its readers are restarted after a loss of connection to the PLC, each reader's reads
+ * are at a fixed phase within its read interval. Phases are measured from a time common to
+ * all readers in the container, see {@linkplain #getNextPhaseDeadline(long, long)}, so a
+ * restarted reader returns to the phase it had before it stopped.
+ * <p>
+ * The scheduler's threads are daemon threads created when the first read is scheduled.
+ * They are shared by the readers of all connections in the container and so are only used
+ * for tag reads. A connection's other delayed tasks, which may block in PLCIO calls, are
+ * scheduled on the connection's own {@linkplain PlcioTaskExecutor}.
+ * Readers started with a virtual thread {@linkplain PlcioThreadFactory} only use the
+ * scheduler's threads to start each read on a new virtual thread.
+ *
+ * @author agent
+ */
+public class PlcTagReadScheduler {
+
+	private static final String THREAD_NAME_PREFIX = "gissPlcTagReadScheduler_";
+
+	/** The number of threads used to run tag reads. */
+	private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	/** The number of phase slots into which each read interval is divided for readers
+	 * given a configured phase slot. */
+	public static final int PHASE_SLOTS = 16;
+
+	/** The number of phases into which each read interval is divided for readers
+	 * given a phase from the hash of their name. */
+	private static final int PHASE_HASH_STEPS = 1024;
+
+	/** The System.nanoTime() from which the phases of all readers are measured. */
+	private static final long PHASE_EPOCH_NS = System.nanoTime();
+
+	/** The executor running all tag reads, created on first use. */
+	private static ScheduledThreadPoolExecutor executor = null;
+
+	/**
+	 * Schedule a single run of a tag read.
+	 *
+	 * @param readTask The task to be run.
+	 * @param delayNs The delay in ns from now after which the task is run, if zero
+	 * or negative the task is run as soon as a thread is available.
+	 *
+	 * @return The future of the scheduled run, used to cancel it.
+	 */
+	public static ScheduledFuture<?> schedule(Runnable readTask, long delayNs) {
+		return getExecutor().schedule(readTask, Math.max(0, delayNs), TimeUnit.NANOSECONDS);
+	} // end schedule()
+
+	/**
+	 * Get the offset within a read interval of the reads of a reader. The offset is
+	 * deterministic, the same reader with the same interval is always given the same phase.
+	 *
+	 * @param name The name identifying the reader, used if phaseSlot is negative.
+	 * @param intervalNs The reader's read interval in ns.
+	 * @param phaseSlot The configured phase slot of the reader, a value from 0 to
+	 * {@linkplain #PHASE_SLOTS}-1 (larger values wrap), or negative if the phase is
+	 * to be given by the hash of the name.
+	 *
+	 * @return The phase offset in ns, from 0 to less than intervalNs.
+	 */
+	public static long getPhaseOffsetNs(String name, long intervalNs, int phaseSlot) {
+		if (phaseSlot >= 0) {
+			return ((phaseSlot % PHASE_SLOTS) * intervalNs) / PHASE_SLOTS;
+		}
+		// spread the bits of the hash so names differing only in
+		// their last characters have distinct phases
+		int hash = name.hashCode() * 0x9E3779B9;
+		int step = (hash >>> 16) % PHASE_HASH_STEPS;
+		return (step * intervalNs) / PHASE_HASH_STEPS;
+	} // end getPhaseOffsetNs()
+
+	/**
+	 * Get the first deadline, at or after the current time, of reads at the given
+	 * interval and phase offset.
+	 *
+	 * @param intervalNs The read interval in ns.
+	 * @param phaseOffsetNs The phase offset of the reads within the interval in ns.
+	 *
+	 * @return The System.nanoTime() deadline.
+	 */
+	public static long getNextPhaseDeadline(long intervalNs, long phaseOffsetNs) {
+		long nowNs = System.nanoTime();
+		long firstNs = PHASE_EPOCH_NS + phaseOffsetNs;
+		long elapsedNs = nowNs - firstNs;
+		if (elapsedNs <= 0) {
+			return firstNs;
+		}
+		long intervals = (elapsedNs + intervalNs - 1) / intervalNs;
+		return firstNs + (intervals * intervalNs);
+	} // end getNextPhaseDeadline()
+
+	/**
+	 * Get the number of tag reads currently scheduled but not yet run.
+	 *
+	 * @return The number of scheduled reads.
+	 */
+	public static int getScheduledTotal() {
+		return getExecutor().getQueue().size();
+	} // end getScheduledTotal()
+
+	/**
+	 * Get the executor, creating it if this is its first use.
+	 */
+	private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			executor = new ScheduledThreadPoolExecutor(POOL_SIZE,
+					new PlcioThreadFactory(THREAD_NAME_PREFIX, PlcioThreadFactory.ThreadMode.PLATFORM));
+			// cancelled reads are removed from the queue immediately so
+			// that stopped readers are not referenced by the executor
+			executor.setRemoveOnCancelPolicy(true);
+		}
+		return executor;
+	} // end getExecutor()
+
+	// no instances, all methods are static
+	private PlcTagReadScheduler() {
+	}
+
+} // end class PlcTagReadScheduler
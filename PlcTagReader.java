@@ -1,10 +1,17 @@
 package atst.giss.abplc;
 
-import atst.base.hardware.connections.ConnectionException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
 import atst.base.hardware.interfaces.IInterruptHandler;
 import atst.base.tabs.util.PostingTAB;
 import atst.cs.services.Alarm;
 import atst.cs.services.Log;
+import atst.cs.util.AtstDate;
 import atst.cs.util.Cache;
 import atst.cs.util.Misc;
 import atst.giss.abplc.ABPlcioExceptionPLCIO.PlcioErrorCode;
@@ -12,52 +19,156 @@ import atst.giss.abplc.IPlcioCall.PlcioMethodName;
 
 /**
  * This class is used to read a specific PLC tag at a specified interval.
+ * <p>
+ * The reader does not have its own thread, each read of the tag is run by the
+ * shared {@linkplain PlcTagReadScheduler}.
  * 
  * @author Alastair Borrowman (OSL)
  */
 public class PlcTagReader implements Runnable {
 	
+	/**
+	 * The action taken when a read overruns one or more of the reader's following deadlines.
+	 */
+	public enum OverrunPolicy {
+		/** Missed deadlines are skipped, the next read is at the next deadline not yet passed. */
+		SKIP,
+		/** A read is run for every missed deadline, back to back, until the reader has caught up. */
+		CATCH_UP,
+		/** A single read is run immediately for all missed deadlines and following
+		 * deadlines are fixed multiples of the read interval from that read. */
+		COALESCE;
+		
+		/**
+		 * Get the overrun policy named by the given String, ignoring case and
+		 * any '_' characters, so that both <code>catchUp</code> and <code>CATCH_UP</code>
+		 * name {@linkplain #CATCH_UP}.
+		 * 
+		 * @param policy The policy name.
+		 * 
+		 * @return The named policy or {@linkplain #SKIP} if policy is null or
+		 * does not name a policy.
+		 */
+		public static OverrunPolicy parse(String policy) {
+			if (policy != null) {
+				String name = policy.trim().replace("_", "");
+				for (OverrunPolicy overrunPolicy : values()) {
+					if (overrunPolicy.name().replace("_", "").equalsIgnoreCase(name)) {
+						return overrunPolicy;
+					}
+				}
+			}
+			return SKIP;
+		} // end parse()
+	} // end enum OverrunPolicy
+	
 	private static final String LOG_CAT_PREFIX = "PLCTAG_READER_";
 	private static final int MAX_RUNS_CH_NOT_CONNECTED = 30;
+	/** Read intervals shorter than this are increased to this value. */
+	private static final long MIN_READ_INTERVAL_MS = 20;
+	/** When catching up overrun reads, reads further behind than this number of
+	 * deadlines are skipped so that a reader that can't keep up does not fall ever further behind. */
+	private static final long MAX_CATCH_UP_READS = 10;
+	/** The longest time setEnabled() waits for a read in progress. */
+	private static final long SET_ENABLED_WAIT_MS = 2000;
 	
 	private final ABPlcioChannel readCh;
 	private final PlcTag readTag;
 	private final String readTagName;
 	private final long readIntervalMs;
+	private final long readIntervalNs;
+	/** The shortest and longest read intervals when adaptive, both equal to
+	 * readIntervalNs when the read interval is fixed. */
+	private long minIntervalNs;
+	private long maxIntervalNs;
 	private final String logCat;
-	private final IInterruptHandler<ABPlcioExceptionPLCIO> plcioErrorIH;
+	private final IInterruptHandler<IPlcioCallStatus> plcioErrorIH;
 	private final IInterruptHandler<Boolean> readTagIH;
-	private Thread readThread;
+	private final String propertyEnabled;
+	private final PlcTagReaderStats stats;
+	private volatile OverrunPolicy overrunPolicy = OverrunPolicy.SKIP;
+	/** The configured phase slot of the reader's reads, -1 if given by the tag name's hash. */
+	private volatile int phaseSlot = -1;
+	/** Whether reads are at wall-clock multiples of the read interval. */
+	private volatile boolean alignToClock = false;
+	/** Held while a read is in progress, used by stop() to wait for an in-progress read. */
+	private final ReentrantLock runLock = new ReentrantLock();
 	String readThreadName;
 	long readThreadId;
 	private volatile boolean readThreadRunning;
 	private volatile boolean tagRead;
 	private volatile boolean done;
+	/** Whether awaitStop() has been called, only the first call waits. */
+	private final AtomicBoolean stopAwaited = new AtomicBoolean(false);
+	/** Whether periodic reading of the tag is enabled, changed by setEnabled(). */
+	private volatile boolean enabled;
+	
+	// state of the periodic read, only accessed holding runLock
+	private IPlcioCall plcioCall;
+	private int runsChNotConnected;
+	/** The System.nanoTime() deadline of the next read. */
+	private long nextRunNs;
+	/** The interval until the next read, varies between minIntervalNs and maxIntervalNs. */
+	private long currentIntervalNs;
+	/** The tag's member values following the previous read, used to detect changes. */
+	private String[] lastMemberValues;
+	/** The wall-clock time in ms of the next read of a clock-aligned reader. */
+	private long nextSampleMs;
+	/** The next scheduled read, cancelled by stop(). */
+	private volatile ScheduledFuture<?> nextRun;
+	/** The read group running this reader's reads, null if the reader schedules its own reads. */
+	private volatile PlcTagReadGroup group;
+	/** The factory creating a thread for each read, null if reads are run by the
+	 * scheduler's threads. */
+	private PlcioThreadFactory runThreadFactory;
+	/** Whether an immediate read requested by readNow() of a read group member is waiting to run. */
+	private final AtomicBoolean readNowQueued = new AtomicBoolean(false);
+	/** Run by a read group member or clock-aligned reader to read immediately outside
+	 * of its periodic reads. */
+	private final Runnable readNowTask = new Runnable() {
+		@Override
+		public void run() {
+			readNowQueued.set(false);
+			runRead(0, null, true);
+		}
+	};
+	/** Scheduled in place of this reader when each read is run by a new thread. */
+	private final Runnable runDispatcher = new Runnable() {
+		@Override
+		public void run() {
+			runThreadFactory.startDaemon(PlcTagReader.this, readThreadName);
+		}
+	};
 	
 	/**
 	 * Construct a PlcTagReader.
 	 * 
 	 * @param ch The open channel to the PLC to be used to read the PLC tag.
-	 * @param tag The PLC tag to be read on each run of the thread.
-	 * @param interval The read interval in seconds at which the thread should run.
+	 * @param tag The PLC tag to be read on each run of the reader.
+	 * @param interval The read interval in seconds at which the reader should run.
 	 * @param logCatSuffix The suffix to be added to the PlcTagReader's log category prefix to
 	 * create the log category string used in all log messages.
 	 * @param plcioErrorIHandler The interrupt handler to be called if a PLCIO error occurs
-	 * when reading the tag.
+	 * when reading the tag, including a PLCIO timeout which the reader continues from.
 	 * @param readTagIHandler The interrupt handler to be called following read of the tag - null
 	 * if no interrupt is to be called.
 	 */
 	protected PlcTagReader(ABPlcioChannel ch, PlcTag tag, double interval, String logCatSuffix,
-			IInterruptHandler<ABPlcioExceptionPLCIO> plcioErrorIHandler,
+			IInterruptHandler<IPlcioCallStatus> plcioErrorIHandler,
 			IInterruptHandler<Boolean> readTagIHandler) {
 		readCh = ch;
 		readTag = tag;
 		readTagName = readTag.getName();
 		// convert interval in seconds to milliseconds
-		readIntervalMs = (long) (1000 * interval);
+		readIntervalMs = Math.max(MIN_READ_INTERVAL_MS, (long) (1000 * interval));
+		readIntervalNs = TimeUnit.MILLISECONDS.toNanos(readIntervalMs);
+		minIntervalNs = readIntervalNs;
+		maxIntervalNs = readIntervalNs;
 		logCat =  LOG_CAT_PREFIX + logCatSuffix;
 		plcioErrorIH = plcioErrorIHandler;
 		readTagIH = readTagIHandler;
+		propertyEnabled = IPlcTag.PROPERTY_TAG + ":" + readTagName + ":"+ PostingTAB.ENABLED;
+		stats = new PlcTagReaderStats(readTagName);
 		readThreadRunning = false;
 		readThreadName = null;
 		readThreadId = 0;
@@ -65,179 +176,693 @@ public class PlcTagReader implements Runnable {
 		done = false;
 	} // end Constructor
 	
+	/**
+	 * Set the reader to adapt its read interval to the rate at which the tag's values
+	 * change, must be called before the reader is started.
+	 * <p>
+	 * Following a read in which any of the tag's values changed the next read is after
+	 * the minimum interval. Following each read in which no value changed the interval
+	 * is doubled, up to the maximum interval. Tags whose values rarely change are therefore
+	 * read at the maximum interval while a change returns the tag to being read at the
+	 * minimum interval. Readers that are members of a {@linkplain PlcTagReadGroup} are read
+	 * at the group's fixed interval and do not adapt their interval.
+	 * 
+	 * @param minInterval The minimum read interval in seconds.
+	 * @param maxInterval The maximum read interval in seconds, if not greater than
+	 * minInterval the read interval is fixed at minInterval.
+	 */
+	public void setAdaptiveInterval(double minInterval, double maxInterval) {
+		runLock.lock();
+		try {
+			minIntervalNs = TimeUnit.MILLISECONDS.toNanos(Math.max(MIN_READ_INTERVAL_MS, (long) (1000 * minInterval)));
+			maxIntervalNs = Math.max(minIntervalNs,
+					TimeUnit.MILLISECONDS.toNanos((long) (1000 * maxInterval)));
+		} finally {
+			runLock.unlock();
+		}
+	} // end setAdaptiveInterval()
+	
+	/**
+	 * Whether the reader adapts its read interval to the rate at which the tag's
+	 * values change.
+	 * 
+	 * @return true if the read interval is adaptive.
+	 */
+	public boolean isAdaptiveInterval() {
+		return (maxIntervalNs > minIntervalNs) && (group == null) && !alignToClock;
+	} // end isAdaptiveInterval()
+	
+	/**
+	 * Set the reader to read the tag at wall-clock multiples of its read interval, must be
+	 * called before the reader is started. For example with an interval of 0.1s reads are
+	 * at .000, .100, .200 seconds, or at the reader's phase slot within the interval if one
+	 * is set.
+	 * <p>
+	 * Each read is given the wall-clock time at which it was intended as its sample time,
+	 * see {@linkplain IPlcTag#setSampleTime(long, String)}. If a read overruns one or more
+	 * following sample slots no read is made for those slots, they are counted as skipped
+	 * in the reader's {@linkplain PlcTagReaderStats}. A clock-aligned reader does not adapt
+	 * its interval and its overrun policy is not used.
+	 * 
+	 * @param align true to read at clock-aligned times.
+	 */
+	public void setAlignToClock(boolean align) {
+		alignToClock = align;
+	} // end setAlignToClock()
+	
+	/**
+	 * Set the action taken when a read overruns the reader's next deadline, by default
+	 * {@linkplain OverrunPolicy#SKIP}. Readers that are members of a {@linkplain PlcTagReadGroup}
+	 * follow the group's schedule, which always skips missed deadlines.
+	 * 
+	 * @param policy The overrun policy, if null {@linkplain OverrunPolicy#SKIP} is used.
+	 */
+	public void setOverrunPolicy(OverrunPolicy policy) {
+		overrunPolicy = (policy == null) ? OverrunPolicy.SKIP : policy;
+	} // end setOverrunPolicy()
+	
+	/**
+	 * Set the slot within the read interval at which the tag is read, must be called before
+	 * the reader is started. By default the phase is given by the hash of the tag name.
+	 * 
+	 * @param slot The phase slot, from 0 to {@linkplain PlcTagReadScheduler#PHASE_SLOTS}-1,
+	 * or negative to use the tag name's hash.
+	 * 
+	 * @see PlcTagReadScheduler#getPhaseOffsetNs(String, long, int)
+	 */
+	public void setPhaseSlot(int slot) {
+		phaseSlot = (slot < 0) ? -1 : slot;
+	} // end setPhaseSlot()
+	
+	/**
+	 * Get the reader's scheduling statistics. Statistics are only recorded by readers
+	 * scheduling their own reads, not by members of a {@linkplain PlcTagReadGroup}.
+	 * 
+	 * @return The reader's statistics.
+	 */
+	public PlcTagReaderStats getStats() {
+		return stats;
+	} // end getStats()
+	
+	/**
+	 * Start the periodic reading of the tag.
+	 * <p>
+	 * Reads are run by the {@linkplain PlcTagReadScheduler} at fixed intervals. The reads
+	 * are at a fixed phase within the interval, given by the reader's phase slot or the
+	 * tag name, so the first read is run within one interval of the reader starting.
+	 * While a read is running the thread running it is given the name <code>threadName</code>.
+	 * 
+	 * @param threadName The name used to identify the reader's thread.
+	 */
+	public void start(String threadName) {
+		start(threadName, null);
+	} // end start()
+	
+	/**
+	 * Start the periodic reading of the tag, as {@linkplain #start(String)}.
+	 * <p>
+	 * If the given thread factory creates virtual threads each read is run by a new virtual
+	 * thread started by the {@linkplain PlcTagReadScheduler}, so that a read blocked in PLCIO
+	 * does not occupy one of the scheduler's threads.
+	 * 
+	 * @param threadName The name used to identify the reader's thread.
+	 * @param threadFactory The factory of the connection starting the reader, may be null.
+	 */
+	public void start(String threadName, PlcioThreadFactory threadFactory) {
+		start(threadName, threadFactory, null, null);
+	} // end start()
+	
+	/**
+	 * Start the periodic reading of the tag as a member of the {@linkplain PlcTagReadGroup}
+	 * reading all tags of the same connection with the same read interval as this reader.
+	 * The reads of this reader's tag are then run by the group's read cycles.
+	 * 
+	 * @param threadName The name used to identify the reader's thread.
+	 * @param threadFactory The factory of the connection starting the reader, may be null.
+	 * @param address The PLC address of the connection starting the reader.
+	 * @param groups The running read groups of the connection starting the reader.
+	 */
+	public void startInGroup(String threadName, PlcioThreadFactory threadFactory, String address,
+			Map<String,PlcTagReadGroup> groups) {
+		start(threadName, threadFactory, address, groups);
+	} // end startInGroup()
+	
+	/**
+	 * Start the periodic reading of the tag, reading either as a member of a read group
+	 * if groupAddress is given or by scheduling this reader's own reads.
+	 */
+	private void start(String threadName, PlcioThreadFactory threadFactory, String groupAddress,
+			Map<String,PlcTagReadGroup> groups) {
+		runLock.lock();
+		try {
+			if (readThreadRunning || done) {
+				Log.warn(logCat, "PlcTagReader (name=" + readThreadName + ") for tag '" + readTagName +
+						"' already started - not starting again");
+				return;
+			}
+			readThreadName = threadName;
+			if ((threadFactory != null) && (threadFactory.getMode() == PlcioThreadFactory.ThreadMode.VIRTUAL)) {
+				runThreadFactory = threadFactory;
+			}
+			else {
+				runThreadFactory = null;
+			}
+			
+			// get the property that defines whether the periodic reading of the tag is
+			// initially enabled, changes are then passed to the reader by setEnabled()
+			enabled = true;
+			if (Cache.lookup(propertyEnabled) != null) {
+				enabled = Cache.lookup(propertyEnabled).getBoolean();
+			}
+			
+			if (Log.getDebugLevel(logCat) >= 2) {
+				Log.debug(logCat, 2, "PlcTagReader (name=" + readThreadName + ") started, tag '" +
+						readTagName + "', channel '" + readCh.getTagName() + "' (ch# " + readCh.getPlcioConnectionNumber() +
+						"), enabled = " + enabled + ", interval = " + (readIntervalMs / 1000) + "s (" + readIntervalMs +
+						"ms), given InterruptHandler = " + ((readTagIH == null) ? "no" : "YES"));
+				Log.debug(logCat, 4, "PlcTagReader (name=" + readThreadName + ") tag member values on start:\n" +
+						Misc.array2string(readTag.getMemberValues()));
+			}
+			
+			if (!enabled) {
+				Log.warn(logCat, "PlcTagReader (name=" + readThreadName + ") started for tag '" +
+					readTagName + "' but tag's property '." + propertyEnabled + "' is currently set to disable " +
+					"- to enable set property to 'true' using a 'set' command.");
+				if (readTagIH != null) {
+					// signal interrupt handler the tag will NOT be read
+					readTagIH.interrupt(false);
+				}
+			}
+			
+			// create the PLCIO call object that describes the PLCIO call used to read the tag from
+			// the PLC - passed to ABPlcioChannel on each run to read the tag
+			plcioCall = new PlcioCall(PlcioMethodName.PLC_READ, readCh.getPlcioConnectionNumber(), readTag);
+			runsChNotConnected = 0;
+			currentIntervalNs = minIntervalNs;
+			lastMemberValues = readTag.getMemberValues();
+			if (alignToClock) {
+				// the interval of a clock-aligned reader is fixed
+				minIntervalNs = maxIntervalNs = readIntervalNs;
+				Log.debug(logCat, 2, "PlcTagReader (name=" + readThreadName + ") reading at clock-aligned " +
+						readIntervalMs + "ms sample slots" +
+						((groupAddress == null) ? "" : " - ignored as reader is a read group member"));
+			}
+			if ((maxIntervalNs > minIntervalNs) && Log.getDebugLevel(logCat) >= 2) {
+				Log.debug(logCat, 2, "PlcTagReader (name=" + readThreadName + ") adaptive interval, min = " +
+						TimeUnit.NANOSECONDS.toMillis(minIntervalNs) + "ms, max = " +
+						TimeUnit.NANOSECONDS.toMillis(maxIntervalNs) + "ms" +
+						((groupAddress == null) ? "" : " - ignored as reader is a read group member"));
+			}
+			
+			// signal that reader is now running and schedule first read, a
+			// disabled reader is not scheduled until it is enabled
+			readThreadRunning = true;
+			if ((groupAddress == null) && enabled) {
+				schedulePhasedRun();
+			}
+		} finally {
+			runLock.unlock();
+		}
+		// joined outside of runLock as the group's cycles take runLock
+		// while holding the group's lock
+		if (groupAddress != null) {
+			group = PlcTagReadGroup.join(groups, groupAddress, readIntervalMs, this, threadFactory);
+		}
+	} // end start()
+	
+	/**
+	 * Read the tag once and schedule the next read. Called by the
+	 * {@linkplain PlcTagReadScheduler} at each of the reader's deadlines.
+	 */
 	@Override
 	public void run() {
-		// signal that readThread is now running
-		readThreadRunning = true;
-
-		long startTime = 0;
-		long delay = 0;
-		readThread = Thread.currentThread();
-		readThreadName = readThread.getName();
-		readThreadId = readThread.getId();
-
-		// setup for getting property that defines whether the periodic reading of
-		// the tag is currently enabled
-		String propertyEnabled = IPlcTag.PROPERTY_TAG + ":" + readTagName + ":"+ PostingTAB.ENABLED;
-		boolean enabled = true;
-		boolean enabledAlways = true;
-		if (Cache.lookup(propertyEnabled) != null) {
-			enabledAlways = false;
-			enabled = Cache.lookup(propertyEnabled).getBoolean();
+		runRead(0, null, false);
+	} // end method run()
+	
+	/**
+	 * Request an immediate read of the tag, outside of the reader's periodic reads.
+	 * <p>
+	 * If a read is already in progress the request is satisfied by that read and no
+	 * further read is made, likewise requests made before a requested read has started
+	 * result in a single read. Otherwise the read is run as soon as a thread of the
+	 * {@linkplain PlcTagReadScheduler} is available and the following periodic reads are
+	 * at fixed intervals from it. Members of a {@linkplain PlcTagReadGroup} and clock-aligned
+	 * readers keep their periodic reads unchanged.
+	 * 
+	 * @return true if an immediate read was scheduled, false if the request was satisfied
+	 * by a read already in progress or requested, or the reader is not running.
+	 */
+	public boolean readNow() {
+		if (done || !readThreadRunning || !enabled) {
+			return false;
 		}
-		
-		if (Log.getDebugLevel(logCat) >= 2) {
-			Log.debug(logCat, 2, "PlcTagReader thread (name=" + readThreadName + ", id=" + readThreadId + ") started, tag '" +
-					readTagName + "', channel '" + readCh.getTagName() + "' (ch# " + readCh.getPlcioConnectionNumber() +
-					"), enabled = " + enabled + ", interval = " + (readIntervalMs / 1000) + "s (" + readIntervalMs +
-					"ms), given InterruptHandler = " + ((readTagIH == null) ? "no" : "YES"));
-			Log.debug(logCat, 4, "PlcTagReader thread (name=" + readThreadName + ", id=" + readThreadId + ") tag member values on start:\n" +
-					Misc.array2string(readTag.getMemberValues()));
+		if ((group != null) || alignToClock) {
+			// read without changing the group's or the clock-aligned schedule
+			if (runLock.isLocked() || !readNowQueued.compareAndSet(false, true)) {
+				return false;
+			}
+			PlcTagReadScheduler.schedule(readNowTask, 0);
+			return true;
 		}
-		
-		if (!enabled) {
-			Log.warn(logCat, "PlcTagReader thread (name=" + readThreadName + ", id=" + readThreadId + ") started for tag '" +
-				readTagName + "' but tag's property '." + propertyEnabled + "' is currently set to disable " +
-				"- to enable set property to 'true' using a 'set' command.");
+		// if the lock can't be taken a read is in progress
+		if (!runLock.tryLock()) {
+			return false;
 		}
+		try {
+			if (done || !readThreadRunning) {
+				return false;
+			}
+			long nowNs = System.nanoTime();
+			if (nextRunNs - nowNs <= 0) {
+				// a periodic read is already due to run
+				return false;
+			}
+			ScheduledFuture<?> run = nextRun;
+			if (run != null) {
+				run.cancel(false);
+			}
+			// reset the interval phase to start from the immediate read
+			nextRunNs = nowNs;
+			nextRun = scheduleRun(0);
+			if (Log.getDebugLevel(logCat) >= 3) {
+				Log.debug(logCat, 3, "PlcTagReader (" + readThreadName + ") immediate read of tag '" + readTagName +
+						"' requested");
+			}
+			return true;
+		} finally {
+			runLock.unlock();
+		}
+	} // end readNow()
+	
+	/**
+	 * Read the tag once in a cycle of the reader's {@linkplain PlcTagReadGroup}, recording
+	 * the read's lateness from the cycle's deadline in the reader's statistics.
+	 * 
+	 * @param sampleTimeMs The sample time given to the tag's values if read.
+	 * @param sampleTimeString The sample time as a String, null if the time of
+	 * the read is to be used.
+	 * @param cycleDeadlineNs The System.nanoTime() deadline of the group's cycle.
+	 * 
+	 * @return false if the reader has stopped reading.
+	 */
+	boolean runRead(long sampleTimeMs, String sampleTimeString, long cycleDeadlineNs) {
+		if (enabled && !done) {
+			stats.recordRead(System.nanoTime() - cycleDeadlineNs);
+		}
+		return runRead(sampleTimeMs, sampleTimeString, false);
+	} // end runRead()
+	
+	/**
+	 * Record the end of a cycle of the reader's {@linkplain PlcTagReadGroup} in the
+	 * reader's statistics, publishing them if due.
+	 * 
+	 * @param overran true if the group's cycle overran its next deadline.
+	 */
+	void recordCycleEnd(boolean overran) {
+		if (enabled && !done) {
+			stats.recordOverrun(overran);
+		}
+		stats.publishIfDue();
+	} // end recordCycleEnd()
+	
+	/**
+	 * Read the tag once, scheduling the next read if the read is one of the periodic
+	 * reads of a reader scheduling its own reads.
+	 * 
+	 * @param outOfBand true if the read is an immediate read outside of the reader's
+	 * periodic reads.
+	 */
+	private boolean runRead(long sampleTimeMs, String sampleTimeString, boolean outOfBand) {
+		Thread thread = Thread.currentThread();
+		String schedulerThreadName = thread.getName();
 		
-		// create the PLCIO call object that describes the PLCIO call used to read the tag from
-		// the PLC - passed to ABPlcioChannel on each iteration of the while loop to read the tag
-		IPlcioCall plcioCall = new PlcioCall(PlcioMethodName.PLC_READ, readCh.getPlcioConnectionNumber(), readTag);
-		long split01Time = 0;
-		long tagReadTime = 0;
-		int runsChNotConnected = 0;
-		while (!done) {
-			startTime = System.currentTimeMillis();
-
-			// if this tag has an :enabled property check whether value has changed
-			if (!enabledAlways) {
-				if (Cache.lookup(propertyEnabled).getBoolean() != enabled) {
-					enabled = Cache.lookup(propertyEnabled).getBoolean();
-					String actionStr;
-					if (enabled) {
-						actionStr = "enabled";
-					}
-					else {
-						actionStr = "disabled";
-					}
-					Log.note(logCat, "Reading of tag '" + readTagName + "' by PlcTagReader thread (id=" + readThread.getId() +
-							") now " + actionStr +" using channel '" + readCh.getTagName() + "' (ch# " +
-							readCh.getPlcioConnectionNumber() +	") interval = " +
-							(readIntervalMs / 1000) + "s (" + readIntervalMs + "ms)");
+		runLock.lock();
+		try {
+			if (done || !readThreadRunning) {
+				return false;
+			}
+			boolean periodic = (group == null) && !outOfBand;
+			if (periodic && (nextRunNs - System.nanoTime() > TimeUnit.MILLISECONDS.toNanos(1))) {
+				// a run whose scheduled read was cancelled by readNow() after it had
+				// started, the read has already been made and the next run scheduled
+				return true;
+			}
+			thread.setName(readThreadName);
+			readThreadId = thread.getId();
+			if (periodic) {
+				stats.recordRead(System.nanoTime() - nextRunNs);
+				if (alignToClock) {
+					sampleTimeMs = nextSampleMs;
+					sampleTimeString = new AtstDate(nextSampleMs).toString();
 				}
 			}
-			split01Time = System.currentTimeMillis();
-			tagReadTime = 0;
 			
-			// only read the tag if we are enabled
+			if (!readOnce(sampleTimeMs, sampleTimeString)) {
+				// signal that reader is no longer running
+				readThreadRunning = false;
+				return false;
+			}
+			if (periodic) {
+				if (alignToClock) {
+					scheduleNextAlignedRun();
+				}
+				else {
+					scheduleNextRun();
+				}
+			}
+			return true;
+		} finally {
+			thread.setName(schedulerThreadName);
+			runLock.unlock();
+		}
+	} // end runRead()
+	
+	/**
+	 * Get the name of the tag read by this reader.
+	 * 
+	 * @return The tag name.
+	 */
+	public String getTagName() {
+		return readTagName;
+	} // end getTagName()
+	
+	/**
+	 * Enable or disable the periodic reading of the tag. Called when the tag's
+	 * <code>:enabled</code> property is changed.
+	 * <p>
+	 * A disabled reader is parked, no reads of the tag are scheduled until the reader is
+	 * enabled. The first read following enabling is at the reader's next phase deadline, for
+	 * a clock-aligned reader its next sample slot, so that enabling does not move the reader's
+	 * reads away from their phase. It is then read at its read interval. On being disabled
+	 * the reader's interrupt handler, if given, is called once to signal that the tag is not read.
+	 * Members of a {@linkplain PlcTagReadGroup} remain in the group but their tag is not read
+	 * in the group's cycles while disabled.
+	 * <p>
+	 * The change waits for any read in progress, but only for a limited period so that
+	 * the caller is not held up by a PLCIO call that has not returned. If the read does
+	 * not complete in that period the change is not made.
+	 * 
+	 * @param newEnabled true to enable reading, false to disable.
+	 * 
+	 * @return false if the change could not be made as a read in progress did not complete.
+	 */
+	public boolean setEnabled(boolean newEnabled) {
+		boolean locked = false;
+		try {
+			locked = runLock.tryLock(SET_ENABLED_WAIT_MS, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (!locked) {
+			Log.warn(logCat, "PlcTagReader (name=" + readThreadName + ") unable to " +
+					(newEnabled ? "enable" : "disable") + " reading of tag '" + readTagName + "' as read in " +
+					"progress has not completed (waited " + SET_ENABLED_WAIT_MS + "ms), this may be due to " +
+					"a PLCIO call that has not returned.");
+			return false;
+		}
+		try {
+			if (newEnabled == enabled) {
+				return true;
+			}
+			enabled = newEnabled;
+			Log.note(logCat, "Reading of tag '" + readTagName + "' by PlcTagReader (name=" + readThreadName +
+					") now " + (enabled ? "enabled" : "disabled") + " using channel '" + readCh.getTagName() +
+					"' (ch# " + readCh.getPlcioConnectionNumber() + ") interval = " +
+					(readIntervalMs / 1000) + "s (" + readIntervalMs + "ms)");
+			if (done || !readThreadRunning) {
+				return true;
+			}
 			if (enabled) {
-				if (readCh.isConnected()) {
-					runsChNotConnected = 0;
-					try {
-						readCh.plcioCall(plcioCall);
-						tagRead = true;
-						tagReadTime = System.currentTimeMillis() - split01Time;
-						if (readTagIH != null) {
-							// signal interrupt handler we've read the tag
-							readTagIH.interrupt(true);
-						}
-					}
-			        catch (ABPlcioExceptionPLCIO ex) {
-						tagRead = false;
-						if (readTagIH != null) {
-							readTagIH.interrupt(false);
-						}
-						
-						// is this a PLCIO timeout?
-						if (ex.getPlcioErrorCode() == PlcioErrorCode.TIMEOUT) {
-						    Alarm.raise("GISS-ALARM", "PlcTagReader received PLCIO timeout when reading tag "+readTagName+
-                                        " using channel "+readCh+" (timeout="+readTag.getPlcioTimeoutMs()+
-                                        "ms). Continuing...");
-						}
-						else {
-    			        	// a PLCIO error has occurred - inform connection by calling interrupt handler
-    						// and passing it the exception thrown by readCh.plcioCall(plcioCall)
-    						if (Log.getDebugLevel(logCat) >= 2) {
-    							Log.debug(logCat, 2, "PlcTagReader: PLCIO error when reading tag "+readTagName+
-    									" using channel "+readCh+", calling connection's PlcioErrorInterruptHandler "+
-    									" with exception returned");
-    						}
-    						plcioErrorIH.interrupt(ex);
-						}
-			        }
-					catch (ConnectionException ex) {
-						tagRead = false;
-						if (readTagIH != null) {
-							readTagIH.interrupt(false);
-						}
-						Log.warn(logCat, "PlcTagReader: Unable to read tag "+readTagName+
-								" using channel "+readCh+". Exception: "+ex.getMessage());
+				if (group == null) {
+					schedulePhasedRun();
+				}
+			}
+			else {
+				ScheduledFuture<?> run = nextRun;
+				if (run != null) {
+					run.cancel(false);
+				}
+				nextRun = null;
+				tagRead = false;
+				if (readTagIH != null) {
+					// signal interrupt handler the tag will NOT be read
+					readTagIH.interrupt(false);
+				}
+			}
+			return true;
+		} finally {
+			runLock.unlock();
+		}
+	} // end setEnabled()
+	
+	/**
+	 * Whether periodic reading of the tag is enabled.
+	 * 
+	 * @return true if reading is enabled.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	} // end isEnabled()
+	
+	/**
+	 * Read the tag if reading is enabled.
+	 * 
+	 * @return false if the reader should not run again.
+	 */
+	private boolean readOnce(long sampleTimeMs, String sampleTimeString) {
+		long startTime = System.currentTimeMillis();
+		long split01Time = System.currentTimeMillis();
+		long tagReadTime = 0;
+		
+		// only read the tag if we are enabled
+		if (enabled) {
+			if (readCh.isConnected()) {
+				runsChNotConnected = 0;
+				if (sampleTimeString != null) {
+					readTag.setSampleTime(sampleTimeMs, sampleTimeString);
+				}
+				// the status of the call is tested rather than an exception caught
+				// as PLCIO errors, e.g. timeouts reading from a busy PLC, are expected
+				PlcioCallStatus status = readCh.plcioCallStatus(plcioCall);
+				if (status.isOk()) {
+					tagRead = true;
+					tagReadTime = System.currentTimeMillis() - split01Time;
+					if (readTagIH != null) {
+						// signal interrupt handler we've read the tag
+						readTagIH.interrupt(true);
 					}
 				}
 				else {
-					// can't read the tag as its channel is not currently connected
-					runsChNotConnected++;
 					tagRead = false;
+					if (sampleTimeString != null) {
+						// the values were not updated so the sample time must not be
+						// used by the next, unrelated, update of the tag's values
+						readTag.setSampleTime(0, null);
+					}
 					if (readTagIH != null) {
-						// signal interrupt handler we've NOT read the tag
 						readTagIH.interrupt(false);
 					}
-					Log.warn(logCat, "PlcTagReader (" + readThread.getId() + ") unable to read tag "+readTagName+
-							" using channel "+readCh+". This is thread run #"+runsChNotConnected+
-							" with disconnected channel.");
-					if (runsChNotConnected >= MAX_RUNS_CH_NOT_CONNECTED) {
-						Log.warn(logCat, "PlcTagReader (" + readThread.getId() + ") max number of runs ("+
-								MAX_RUNS_CH_NOT_CONNECTED+") with disconnected channel surpassed - thread is exiting.");
-						// signal that readThread is no longer running
-						readThreadRunning = false;
-						return;
+					
+					if (status.getOutcome() != IPlcioCallStatus.Outcome.PLCIO_ERROR) {
+						Log.warn(logCat, "PlcTagReader: Unable to read tag "+readTagName+
+								" using channel "+readCh+". Status: "+status);
 					}
-				}
+					// is this a PLCIO timeout?
+					else if (status.isPlcioError(PlcioErrorCode.TIMEOUT)) {
+					    Alarm.raise("GISS-ALARM", "PlcTagReader received PLCIO timeout when reading tag "+readTagName+
+                                " using channel "+readCh+" (timeout="+readTag.getPlcioTimeoutMs()+
+                                "ms). Continuing...");
+						// the connection counts timeouts as failures of the PLC address
+						// but does not recover the channel
+						plcioErrorIH.interrupt(status);
+					}
+					else {
+    		        	// a PLCIO error has occurred - inform connection by calling interrupt handler
+						// and passing it the status returned by readCh.plcioCallStatus(plcioCall)
+						if (Log.getDebugLevel(logCat) >= 2) {
+							Log.debug(logCat, 2, "PlcTagReader: PLCIO error when reading tag "+readTagName+
+									" using channel "+readCh+", calling connection's PlcioErrorInterruptHandler "+
+									" with status returned");
+						}
+						plcioErrorIH.interrupt(status);
+					}
+		        }
 			}
 			else {
+				// can't read the tag as its channel is not currently connected
+				runsChNotConnected++;
 				tagRead = false;
 				if (readTagIH != null) {
 					// signal interrupt handler we've NOT read the tag
 					readTagIH.interrupt(false);
 				}
+				Log.warn(logCat, "PlcTagReader (" + readThreadName + ") unable to read tag "+readTagName+
+						" using channel "+readCh+". This is run #"+runsChNotConnected+
+						" with disconnected channel.");
+				if (runsChNotConnected >= MAX_RUNS_CH_NOT_CONNECTED) {
+					Log.warn(logCat, "PlcTagReader (" + readThreadName + ") max number of runs ("+
+							MAX_RUNS_CH_NOT_CONNECTED+") with disconnected channel surpassed - reader is exiting.");
+					return false;
+				}
 			}
+		}
+		else {
+			// interrupt handler was signalled when reader was disabled
+			tagRead = false;
+		}
 
-			// calculate the time to delay based upon time taken to complete PLC read
-			// and this thread's interval
-			delay = (readIntervalMs - (System.currentTimeMillis() - startTime));
-			if (delay < 20) {
-				delay = 20;
-				if (Log.getDebugLevel(logCat) < 4) {
-					Log.debug(logCat, 1, "PlcTagReader thread (" + readThreadName + ", id=" + readThreadId + ") for tag '" +
-							readTagName + "' thread execution time = " + (System.currentTimeMillis() - startTime) +
-							"ms forcing delay of " + delay + "ms (requested readIntervalMs=" + readIntervalMs + ")" +
-							", tagReadTime=" + tagReadTime + " PlcioCall waitTime=" + readCh.getWaitTime() +
-							" PlcioCall opTime=" + readCh.getOpTime());
+        if (Log.getDebugLevel(logCat) >= 4) {
+            Log.debug(logCat, 4, "PlcTagReader (" + readThreadName + ", id=" + readThreadId + ") tag '" +
+                    readTagName + "' channel '" + readCh.getTagName() + "' (#" + readCh.getPlcioConnectionNumber() +
+                    ") tag read="+String.valueOf(tagRead) + " (execution time = " +
+                    (System.currentTimeMillis() - startTime) + "ms (requested readIntervalMs=" + readIntervalMs + ")" +
+                    ", tagReadTime=" + tagReadTime + " PlcioCall waitTime=" + readCh.getWaitTime() +
+                    " PlcioCall opTime=" + readCh.getOpTime() + ")");
+        }
+		return true;
+	} // end readOnce()
+	
+	/**
+	 * Update the interval until the next read of an adaptive reader, returning to the
+	 * minimum interval if any of the tag's values changed in the last read, otherwise
+	 * doubling the interval up to the maximum interval.
+	 */
+	private void updateInterval() {
+		String[] memberValues = readTag.getMemberValues();
+		if (memberValues == lastMemberValues) {
+			// tag not read, leave interval unchanged
+			return;
+		}
+		long lastIntervalNs = currentIntervalNs;
+		if (!Arrays.equals(memberValues, lastMemberValues)) {
+			currentIntervalNs = minIntervalNs;
+		}
+		else {
+			currentIntervalNs = Math.min(maxIntervalNs, 2 * currentIntervalNs);
+		}
+		lastMemberValues = memberValues;
+		if ((currentIntervalNs != lastIntervalNs) && Log.getDebugLevel(logCat) >= 3) {
+			Log.debug(logCat, 3, "PlcTagReader (" + readThreadName + ") tag '" + readTagName +
+					"' read interval now " + TimeUnit.NANOSECONDS.toMillis(currentIntervalNs) + "ms");
+		}
+	} // end updateInterval()
+	
+	/**
+	 * Schedule the next read at the reader's next deadline. Deadlines are fixed
+	 * multiples of the read interval from the first read so that the time taken by
+	 * each read does not cause the read rate to drift. If a read overran one or more
+	 * deadlines they are handled according to the reader's {@linkplain OverrunPolicy},
+	 * by default they are skipped rather than run back to back. An adaptive reader's
+	 * deadlines are multiples of its current interval from its previous deadline.
+	 */
+	private void scheduleNextRun() {
+		long intervalNs = readIntervalNs;
+		if (maxIntervalNs > minIntervalNs) {
+			updateInterval();
+			intervalNs = currentIntervalNs;
+		}
+		long lastRunNs = nextRunNs;
+		nextRunNs += intervalNs;
+		long nowNs = System.nanoTime();
+		boolean overran = (nextRunNs - nowNs <= 0);
+		stats.recordOverrun(overran);
+		if (overran) {
+			long missedTotal = ((nowNs - nextRunNs) / intervalNs) + 1;
+			String actionStr;
+			switch (overrunPolicy) {
+			case CATCH_UP:
+				// leave deadline unchanged, the missed reads are run immediately
+				if (missedTotal > MAX_CATCH_UP_READS) {
+					nextRunNs += (missedTotal - MAX_CATCH_UP_READS) * intervalNs;
+					actionStr = "skipping " + (missedTotal - MAX_CATCH_UP_READS) + " read(s) and catching up " +
+							MAX_CATCH_UP_READS + " read(s)";
+				}
+				else {
+					actionStr = "catching up " + missedTotal + " read(s)";
 				}
+				break;
+			case COALESCE:
+				// run a single read immediately, following deadlines are from now
+				nextRunNs = nowNs;
+				actionStr = "coalescing " + missedTotal + " read(s)";
+				break;
+			default:
+				nextRunNs += missedTotal * intervalNs;
+				actionStr = "skipping " + missedTotal + " read(s)";
+				break;
+			}
+			if (Log.getDebugLevel(logCat) < 4) {
+				Log.debug(logCat, 1, "PlcTagReader (" + readThreadName + ", id=" + readThreadId + ") for tag '" +
+						readTagName + "' execution time = " + TimeUnit.NANOSECONDS.toMillis(nowNs - lastRunNs) +
+						"ms " + actionStr + " (requested readIntervalMs=" + readIntervalMs + ")" +
+						" PlcioCall waitTime=" + readCh.getWaitTime() + " PlcioCall opTime=" + readCh.getOpTime());
 			}
-			Misc.pause(delay);
-
-            if (Log.getDebugLevel(logCat) >= 4) {
-                Log.debug(logCat, 4, "PlcTagReader thread (" + readThreadName + ", id=" + readThreadId + ") tag '" +
-                        readTagName + "' channel '" + readCh.getTagName() + "' (#" + readCh.getPlcioConnectionNumber() +
-                        ") tag read="+String.valueOf(tagRead) + " (thread execution time = " +
-                        (System.currentTimeMillis() - startTime) + "ms calculated delay = " + delay +
-                        "ms (requested readIntervalMs=" + readIntervalMs + ")" + ", tagReadTime=" + tagReadTime +
-                        " PlcioCall waitTime=" + readCh.getWaitTime() + " PlcioCall opTime=" + readCh.getOpTime() + ")");
-            }
-		} // end while
-		
-		if (Log.getDebugLevel(logCat) >= 2) {
-			Log.debug(logCat, 2, "PlcTagReader thread (name=" + readThreadName + ", id=" + readThreadId + ") stopped, tag '" +
-					readTagName + "' channel '" + readCh.getTagName() + "' (ch# " + readCh.getPlcioConnectionNumber() + ")");
-			Log.debug(logCat, 4, "PlcTagReader thread (name=" + readThreadName + ", id=" + readThreadId + ") tag member values on stop:\n" +
-					Misc.array2string(readTag.getMemberValues()));
 		}
-		
-		// signal that readThread is no longer running
-		readThreadRunning = false;
-	} // end method run()
+		stats.publishIfDue();
+		if (!done && enabled) {
+			nextRun = scheduleRun(nextRunNs - nowNs);
+		}
+	} // end scheduleNextRun()
+	
+	/**
+	 * Schedule the next read of a clock-aligned reader at its next sample slot,
+	 * skipping any slots overrun by the read just completed.
+	 */
+	private void scheduleNextAlignedRun() {
+		nextSampleMs += readIntervalMs;
+		long nowMs = System.currentTimeMillis();
+		boolean overran = (nextSampleMs <= nowMs);
+		stats.recordOverrun(overran);
+		if (overran) {
+			long skippedTotal = ((nowMs - nextSampleMs) / readIntervalMs) + 1;
+			nextSampleMs += skippedTotal * readIntervalMs;
+			stats.recordSkippedSlots(skippedTotal);
+			if (Log.getDebugLevel(logCat) < 4) {
+				Log.debug(logCat, 1, "PlcTagReader (" + readThreadName + ", id=" + readThreadId + ") for tag '" +
+						readTagName + "' overran clock-aligned sample slot, skipping " + skippedTotal +
+						" slot(s) (requested readIntervalMs=" + readIntervalMs + ")" +
+						" PlcioCall waitTime=" + readCh.getWaitTime() + " PlcioCall opTime=" + readCh.getOpTime());
+			}
+		}
+		stats.publishIfDue();
+		if (!done && enabled) {
+			// deadlines are recalculated from the wall clock on every read so that
+			// reads stay aligned to the clock rather than drifting with System.nanoTime()
+			long delayNs = TimeUnit.MILLISECONDS.toNanos(nextSampleMs - nowMs);
+			nextRunNs = System.nanoTime() + delayNs;
+			nextRun = scheduleRun(delayNs);
+		}
+	} // end scheduleNextAlignedRun()
+	
+	/**
+	 * Schedule the next read at the reader's next phase deadline, for a clock-aligned
+	 * reader its next sample slot.
+	 */
+	private void schedulePhasedRun() {
+		if (alignToClock) {
+			long offsetMs = (phaseSlot < 0) ? 0 : TimeUnit.NANOSECONDS.toMillis(
+					PlcTagReadScheduler.getPhaseOffsetNs(readTagName, readIntervalNs, phaseSlot));
+			long nowMs = System.currentTimeMillis();
+			nextSampleMs = (((nowMs - offsetMs) / readIntervalMs) + 1) * readIntervalMs + offsetMs;
+			long delayNs = TimeUnit.MILLISECONDS.toNanos(nextSampleMs - nowMs);
+			nextRunNs = System.nanoTime() + delayNs;
+			nextRun = scheduleRun(delayNs);
+			return;
+		}
+		nextRunNs = PlcTagReadScheduler.getNextPhaseDeadline(minIntervalNs,
+				PlcTagReadScheduler.getPhaseOffsetNs(readTagName, minIntervalNs, phaseSlot));
+		nextRun = scheduleRun(nextRunNs - System.nanoTime());
+	} // end schedulePhasedRun()
+	
+	/**
+	 * Schedule a run of this reader after the given delay.
+	 */
+	private ScheduledFuture<?> scheduleRun(long delayNs) {
+		if (runThreadFactory == null) {
+			return PlcTagReadScheduler.schedule(this, delayNs);
+		}
+		return PlcTagReadScheduler.schedule(runDispatcher, delayNs);
+	} // end scheduleRun()
 	
 	/**
 	 * Return the CSF log category in use by this PlcTagReader.
@@ -258,36 +883,94 @@ public class PlcTagReader implements Runnable {
 		return tagRead;
 	} // end getTagRead()
 
+	/**
+	 * Stop the periodic reading of the tag. If a read is in progress this method
+	 * waits, for a limited period, for the read to complete.
+	 */
 	public void stop() {
-		if (!done) {
-			done = true;
-			if (readThread != null)
-				readThread.interrupt();
-			// don't exit this method until thread is no longer running
-			// but only wait for limited period
-            int waitTimeTotal = 0;
-            int waitTime = Math.round(readIntervalMs / 2);
-            if (waitTime < 100) waitTime = 100;
-			while (readThreadRunning && (waitTimeTotal < (10 * (waitTime * 2)))) {
-				Misc.pause(waitTime); 
-				waitTimeTotal += waitTime;
-			}
-			readThread = null;
-			
-			if (readThreadRunning) {
-				Log.warn(logCat, "PlcTagReader thread ("+readThreadName+", id="+
-						readThreadId+") has been requested to stop but unable to "+
-						"verify thread is no longer running (waited "+waitTimeTotal+
-						"ms) , this may be due to previous uncaught exception terminating the thread.");
-			}
-			else {
-				Log.debug(logCat, 2, "PlcTagReader thread ("+readThreadName+", id="+
-						readThreadId+") stopped");
+		cancel();
+		awaitStop(System.currentTimeMillis() + getStopWaitMs());
+	} // end stop()
+
+	/**
+	 * Stop the periodic reading of the tag without waiting for a read in progress.
+	 * Scheduled reads are cancelled and a read in progress is not followed by another,
+	 * the reader then leaves any read group at the group's next cycle. Used to stop
+	 * many readers together, each is cancelled and then
+	 * {@linkplain #awaitStop(long)} called for each with the same deadline.
+	 */
+	public void cancel() {
+		done = true;
+		ScheduledFuture<?> run = nextRun;
+		if (run != null) {
+			run.cancel(false);
+		}
+	} // end cancel()
+
+	/**
+	 * Get the longest time {@linkplain #stop()} waits for a read in progress to complete.
+	 * 
+	 * @return The wait in ms.
+	 */
+	public long getStopWaitMs() {
+		return Math.max(2000, 10 * readIntervalMs);
+	} // end getStopWaitMs()
+
+	/**
+	 * Complete the stopping of the reader, cancelling it if not already cancelled, by
+	 * leaving any read group and waiting for a read in progress to complete. Waits
+	 * only until the given time, if the read has not then completed a warning is logged.
+	 * Only the first call waits, later calls return immediately.
+	 * 
+	 * @param waitEndMs The System.currentTimeMillis() after which no longer to wait.
+	 * 
+	 * @return true if the reader is verified as no longer reading.
+	 */
+	public boolean awaitStop(long waitEndMs) {
+		cancel();
+		if (!stopAwaited.compareAndSet(false, true)) {
+			if (Log.getDebugLevel(logCat) >= 2) {
+				Log.debug(logCat, 2, "PlcTagReader already stopped for tag '"+readTagName+"'");
 			}
+			return !readThreadRunning;
 		}
-		else if (Log.getDebugLevel(logCat) >= 2) {
-			Log.debug(logCat, 2, "PlcTagReader thread already stopped for tag '"+readTagName+"'");
+		long waitTimeMs = Math.max(0, waitEndMs - System.currentTimeMillis());
+		// leave any read group before waiting for a read in progress, as the
+		// group's cycle holds the group's lock while reading
+		PlcTagReadGroup readGroup = group;
+		if (readGroup != null) {
+			readGroup.leave(this, waitTimeMs);
 		}
-	} // end stop()
+		boolean stopped = false;
+		try {
+			stopped = runLock.tryLock(Math.max(0, waitEndMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		// a run that completed while waiting was not rescheduled, cancel
+		// any run scheduled before cancel() had been called
+		ScheduledFuture<?> run = nextRun;
+		if (run != null) {
+			run.cancel(false);
+		}
+		nextRun = null;
+		
+		if (!stopped) {
+			Log.warn(logCat, "PlcTagReader ("+readThreadName+", id="+
+					readThreadId+") has been requested to stop but unable to "+
+					"verify read is no longer running (waited "+waitTimeMs+
+					"ms), this may be due to a PLCIO call that has not returned.");
+			return false;
+		}
+		readThreadRunning = false;
+		runLock.unlock();
+		if (Log.getDebugLevel(logCat) >= 2) {
+			Log.debug(logCat, 2, "PlcTagReader (name=" + readThreadName + ", id=" + readThreadId + ") stopped, tag '" +
+					readTagName + "' channel '" + readCh.getTagName() + "' (ch# " + readCh.getPlcioConnectionNumber() + ")");
+			Log.debug(logCat, 4, "PlcTagReader (name=" + readThreadName + ", id=" + readThreadId + ") tag member values on stop:\n" +
+					Misc.array2string(readTag.getMemberValues()));
+		}
+		return true;
+	} // end awaitStop()
 
 } // end class PlcTagReader
@@ -0,0 +1,226 @@
+package atst.giss.abplc;
+
+import java.util.concurrent.TimeUnit;
+
+import atst.cs.data.Attribute;
+import atst.cs.util.Cache;
+
+/**
+ * The class PlcTagReaderStats records the scheduling statistics of a {@linkplain PlcTagReader}:
+ * how late each read started compared to its scheduled time, the distribution of that
+ * lateness (jitter), the number of reads that overran the reader's next deadline and the
+ * longest run of consecutive overruns.
+ * <p>
+ * The statistics are published to the Cache, at most once every {@linkplain #PUBLISH_INTERVAL_MS},
+ * as the String array attribute <code>.tag:&lt;tagName&gt;:readStats</code>. Each element of the
+ * array has the form <code>name=value</code>, the elements being:
+ * <ul>
+ * <li><code>reads</code> &mdash; the total number of reads.
+ * <li><code>rateHz</code> &mdash; the read rate achieved since the statistics were last published.
+ * <li><code>latenessMeanMs</code>, <code>latenessMaxMs</code> &mdash; the mean and maximum time
+ * by which reads started after their scheduled time.
+ * <li><code>latenessHistogram</code> &mdash; the number of reads starting within each of the
+ * lateness bounds of {@linkplain #HISTOGRAM_BOUNDS_MS}, the final count being reads later than
+ * the largest bound.
+ * <li><code>overruns</code> &mdash; the number of reads that overran the reader's next deadline.
+ * <li><code>overrunStreak</code>, <code>overrunStreakMax</code> &mdash; the current and longest
+ * number of consecutive overrunning reads.
+ * <li><code>skippedSlots</code> &mdash; the number of sample slots of a clock-aligned reader
+ * at which no read was made because a read overran them.
+ * </ul>
+ * Methods recording statistics are called by the reader holding its run lock, all methods
+ * are synchronized so that the statistics can be read by other threads.
+ *
+ * @author agent
+ */
+public class PlcTagReaderStats {
+
+	/** The minimum interval between publishing of the statistics to the Cache. */
+	public static final long PUBLISH_INTERVAL_MS = 10000;
+
+	/** The upper bounds in ms of the lateness histogram's buckets. */
+	public static final long[] HISTOGRAM_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100};
+
+	/** The suffix of the tag's Cache attribute holding the statistics. */
+	private static final String PROPERTY_READ_STATS = ":readStats";
+
+	/*
+	 *  Private instance variables
+	 */
+	private final String propertyReadStats;
+	private final long[] histogram = new long[HISTOGRAM_BOUNDS_MS.length + 1];
+	private long readTotal;
+	private long latenessTotalNs;
+	private long latenessMaxNs;
+	private long overrunTotal;
+	private int overrunStreak;
+	private int overrunStreakMax;
+	private long skippedSlotTotal;
+	private long lastPublishMs;
+	private long readTotalAtPublish;
+
+	/**
+	 * Construct the statistics of the reader of the given tag.
+	 *
+	 * @param tagName The name of the tag read.
+	 */
+	public PlcTagReaderStats(String tagName) {
+		propertyReadStats = IPlcTag.PROPERTY_TAG + ":" + tagName + PROPERTY_READ_STATS;
+		lastPublishMs = System.currentTimeMillis();
+	} // end Constructor
+
+	/**
+	 * Record the start of a read.
+	 *
+	 * @param latenessNs The time in ns by which the read started after its scheduled time.
+	 */
+	synchronized void recordRead(long latenessNs) {
+		latenessNs = Math.max(0, latenessNs);
+		readTotal++;
+		latenessTotalNs += latenessNs;
+		if (latenessNs > latenessMaxNs) {
+			latenessMaxNs = latenessNs;
+		}
+		long latenessMs = TimeUnit.NANOSECONDS.toMillis(latenessNs);
+		int bucket = 0;
+		while ((bucket < HISTOGRAM_BOUNDS_MS.length) && (latenessMs >= HISTOGRAM_BOUNDS_MS[bucket])) {
+			bucket++;
+		}
+		histogram[bucket]++;
+	} // end recordRead()
+
+	/**
+	 * Record whether the read just completed overran the reader's next deadline.
+	 *
+	 * @param overran true if the read overran.
+	 */
+	synchronized void recordOverrun(boolean overran) {
+		if (overran) {
+			overrunTotal++;
+			overrunStreak++;
+			if (overrunStreak > overrunStreakMax) {
+				overrunStreakMax = overrunStreak;
+			}
+		}
+		else {
+			overrunStreak = 0;
+		}
+	} // end recordOverrun()
+
+	/**
+	 * Record sample slots of a clock-aligned reader skipped due to an overrunning read.
+	 *
+	 * @param skipped The number of slots skipped.
+	 */
+	synchronized void recordSkippedSlots(long skipped) {
+		skippedSlotTotal += skipped;
+	} // end recordSkippedSlots()
+
+	/**
+	 * Publish the statistics to the Cache if they have not been published
+	 * within the last {@linkplain #PUBLISH_INTERVAL_MS}.
+	 */
+	synchronized void publishIfDue() {
+		long nowMs = System.currentTimeMillis();
+		if ((nowMs - lastPublishMs) < PUBLISH_INTERVAL_MS) {
+			return;
+		}
+		double rateHz = (1000.0 * (readTotal - readTotalAtPublish)) / (nowMs - lastPublishMs);
+		lastPublishMs = nowMs;
+		readTotalAtPublish = readTotal;
+		Cache.store(new Attribute(propertyReadStats, toStringArray(rateHz)));
+	} // end publishIfDue()
+
+	/**
+	 * Get the total number of reads recorded.
+	 *
+	 * @return The number of reads.
+	 */
+	public synchronized long getReadTotal() {
+		return readTotal;
+	} // end getReadTotal()
+
+	/**
+	 * Get the number of reads that overran the reader's next deadline.
+	 *
+	 * @return The number of overruns.
+	 */
+	public synchronized long getOverrunTotal() {
+		return overrunTotal;
+	} // end getOverrunTotal()
+
+	/**
+	 * Get the number of sample slots of a clock-aligned reader skipped due to overrunning reads.
+	 *
+	 * @return The number of skipped slots.
+	 */
+	public synchronized long getSkippedSlotTotal() {
+		return skippedSlotTotal;
+	} // end getSkippedSlotTotal()
+
+	/**
+	 * Get the longest run of consecutive overrunning reads.
+	 *
+	 * @return The longest overrun streak.
+	 */
+	public synchronized int getOverrunStreakMax() {
+		return overrunStreakMax;
+	} // end getOverrunStreakMax()
+
+	/**
+	 * Get the maximum time by which a read started after its scheduled time.
+	 *
+	 * @return The maximum lateness in ms.
+	 */
+	public synchronized double getLatenessMaxMs() {
+		return latenessMaxNs / 1.0e6;
+	} // end getLatenessMaxMs()
+
+	/**
+	 * Get the mean time by which reads started after their scheduled time.
+	 *
+	 * @return The mean lateness in ms, 0 if no reads have been recorded.
+	 */
+	public synchronized double getLatenessMeanMs() {
+		if (readTotal == 0) {
+			return 0.0;
+		}
+		return (latenessTotalNs / (double) readTotal) / 1.0e6;
+	} // end getLatenessMeanMs()
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder sb = new StringBuilder("PlcTagReaderStats {");
+		String[] stats = toStringArray(Double.NaN);
+		for (int i = 0; i < stats.length; i++) {
+			sb.append((i == 0) ? "" : ", ").append(stats[i]);
+		}
+		return sb.append("}").toString();
+	} // end toString()
+
+	/*
+	 *  Private methods
+	 */
+
+	/**
+	 * Get the statistics as an array of name=value Strings.
+	 */
+	private String[] toStringArray(double rateHz) {
+		StringBuilder hist = new StringBuilder();
+		for (int i = 0; i < histogram.length; i++) {
+			hist.append((i == 0) ? "" : ",").append(histogram[i]);
+		}
+		return new String[] {
+				"reads=" + readTotal,
+				"rateHz=" + String.format("%.2f", rateHz),
+				"latenessMeanMs=" + String.format("%.3f", getLatenessMeanMs()),
+				"latenessMaxMs=" + String.format("%.3f", getLatenessMaxMs()),
+				"latenessHistogram=" + hist,
+				"overruns=" + overrunTotal,
+				"overrunStreak=" + overrunStreak,
+				"overrunStreakMax=" + overrunStreakMax,
+				"skippedSlots=" + skippedSlotTotal
+		};
+	} // end toStringArray()
+
+} // end class PlcTagReaderStats
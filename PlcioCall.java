@@ -20,6 +20,7 @@ public class PlcioCall implements IPlcioCall {
 	private long callTime;
 	private long waitTime;
 	private long opTime;
+	private IPlcioCallStatus status;
 
 	public PlcioCall(PlcioMethodName mName, int connectionNumber) {
 		this(mName, null, null, connectionNumber, null);
@@ -46,6 +47,7 @@ public class PlcioCall implements IPlcioCall {
 		callTime = 0;
 		waitTime = 0;
 		opTime = 0;
+		status = PlcioCallStatus.OK;
 	}
 	
 	// documented in IPlcioCall
@@ -126,6 +128,29 @@ public class PlcioCall implements IPlcioCall {
 		opTime = oTime;
 	}
 	
+	// documented in IPlcioCall
+	@Override
+	public IPlcioCallStatus getStatus() {
+		return status;
+	}
+	
+	// documented in IPlcioCall
+	@Override
+	public void setStatus(IPlcioCallStatus.Outcome outcome, int plcioErrorCode, int plcioErrorCategory,
+			String message) {
+		if (outcome == IPlcioCallStatus.Outcome.OK) {
+			// all successful calls share the same status
+			status = PlcioCallStatus.OK;
+		}
+		else {
+			if (outcome == IPlcioCallStatus.Outcome.PLCIO_ERROR) {
+				// count PLCIO errors the GISS does not handle
+				ABPlcioExceptionPLCIO.PlcioErrorCode.received(plcioErrorCode);
+			}
+			status = new PlcioCallStatus(outcome, plcioErrorCode, plcioErrorCategory, message);
+		}
+	}
+	
 	/**
 	 * Return a String describing this PlcioCall object.
 	 * <p>
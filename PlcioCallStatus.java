@@ -0,0 +1,198 @@
+package atst.giss.abplc;
+
+import atst.base.hardware.connections.ConnectionException;
+import atst.giss.abplc.ABPlcioExceptionPLCIO.PlcioErrorCategory;
+import atst.giss.abplc.ABPlcioExceptionPLCIO.PlcioErrorCode;
+
+/**
+ * Class describing the outcome of a PLCIO function call, see {@linkplain IPlcioCallStatus}.
+ * <p>
+ * A status is immutable, all successful calls share the status {@linkplain #OK}.
+ * An exception describing a failure is only created when
+ * {@linkplain #toException(String)} is called.
+ *
+ * @author agent
+ *
+ */
+public class PlcioCallStatus implements IPlcioCallStatus {
+
+	/** The status of all successful calls. */
+	public static final PlcioCallStatus OK = new PlcioCallStatus(Outcome.OK, -1, null);
+
+	private final Outcome outcome;
+	private final int plcioErrorCodeInt;
+	private final String message;
+	private final PlcioErrorCode plcioErrorCode;
+	private final int plcioErrorCategoryCode;
+	private final PlcioErrorCategory plcioErrorCategory;
+
+	/**
+	 * Construct a status.
+	 *
+	 * @param callOutcome The outcome of the call.
+	 * @param errorCode The PLCIO error code, -1 if none.
+	 * @param msg The message describing the failure, null if the call succeeded.
+	 */
+	public PlcioCallStatus(Outcome callOutcome, int errorCode, String msg) {
+		this(callOutcome, errorCode, PlcioErrorCategory.FROM_ERROR_CODE, msg);
+	}
+
+	/**
+	 * Construct a status giving the category of its PLCIO error.
+	 *
+	 * @param callOutcome The outcome of the call.
+	 * @param errorCode The PLCIO error code, -1 if none.
+	 * @param categoryCode The code of the PLCIO error's category given by the JNI method,
+	 * {@linkplain PlcioErrorCategory#FROM_ERROR_CODE} if it is that of the error code.
+	 * @param msg The message describing the failure, null if the call succeeded.
+	 */
+	public PlcioCallStatus(Outcome callOutcome, int errorCode, int categoryCode, String msg) {
+		outcome = callOutcome;
+		plcioErrorCodeInt = errorCode;
+		message = msg;
+		plcioErrorCode = PlcioErrorCode.parse(errorCode);
+		plcioErrorCategoryCode = categoryCode;
+		plcioErrorCategory = PlcioErrorCategory.of(errorCode, categoryCode);
+	}
+
+	/**
+	 * Construct the status of a call that failed by throwing the given exception,
+	 * used where a PLCIO error is reported by the framework's channel methods.
+	 *
+	 * @param ex The exception thrown.
+	 */
+	public PlcioCallStatus(ConnectionException ex) {
+		if (ex instanceof ABPlcioExceptionPLCIO) {
+			outcome = Outcome.PLCIO_ERROR;
+			plcioErrorCodeInt = ((ABPlcioExceptionPLCIO) ex).getPlcioErrorCodeInt();
+			plcioErrorCategory = ((ABPlcioExceptionPLCIO) ex).getPlcioErrorCategory();
+			plcioErrorCategoryCode = plcioErrorCategory.getCategoryCode();
+		}
+		else {
+			outcome = (ex instanceof ABPlcioExceptionJNI) ? Outcome.JNI_ERROR : Outcome.ERROR;
+			plcioErrorCodeInt = -1;
+			plcioErrorCategory = PlcioErrorCategory.OTHER;
+			plcioErrorCategoryCode = PlcioErrorCategory.FROM_ERROR_CODE;
+		}
+		message = ex.getMessage();
+		plcioErrorCode = PlcioErrorCode.parse(plcioErrorCodeInt);
+	}
+
+	// documented in IPlcioCallStatus
+	@Override
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	// documented in IPlcioCallStatus
+	@Override
+	public boolean isOk() {
+		return (outcome == Outcome.OK);
+	}
+
+	// documented in IPlcioCallStatus
+	@Override
+	public int getPlcioErrorCodeInt() {
+		return plcioErrorCodeInt;
+	}
+
+	// documented in IPlcioCallStatus
+	@Override
+	public int getPlcioErrorCategoryCode() {
+		return plcioErrorCategoryCode;
+	}
+
+	// documented in IPlcioCallStatus
+	@Override
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Get the PLCIO error returned by the PLCIO function.
+	 *
+	 * @return The PLCIO error, {@linkplain PlcioErrorCode#NOT_HANDLED} if the outcome
+	 * is not {@linkplain IPlcioCallStatus.Outcome#PLCIO_ERROR} or the error is not one
+	 * the GISS handles.
+	 */
+	public PlcioErrorCode getPlcioErrorCode() {
+		return plcioErrorCode;
+	}
+
+	/**
+	 * Get the category of the PLCIO error, as given by the JNI method or otherwise
+	 * that of the PLCIO error code.
+	 *
+	 * @return The PLCIO error category, {@linkplain PlcioErrorCategory#OTHER} if the
+	 * outcome is not {@linkplain IPlcioCallStatus.Outcome#PLCIO_ERROR}.
+	 */
+	public PlcioErrorCategory getPlcioErrorCategory() {
+		return plcioErrorCategory;
+	}
+
+	/**
+	 * Whether the call failed with the given PLCIO error.
+	 *
+	 * @param errorCode The PLCIO error.
+	 *
+	 * @return <b>true</b> if the outcome is {@linkplain IPlcioCallStatus.Outcome#PLCIO_ERROR}
+	 * with the given error.
+	 */
+	public boolean isPlcioError(PlcioErrorCode errorCode) {
+		return (outcome == Outcome.PLCIO_ERROR) && (plcioErrorCodeInt == errorCode.getErrorCode());
+	}
+
+	/**
+	 * Describe the failure of the call.
+	 *
+	 * @param description Description of the call.
+	 *
+	 * @return The description followed by the type of failure and the failure's message.
+	 */
+	public String describeFailure(String description) {
+		switch (outcome) {
+		case PLCIO_ERROR:
+			return description+" failed with PLCIO error message: "+message;
+		case JNI_ERROR:
+			return description+" failed with JNI error message: "+message;
+		case ERROR:
+			return description+" failed with error message: "+message;
+		default:
+			return description+" succeeded";
+		}
+	}
+
+	/**
+	 * Create the exception describing the failure of the call, for methods that
+	 * report a failure by throwing.
+	 *
+	 * @param description Description of the call prefixed to the exception's message.
+	 *
+	 * @return An {@linkplain ABPlcioExceptionPLCIO}, {@linkplain ABPlcioExceptionJNI} or
+	 * ConnectionException depending upon the outcome, null if the call succeeded.
+	 */
+	public ConnectionException toException(String description) {
+		switch (outcome) {
+		case PLCIO_ERROR:
+			return new ABPlcioExceptionPLCIO(describeFailure(description), plcioErrorCodeInt, plcioErrorCategoryCode, message);
+		case JNI_ERROR:
+			return new ABPlcioExceptionJNI(describeFailure(description));
+		case ERROR:
+			return new ConnectionException(describeFailure(description));
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Return a String describing this status.
+	 */
+	@Override
+	public String toString() {
+		if (outcome == Outcome.OK) {
+			return "OK";
+		}
+		return outcome + ((outcome == Outcome.PLCIO_ERROR) ? (" " + plcioErrorCodeInt) : "") + ": " + message;
+	}
+
+} // end class PlcioCallStatus
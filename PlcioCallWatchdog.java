@@ -0,0 +1,319 @@
+package atst.giss.abplc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import atst.base.hardware.interfaces.IInterruptHandler;
+import atst.cs.services.Alarm;
+import atst.cs.services.Log;
+
+/**
+ * The class PlcioCallWatchdog detects PLCIO calls made by a connection's channels
+ * that have not returned long after they should have timed out.
+ * <p>
+ * Each channel registers its calls with the watchdog while they are in progress,
+ * recording the start time and calling thread. Every {@linkplain #CHECK_INTERVAL_MS}
+ * the watchdog checks the calls in progress, a call is stalled once it has been in
+ * progress for longer than the timeout multiple times the PLCIO timeout of the tag
+ * being transferred, or {@linkplain #DEFAULT_LIMIT_MS} for calls without a tag. When
+ * a call is found to be stalled the watchdog:
+ * <ul>
+ * <li>logs the call and the stack of the thread making it,
+ * <li>raises an alarm,
+ * <li>fences the connection, calling the fence interrupt handler with <b>true</b>
+ * when the first call stalls. While fenced the connection's channels do not make
+ * further PLCIO calls, as all PLCIO calls are serialized by {@linkplain ABPlcioMaster}
+ * they would only wait behind the stalled call.
+ * </ul>
+ * When all stalled calls have returned the fence interrupt handler is called with
+ * <b>false</b>. Channels closed while the connection is fenced defer the close of their
+ * PLCIO connection with the watchdog, the closes being made by the thread whose
+ * stalled call returned last once the connection is unfenced.
+ * <p>
+ * The checks of all watchdogs run on a single daemon thread so that they are not held
+ * up by the stalled calls.
+ *
+ * @author agent
+ */
+public class PlcioCallWatchdog {
+
+    /** Log category of PlcioCallWatchdog. */
+    private static final String LOG_CAT = "PLCIO_CALL_WATCHDOG";
+    private static final String THREAD_NAME_PREFIX = "gissPlcioWatchdog_";
+
+    /** The interval at which calls in progress are checked. */
+    public static final long CHECK_INTERVAL_MS = 1000;
+    /** The time after which a call without a tag, e.g. opening a channel, is stalled. */
+    public static final long DEFAULT_LIMIT_MS = 30000;
+    /** The default multiple of a tag's PLCIO timeout after which a call is stalled. */
+    public static final double DEFAULT_TIMEOUT_MULTIPLE = 3.0;
+
+    /** The executor running the checks of all watchdogs, created on first use. */
+    private static ScheduledThreadPoolExecutor executor = null;
+
+    /**
+     * A PLCIO call in progress, returned by {@linkplain PlcioCallWatchdog#begin(String, IPlcioCall)}.
+     */
+    public static class Call {
+        private final String channelName;
+        private final String description;
+        private final Thread thread;
+        private final long startMs;
+        private final long limitMs;
+        /** Whether the call may have been found to be stalled, set before the watchdog
+         * checks that the call is still in progress. */
+        private volatile boolean stalled;
+        /** Whether the call has been counted as stalled, guarded by the watchdog's lock. */
+        private boolean counted;
+
+        private Call(String chName, String callDescription, long limit) {
+            channelName = chName;
+            description = callDescription;
+            thread = Thread.currentThread();
+            startMs = System.currentTimeMillis();
+            limitMs = limit;
+            stalled = false;
+            counted = false;
+        }
+
+        @Override
+        public String toString() {
+            return description + " using channel '" + channelName + "' by thread '" + thread.getName() +
+                    "' (" + thread.getState() + ") in progress for " + (System.currentTimeMillis() - startMs) +
+                    "ms, limit " + limitMs + "ms";
+        }
+    } // end class Call
+
+    /*
+     *  Private instance variables
+     */
+    private final String name;
+    private final IInterruptHandler<Boolean> fenceIH;
+    private final Set<Call> calls = Collections.newSetFromMap(new ConcurrentHashMap<Call,Boolean>());
+    /** The channels with PLCIO connections to be closed once the connection is unfenced. */
+    private final Set<ABPlcioChannel> deferredCloseChannels =
+            Collections.newSetFromMap(new ConcurrentHashMap<ABPlcioChannel,Boolean>());
+    private volatile double timeoutMultiple = DEFAULT_TIMEOUT_MULTIPLE;
+    /** Whether the connection is fenced, only changed holding this watchdog's lock. */
+    private volatile boolean fenced = false;
+    /** Guarded by this watchdog's lock. */
+    private int stalledCallTotal = 0;
+    private long stallTotal = 0;
+    private ScheduledFuture<?> checkRun = null;
+
+    /**
+     * Construct a stopped watchdog.
+     *
+     * @param watchdogName The name of the watchdog used in log and alarm messages.
+     * @param fenceIHandler The interrupt handler called with <b>true</b> when the first
+     * call stalls and <b>false</b> when all stalled calls have returned. Called on the
+     * watchdog's thread so it must not block.
+     */
+    public PlcioCallWatchdog(String watchdogName, IInterruptHandler<Boolean> fenceIHandler) {
+        name = watchdogName;
+        fenceIH = fenceIHandler;
+    } // end Constructor
+
+    /**
+     * Start checking the calls in progress.
+     *
+     * @param multiple The multiple of a tag's PLCIO timeout after which a call is stalled.
+     */
+    public synchronized void start(double multiple) {
+        timeoutMultiple = (multiple > 1.0) ? multiple : DEFAULT_TIMEOUT_MULTIPLE;
+        if (checkRun == null) {
+            checkRun = getExecutor().scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    check();
+                }
+            }, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+        Log.debug(LOG_CAT, 2, "Watchdog '" + name + "' started, calls stall after " + timeoutMultiple +
+                " times their tag's PLCIO timeout");
+    } // end start()
+
+    /**
+     * Stop checking the calls in progress. The connection remains fenced until
+     * any stalled calls have returned.
+     */
+    public synchronized void stop() {
+        if (checkRun != null) {
+            checkRun.cancel(false);
+            checkRun = null;
+        }
+    } // end stop()
+
+    /**
+     * Register a call that is about to be made by the current thread.
+     *
+     * @param channelName The name of the channel making the call.
+     * @param plcioCall The call.
+     *
+     * @return The call in progress, to be passed to {@linkplain #end(Call)} when
+     * the call returns.
+     */
+    public Call begin(String channelName, IPlcioCall plcioCall) {
+        long limitMs = DEFAULT_LIMIT_MS;
+        IPlcTag tag = plcioCall.getParamTag();
+        if ((tag != null) && (tag.getPlcioTimeoutMs() > 0)) {
+            limitMs = (long) (timeoutMultiple * tag.getPlcioTimeoutMs());
+        }
+        Call call = new Call(channelName, plcioCall.getMethodName().toString(), limitMs);
+        calls.add(call);
+        return call;
+    } // end begin()
+
+    /**
+     * Record the return of a call, unfencing the connection if the call was the
+     * last stalled call.
+     *
+     * @param call The call returned by {@linkplain #begin(String, IPlcioCall)}.
+     */
+    public void end(Call call) {
+        calls.remove(call);
+        // only calls found to be stalled take the watchdog's lock
+        if (!call.stalled) {
+            return;
+        }
+        boolean unfenced = false;
+        synchronized (this) {
+            if (!call.counted) {
+                return;
+            }
+            stalledCallTotal--;
+            Log.note(LOG_CAT, "Watchdog '" + name + "' stalled PLCIO call " + call.description + " using channel '" +
+                    call.channelName + "' returned after " + (System.currentTimeMillis() - call.startMs) + "ms" +
+                    ((stalledCallTotal > 0) ? (", " + stalledCallTotal + " call(s) still stalled") : ""));
+            if ((stalledCallTotal == 0) && fenced) {
+                fenced = false;
+                Log.note(LOG_CAT, "Watchdog '" + name + "' unfencing connection, no calls stalled");
+                fenceIH.interrupt(false);
+                unfenced = true;
+            }
+        }
+        // closed outside of the watchdog's lock as each close is a PLCIO call
+        if (unfenced) {
+            closeDeferred();
+        }
+    } // end end()
+    
+    /**
+     * Record that a channel has a PLCIO connection whose close was deferred as the
+     * connection is fenced, the channel's {@linkplain ABPlcioChannel#closeDeferred()}
+     * being called once the connection is unfenced.
+     *
+     * @param channel The channel.
+     */
+    void deferClose(ABPlcioChannel channel) {
+        deferredCloseChannels.add(channel);
+    } // end deferClose()
+
+    /**
+     * Whether the connection is fenced as a call has stalled.
+     *
+     * @return true if a call is stalled.
+     */
+    public boolean isFenced() {
+        return fenced;
+    } // end isFenced()
+
+    @Override
+    public synchronized String toString() {
+        return "PlcioCallWatchdog {name='" + name + "', inProgress=" + calls.size() + ", stalled=" +
+                stalledCallTotal + ", stalls=" + stallTotal + ", fenced=" + fenced + ", deferredCloses=" +
+                deferredCloseChannels.size() + "}";
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Find calls that have newly stalled, reporting them and if required fencing
+     * the connection.
+     */
+    private void check() {
+        if (calls.isEmpty()) {
+            return;
+        }
+        long nowMs = System.currentTimeMillis();
+        List<Call> newlyStalled = new ArrayList<Call>();
+        synchronized (this) {
+            for (Call call : calls) {
+                if (!call.stalled && ((nowMs - call.startMs) > call.limitMs)) {
+                    // the call is marked before testing whether it is still in progress, so
+                    // that either the test fails or end() sees the mark and takes the lock
+                    call.stalled = true;
+                    if (!calls.contains(call)) {
+                        continue;
+                    }
+                    call.counted = true;
+                    stalledCallTotal++;
+                    stallTotal++;
+                    newlyStalled.add(call);
+                }
+            }
+            if (newlyStalled.isEmpty()) {
+                return;
+            }
+            for (Call call : newlyStalled) {
+                report(call);
+            }
+            if (!fenced) {
+                fenced = true;
+                Log.warn(LOG_CAT, "Watchdog '" + name + "' fencing connection until stalled call(s) return. " +
+                        toString());
+                fenceIH.interrupt(true);
+            }
+        }
+    } // end check()
+
+    /**
+     * Close the PLCIO connections of the channels whose close was deferred while fenced.
+     */
+    private void closeDeferred() {
+        for (ABPlcioChannel channel : deferredCloseChannels) {
+            deferredCloseChannels.remove(channel);
+            channel.closeDeferred();
+        }
+    } // end closeDeferred()
+    
+    /**
+     * Log the diagnostics of a stalled call and raise an alarm.
+     */
+    private void report(Call call) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Watchdog '").append(name).append("' PLCIO call stalled: ").append(call.toString());
+        sb.append("\n Stack of thread '").append(call.thread.getName()).append("':");
+        for (StackTraceElement ste : call.thread.getStackTrace()) {
+            sb.append("\n  at ").append(ste.toString());
+        }
+        sb.append("\n Calls in progress:");
+        for (Call inProgress : calls) {
+            sb.append("\n  ").append(inProgress.toString());
+        }
+        Log.severe(LOG_CAT, sb.toString());
+        Alarm.raise("GISS-ALARM", "PLCIO call " + call.description + " using channel '" + call.channelName +
+                "' has not returned after " + call.limitMs + "ms, connection '" + name + "' fenced");
+    } // end report()
+
+    /**
+     * Get the executor, creating it if this is its first use.
+     */
+    private static synchronized ScheduledThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ScheduledThreadPoolExecutor(1,
+                    new PlcioThreadFactory(THREAD_NAME_PREFIX, PlcioThreadFactory.ThreadMode.PLATFORM));
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        return executor;
+    } // end getExecutor()
+
+} // end class PlcioCallWatchdog
@@ -0,0 +1,269 @@
+package atst.giss.abplc;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import atst.cs.services.Log;
+
+/**
+ * The class PlcioTaskExecutor runs a connection's background tasks, such as recovering
+ * from PLCIO errors, using a bounded number of threads and a bounded queue.
+ * <p>
+ * When all the executor's threads are busy tasks wait in the queue. If the queue is also
+ * full the task is rejected, the rejection is counted and logged and a
+ * {@linkplain RejectedExecutionException} thrown so that the caller can clean up. The
+ * executor therefore limits the number of threads used however many tasks are submitted,
+ * for example by repeated PLCIO errors while the network to the PLC is unreliable.
+ * <p>
+ * The executor's threads are created by the connection's {@linkplain PlcioThreadFactory}
+ * and end when idle for {@linkplain #KEEP_ALIVE_MS}. While running a task submitted with
+ * a name the thread is given that name.
+ * <p>
+ * Tasks to be run after a delay, such as the connection's checks for idle channels, are
+ * scheduled with {@linkplain #schedule(Runnable, String, long)}. The executor's single
+ * timer thread only hands each task to the executor's threads when its delay has passed,
+ * so a task blocked in PLCIO delays only the connection that submitted it and never the
+ * reads of the {@linkplain PlcTagReadScheduler}.
+ *
+ * @author agent
+ */
+public class PlcioTaskExecutor extends ThreadPoolExecutor {
+
+    /** Log category of PlcioTaskExecutor. */
+    private static final String LOG_CAT = "PLCIO_TASK_EXECUTOR";
+
+    /** The time an idle thread waits for a task before ending. */
+    public static final long KEEP_ALIVE_MS = 30000;
+
+    /*
+     *  Private instance variables
+     */
+    private final String name;
+    private final PlcioThreadFactory timerThreadFactory;
+    /** The timer handing delayed tasks to the executor, created on first use. */
+    private ScheduledThreadPoolExecutor timer = null;
+    private final AtomicLong submittedTotal = new AtomicLong(0);
+    private final AtomicLong completedTotal = new AtomicLong(0);
+    private final AtomicLong failedTotal = new AtomicLong(0);
+    private final AtomicLong rejectedTotal = new AtomicLong(0);
+
+    /**
+     * Construct an executor.
+     *
+     * @param executorName The name of the executor used in log messages.
+     * @param threadTotal The maximum number of threads running tasks.
+     * @param queueSize The maximum number of tasks waiting for a thread.
+     * @param threadFactory The factory creating the executor's threads.
+     */
+    public PlcioTaskExecutor(String executorName, int threadTotal, int queueSize, PlcioThreadFactory threadFactory) {
+        super(Math.max(1, threadTotal), Math.max(1, threadTotal), KEEP_ALIVE_MS, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)), threadFactory);
+        name = executorName;
+        timerThreadFactory = new PlcioThreadFactory(executorName + "_timer_", PlcioThreadFactory.ThreadMode.PLATFORM);
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler(new RejectedExecutionHandler() {
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                rejectedTotal.incrementAndGet();
+                String reason = executor.isShutdown() ? "executor is shut down" :
+                        ("all " + getMaximumPoolSize() + " threads busy and queue of " +
+                        getQueue().size() + " task(s) full");
+                Log.warn(LOG_CAT, "Executor '" + name + "' rejected task, " + reason + ". " +
+                        PlcioTaskExecutor.this.toString());
+                throw new RejectedExecutionException("Executor '" + name + "' rejected task, " + reason);
+            }
+        });
+    } // end Constructor
+
+    /**
+     * Run a task, giving the thread running it the given name while it runs.
+     *
+     * @param task The task to be run.
+     * @param taskName The name given to the thread running the task.
+     *
+     * @throws RejectedExecutionException if the task can't be accepted.
+     */
+    public void execute(final Runnable task, final String taskName) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                Thread thread = Thread.currentThread();
+                String poolThreadName = thread.getName();
+                thread.setName(taskName);
+                try {
+                    task.run();
+                } finally {
+                    thread.setName(poolThreadName);
+                }
+            }
+        });
+    } // end execute()
+
+    /**
+     * Run a task after a delay, giving the thread running it the given name while it
+     * runs. If the task is rejected when its delay has passed, because all the executor's
+     * threads are busy and its queue is full, it is scheduled again after the same delay
+     * unless the executor has been shut down.
+     *
+     * @param task The task to be run.
+     * @param taskName The name given to the thread running the task.
+     * @param delayMs The delay in ms from now after which the task is run.
+     *
+     * @return The future of the scheduled hand over of the task to the executor,
+     * used to cancel it.
+     *
+     * @throws RejectedExecutionException if the executor has been shut down.
+     */
+    public ScheduledFuture<?> schedule(final Runnable task, final String taskName, final long delayMs) {
+        return getTimer().schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    execute(task, taskName);
+                } catch (RejectedExecutionException ex) {
+                    if (!isShutdown()) {
+                        schedule(task, taskName, delayMs);
+                    }
+                }
+            }
+        }, Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    } // end schedule()
+
+    @Override
+    public void execute(Runnable task) {
+        submittedTotal.incrementAndGet();
+        super.execute(task);
+    } // end execute()
+
+    /**
+     * Shut down the executor, waiting for a limited time for running and queued tasks
+     * to complete after which running tasks are interrupted.
+     *
+     * @param waitMs The maximum time to wait for tasks to complete.
+     *
+     * @return true if all tasks completed within the wait.
+     */
+    public boolean shutdownAndWait(long waitMs) {
+        synchronized (this) {
+            if (timer != null) {
+                timer.shutdownNow();
+            }
+        }
+        shutdown();
+        boolean terminated = false;
+        try {
+            terminated = awaitTermination(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (!terminated) {
+            int notRun = shutdownNow().size();
+            Log.warn(LOG_CAT, "Executor '" + name + "' tasks still running after " + waitMs + "ms - interrupted, " +
+                    notRun + " queued task(s) not run");
+        }
+        Log.debug(LOG_CAT, 2, "Executor shut down. " + toString());
+        return terminated;
+    } // end shutdownAndWait()
+
+    /**
+     * Get the number of tasks submitted.
+     *
+     * @return The number of submitted tasks, including rejected tasks.
+     */
+    public long getSubmittedTotal() {
+        return submittedTotal.get();
+    } // end getSubmittedTotal()
+
+    /**
+     * Get the number of tasks that have completed, including failed tasks.
+     *
+     * @return The number of completed tasks.
+     */
+    public long getCompletedTotal() {
+        return completedTotal.get();
+    } // end getCompletedTotal()
+
+    /**
+     * Get the number of tasks rejected.
+     *
+     * @return The number of rejected tasks.
+     */
+    public long getRejectedTotal() {
+        return rejectedTotal.get();
+    } // end getRejectedTotal()
+
+    /**
+     * Get the number of tasks that ended by throwing an exception.
+     *
+     * @return The number of failed tasks.
+     */
+    public long getFailedTotal() {
+        return failedTotal.get();
+    } // end getFailedTotal()
+
+    /**
+     * Get the executor's state and task totals as an array of <code>name=value</code>
+     * Strings, as published to the Cache by the connection. The elements are the number
+     * of threads running tasks (<code>active</code>), the current and largest number of
+     * threads (<code>threads</code>, <code>largestThreads</code>), the number of tasks
+     * waiting for a thread (<code>queued</code>) and the totals of tasks
+     * <code>submitted</code>, <code>completed</code>, <code>failed</code> and <code>rejected</code>.
+     *
+     * @return The executor's statistics.
+     */
+    public String[] toStringArray() {
+        return new String[] {
+                "active=" + getActiveCount(),
+                "threads=" + getPoolSize(),
+                "largestThreads=" + getLargestPoolSize(),
+                "queued=" + getQueue().size(),
+                "submitted=" + submittedTotal.get(),
+                "completed=" + completedTotal.get(),
+                "failed=" + failedTotal.get(),
+                "rejected=" + rejectedTotal.get()
+        };
+    } // end toStringArray()
+
+    @Override
+    public String toString() {
+        return "PlcioTaskExecutor {name='" + name + "', active=" + getActiveCount() + ", threads=" + getPoolSize() +
+                ", largestThreads=" + getLargestPoolSize() + ", queued=" + getQueue().size() +
+                ", submitted=" + submittedTotal.get() + ", completed=" + completedTotal.get() +
+                ", failed=" + failedTotal.get() + ", rejected=" + rejectedTotal.get() + "}";
+    } // end toString()
+
+    /**
+     * Get the timer, creating it if this is its first use.
+     */
+    private synchronized ScheduledThreadPoolExecutor getTimer() {
+        if (isShutdown()) {
+            throw new RejectedExecutionException("Executor '" + name + "' is shut down");
+        }
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, timerThreadFactory);
+            // cancelled tasks are removed from the queue immediately
+            timer.setRemoveOnCancelPolicy(true);
+        }
+        return timer;
+    } // end getTimer()
+
+    /**
+     * Count each task completed, logging tasks ending with an exception.
+     */
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        completedTotal.incrementAndGet();
+        if (t != null) {
+            failedTotal.incrementAndGet();
+            Log.warn(LOG_CAT, "Executor '" + name + "' task ended with exception: " + t.toString());
+        }
+    } // end afterExecute()
+
+} // end class PlcioTaskExecutor
@@ -0,0 +1,191 @@
+package atst.giss.abplc;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import atst.cs.services.Log;
+
+/**
+ * The class PlcioThreadFactory creates the threads used by the connection to
+ * run tasks that spend most of their time blocked in PLCIO calls or waiting,
+ * for example connecting to the PLC, recovering from PLCIO errors and reading tags.
+ * <p>
+ * Threads are created in one of two modes:
+ * <ul>
+ * <li>{@linkplain ThreadMode#PLATFORM} &mdash; daemon platform threads, as created
+ * by <code>Misc.startDaemon()</code>.
+ * <li>{@linkplain ThreadMode#VIRTUAL} &mdash; virtual threads, allowing thousands of
+ * blocked tasks without thousands of operating system threads. Virtual threads are
+ * only available when running on a JDK that supports them, on other JDKs platform
+ * threads are created and a warning logged when the factory is created.
+ * </ul>
+ * Threads are always given the name requested so that thread dumps and log messages
+ * identify the task being run.
+ * <p>
+ * Note that PLCIO calls made by {@linkplain ABPlcioMaster} are synchronized, on JDKs where
+ * a virtual thread blocked entering a synchronized block pins its carrier thread virtual
+ * threads waiting for the master are not unmounted.
+ *
+ * @author agent
+ */
+public class PlcioThreadFactory implements ThreadFactory {
+
+    /** Log category of PlcioThreadFactory. */
+    private static final String LOG_CAT = "PLCIO_THREAD_FACTORY";
+
+    /**
+     * The type of threads created by the factory.
+     */
+    public enum ThreadMode {
+        /** Daemon platform threads. */
+        PLATFORM,
+        /** Virtual threads, if supported by the JDK. */
+        VIRTUAL;
+
+        /**
+         * Get the thread mode named by the given String, ignoring case.
+         *
+         * @param mode The mode name.
+         *
+         * @return The named mode or {@linkplain #PLATFORM} if mode is null or
+         * does not name a mode.
+         */
+        public static ThreadMode parse(String mode) {
+            if (mode != null) {
+                for (ThreadMode threadMode : values()) {
+                    if (threadMode.name().equalsIgnoreCase(mode.trim())) {
+                        return threadMode;
+                    }
+                }
+            }
+            return PLATFORM;
+        } // end parse()
+    } // end enum ThreadMode
+
+    /*
+     * Virtual thread support, located using reflection so that this class can
+     * be compiled and run on JDKs without virtual threads.
+     */
+    /** Thread.ofVirtual(), null if not supported. */
+    private static final Method OF_VIRTUAL;
+    /** Thread.Builder.name(String), null if not supported. */
+    private static final Method BUILDER_NAME;
+    /** Thread.Builder.unstarted(Runnable), null if not supported. */
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderUnstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builderName = builderClass.getMethod("name", String.class);
+            builderUnstarted = builderClass.getMethod("unstarted", Runnable.class);
+        } catch (Exception ex) {
+            ofVirtual = builderName = builderUnstarted = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+    }
+
+    /**
+     * Whether the JDK supports virtual threads.
+     *
+     * @return true if virtual threads can be created.
+     */
+    public static boolean isVirtualThreadSupported() {
+        return (OF_VIRTUAL != null);
+    } // end isVirtualThreadSupported()
+
+    /*
+     *  Private instance variables
+     */
+    private final String namePrefix;
+    private final ThreadMode mode;
+    private final AtomicInteger threadNum = new AtomicInteger(0);
+
+    /**
+     * Construct a thread factory.
+     *
+     * @param namePrefix The prefix of the names of threads created by {@linkplain #newThread(Runnable)},
+     * which are named <code>namePrefix</code> followed by a sequence number.
+     * @param requestedMode The type of threads to be created. If virtual threads are requested
+     * but not supported platform threads are created.
+     */
+    public PlcioThreadFactory(String namePrefix, ThreadMode requestedMode) {
+        this.namePrefix = namePrefix;
+        if ((requestedMode == ThreadMode.VIRTUAL) && !isVirtualThreadSupported()) {
+            Log.warn(LOG_CAT, "Virtual threads requested for '" + namePrefix + "' threads but not supported by " +
+                    "this JDK (java.version=" + System.getProperty("java.version") + ") - using platform threads");
+            mode = ThreadMode.PLATFORM;
+        }
+        else {
+            mode = requestedMode;
+        }
+    } // end Constructor
+
+    /**
+     * Get the type of threads created by this factory.
+     *
+     * @return The thread mode in use, which is {@linkplain ThreadMode#PLATFORM} if virtual
+     * threads were requested but are not supported.
+     */
+    public ThreadMode getMode() {
+        return mode;
+    } // end getMode()
+
+    /**
+     * Create an unstarted thread named using this factory's name prefix.
+     */
+    @Override
+    public Thread newThread(Runnable r) {
+        return newThread(r, namePrefix + threadNum.incrementAndGet());
+    } // end newThread()
+
+    /**
+     * Create an unstarted thread with the given name.
+     *
+     * @param r The task to be run by the thread.
+     * @param name The thread's name.
+     *
+     * @return The thread.
+     */
+    public Thread newThread(Runnable r, String name) {
+        if (mode == ThreadMode.VIRTUAL) {
+            try {
+                Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) BUILDER_UNSTARTED.invoke(builder, r);
+            } catch (Exception ex) {
+                Log.warn(LOG_CAT, "Unable to create virtual thread '" + name + "' - using platform thread. Exception: " +
+                        ex.toString());
+            }
+        }
+        Thread t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
+    } // end newThread()
+
+    /**
+     * Create and start a thread with the given name. Platform threads are daemon
+     * threads, virtual threads are always daemon threads.
+     *
+     * @param r The task to be run by the thread.
+     * @param name The thread's name.
+     *
+     * @return The started thread.
+     */
+    public Thread startDaemon(Runnable r, String name) {
+        Thread t = newThread(r, name);
+        t.start();
+        return t;
+    } // end startDaemon()
+
+    @Override
+    public String toString() {
+        return "PlcioThreadFactory {namePrefix='" + namePrefix + "', mode=" + mode + "}";
+    } // end toString()
+
+} // end class PlcioThreadFactory
@@ -0,0 +1,236 @@
+package atst.giss.abplc;
+
+import atst.cs.data.*;
+import atst.cs.interfaces.*;
+import atst.cs.util.*;
+
+/**
+ * The class TagItemHandle implements {@linkplain ITagItemHandle} giving access
+ * to the value of a single {@linkplain PlcTag} data item.
+ * <p>
+ * Handles are created by the PlcTag when the tag is constructed, one for each of
+ * its data items, and are obtained using {@linkplain IPlcTag#getTagItemHandle(String)}.
+ *
+ * @author agent
+ */
+public class TagItemHandle implements ITagItemHandle {
+
+    /*
+     *  Private class constants
+     */
+    /** String value representing a boolean value of true. */
+    private static final String BOOLEAN_STRING_TRUE = "true";
+
+    /** String value representing a boolean value of false. */
+    private static final String BOOLEAN_STRING_FALSE = "false";
+
+    /*
+     *  Private instance variables
+     */
+    /** The tag containing the item. */
+    private final PlcTag tag;
+
+    /** The name of the item. */
+    private final String itemName;
+
+    /** The name of the item's propertyDB attribute. */
+    private final String propItemName;
+
+    /** The tag member number containing the item. */
+    private final int memberNum;
+
+    /** The bit mask of a boolean item, -1 if the item is not boolean. */
+    private final int bitMask;
+
+    /** Whether the item is boolean. */
+    private final boolean isBoolean;
+
+    /** Whether the item is stored in the PLC as a floating point type. */
+    private final boolean isReal;
+
+    /** Whether the item's tag is a READ tag. */
+    private final boolean isRead;
+
+    /**
+     * Construct a handle for the given tag item.
+     *
+     * @param tag The tag containing the item.
+     * @param itemName The name of the item.
+     * @param propItemName The name of the item's propertyDB attribute.
+     * @param memberNum The tag member number containing the item.
+     * @param bitMask The bit mask of a boolean item, -1 if the item is not boolean.
+     * @param plcioType The PLCIO type of the tag member containing the item.
+     */
+    TagItemHandle(PlcTag tag, String itemName, String propItemName, int memberNum, int bitMask, char plcioType) {
+        this.tag = tag;
+        this.itemName = itemName;
+        this.propItemName = propItemName;
+        this.memberNum = memberNum;
+        this.bitMask = bitMask;
+        this.isBoolean = (bitMask != -1);
+        this.isReal = ((plcioType == PlcioPcFormat.TYPE_R) || (plcioType == PlcioPcFormat.TYPE_D));
+        this.isRead = (tag.getDirection() == IPlcTag.DIRECTION_READ);
+    } // end Constructor
+
+    // Documented in ITagItemHandle
+    @Override
+    public String getTagName() {
+        return tag.getName();
+    } // end getTagName()
+
+    // Documented in ITagItemHandle
+    @Override
+    public String getItemName() {
+        return itemName;
+    } // end getItemName()
+
+    // Documented in ITagItemHandle
+    @Override
+    public String getPropItemName() {
+        return propItemName;
+    } // end getPropItemName()
+
+    // Documented in ITagItemHandle
+    @Override
+    public boolean getBoolean() {
+        String memberValue = getMemberValue();
+        if (memberValue != null) {
+            try {
+                if (isBoolean) {
+                    return ((Integer.parseInt(memberValue) & bitMask) == bitMask);
+                }
+                return (Double.parseDouble(memberValue) != 0.0);
+            } catch (NumberFormatException ex) {
+                // fall through to use the Cache
+            }
+        }
+        IAttribute itemAtt = Cache.lookup(propItemName);
+        if ((itemAtt == null) || itemAtt.isEmpty()) {
+            return false;
+        }
+        return itemAtt.getBoolean();
+    } // end getBoolean()
+
+    // Documented in ITagItemHandle
+    @Override
+    public int getInteger() {
+        if (isBoolean) {
+            return getBoolean() ? 1 : 0;
+        }
+        String memberValue = getMemberValue();
+        if (memberValue != null) {
+            try {
+                if (isReal) {
+                    return (int) Double.parseDouble(memberValue);
+                }
+                return Integer.parseInt(memberValue);
+            } catch (NumberFormatException ex) {
+                // fall through to use the Cache
+            }
+        }
+        IAttribute itemAtt = Cache.lookup(propItemName);
+        if ((itemAtt == null) || itemAtt.isEmpty()) {
+            return 0;
+        }
+        return itemAtt.getInteger();
+    } // end getInteger()
+
+    // Documented in ITagItemHandle
+    @Override
+    public double getDouble() {
+        if (isBoolean) {
+            return getBoolean() ? 1.0 : 0.0;
+        }
+        String memberValue = getMemberValue();
+        if (memberValue != null) {
+            try {
+                return Double.parseDouble(memberValue);
+            } catch (NumberFormatException ex) {
+                // fall through to use the Cache
+            }
+        }
+        IAttribute itemAtt = Cache.lookup(propItemName);
+        if ((itemAtt == null) || itemAtt.isEmpty()) {
+            return Double.NaN;
+        }
+        return itemAtt.getDouble();
+    } // end getDouble()
+
+    // Documented in ITagItemHandle
+    @Override
+    public String getString() {
+        if (isBoolean) {
+            if ((getMemberValue() == null) && !isInCache()) {
+                return null;
+            }
+            return getBoolean() ? BOOLEAN_STRING_TRUE : BOOLEAN_STRING_FALSE;
+        }
+        String memberValue = getMemberValue();
+        if (memberValue != null) {
+            return memberValue;
+        }
+        IAttribute itemAtt = Cache.lookup(propItemName);
+        if ((itemAtt == null) || itemAtt.isEmpty()) {
+            return null;
+        }
+        return itemAtt.getString();
+    } // end getString()
+
+    // Documented in ITagItemHandle
+    @Override
+    public boolean set(String value) {
+        if ((value != null) && value.equals(getString())) {
+            return false;
+        }
+        Cache.store(new Attribute(propItemName, value));
+        return true;
+    } // end set()
+
+    // Documented in ITagItemHandle
+    @Override
+    public boolean setBoolean(boolean value) {
+        return set(value ? BOOLEAN_STRING_TRUE : BOOLEAN_STRING_FALSE);
+    } // end setBoolean()
+
+    // Documented in ITagItemHandle
+    @Override
+    public boolean setInteger(int value) {
+        return set(Integer.toString(value));
+    } // end setInteger()
+
+    // Documented in ITagItemHandle
+    @Override
+    public boolean setDouble(double value) {
+        return set(Double.toString(value));
+    } // end setDouble()
+
+    @Override
+    public String toString() {
+        return "TagItemHandle {tag='" + tag.getName() + "', item='" + itemName +
+                "', memberNum=" + memberNum + ", bitMask=" + bitMask + "}";
+    } // end toString()
+
+    /*
+     *  Private methods
+     */
+
+    /**
+     * Get the value of the tag member containing the item, for a WRITE
+     * tag or a READ tag that has not yet been read returns null.
+     */
+    private String getMemberValue() {
+        if (!isRead) {
+            return null;
+        }
+        return tag.getMemberValue(memberNum);
+    } // end getMemberValue()
+
+    /**
+     * Whether the Cache contains a value for the item.
+     */
+    private boolean isInCache() {
+        IAttribute itemAtt = Cache.lookup(propItemName);
+        return ((itemAtt != null) && !itemAtt.isEmpty());
+    } // end isInCache()
+
+} // end class TagItemHandle
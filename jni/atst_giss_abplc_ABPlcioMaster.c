@@ -32,6 +32,13 @@
 #define CLASS_ABPLCIO_EXCEPTION_JNI "atst/giss/abplc/ABPlcioExceptionJNI"
 #define CLASS_ABPLCIO_EXCEPTION_PLCIO "atst/giss/abplc/ABPlcioExceptionPLCIO"
 
+/* The category codes of ABPlcioExceptionPLCIO.PlcioErrorCategory, given to
+ * exceptions thrown when the PLCIO function that failed determines the category
+ * of the error. PLCIO_ERROR_CATEGORY_FROM_CODE leaves the category to be found
+ * from the PLCIO error code by the Java code. */
+#define PLCIO_ERROR_CATEGORY_FROM_CODE -1
+#define PLCIO_ERROR_CATEGORY_CONNECTION 1
+
 /* The log category used in all calls to CSF atst/cs/services/Log methods */
 #define LOG_CAT "ABPLCIO_MASTER_JNI"
 
@@ -107,6 +114,7 @@ void logWarn(JNIEnv *, jclass, char *);
 void printByteBuffer(JNIEnv *, signed char *, int, char *);
 void toStringByteBuffer(JNIEnv *, jclass, signed char *, int, char *, int);
 int throwJavaException(JNIEnv *, char *, char *);
+int throwPlcioException(JNIEnv *, char *, int, int, char *);
 int initPlcioNative(JNIEnv *, jclass);
 int uninitPlcioNative(JNIEnv *, jclass);
 
@@ -515,6 +523,77 @@ int throwJavaException(JNIEnv *env, char *exceptionClassName, char *message)
   return returnVal;
 } /* end throwJavaException() */
 
+/* throwPlcioException()
+ * Throw an ABPlcioExceptionPLCIO constructed with the PLCIO error code, the
+ * error category and PLCIO error description as well as the message, so that
+ * the Java code does not need to find the PLCIO error in the message.
+ * If the exception class has no such constructor the exception is thrown
+ * using the message alone, from which the PLCIO error can still be found.
+ */
+int throwPlcioException(JNIEnv *env, char *message, int plcioErrorCode, int plcioErrorCategory, char *plcioErrorString)
+{
+  int returnVal = 0;
+  jclass jclsException;
+  jmethodID jmID_init;
+  jstring jmessage;
+  jstring jplcioErrorString;
+  jthrowable jexception;
+
+  jclsException = (*env)->FindClass(env, CLASS_ABPLCIO_EXCEPTION_PLCIO);
+  if (jclsException == NULL)
+    {
+      return throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, message);
+    }
+
+  jmID_init = (*env)->GetMethodID(env, jclsException, "<init>", "(Ljava/lang/String;IILjava/lang/String;)V");
+  if (jmID_init == NULL)
+    {
+      /* clear the NoSuchMethodError and throw using the message alone */
+      (*env)->ExceptionClear(env);
+      (*env)->DeleteLocalRef(env, jclsException);
+      return throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, message);
+    }
+
+  jmessage = (*env)->NewStringUTF(env, message);
+  jplcioErrorString = (*env)->NewStringUTF(env, plcioErrorString);
+  if ((jmessage == NULL) || (jplcioErrorString == NULL))
+    {
+      /* OutOfMemoryError has been thrown */
+      printf("C - ERROR %s:JNI %s():%d - unable to create Java strings for exception with message '%s'\n",
+	     __FILE__, __FUNCTION__, __LINE__, message);
+      (*env)->DeleteLocalRef(env, jclsException);
+      return -1;
+    }
+
+  jexception = (jthrowable) (*env)->NewObject(env, jclsException, jmID_init,
+					       jmessage, (jint) plcioErrorCode, (jint) plcioErrorCategory, jplcioErrorString);
+  if (jexception == NULL)
+    {
+      if ((*env)->ExceptionOccurred(env))
+	{
+	  (*env)->ExceptionDescribe(env);
+	  (*env)->ExceptionClear(env);
+	}
+      returnVal = throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, message);
+    }
+  else
+    {
+      returnVal = (*env)->Throw(env, jexception);
+      if (returnVal < 0)
+	{
+	  printf("C - ERROR %s:JNI %s():%d - error returned from Throw() when throwing exception of class '%s' with message '%s'\n",
+		 __FILE__, __FUNCTION__, __LINE__, CLASS_ABPLCIO_EXCEPTION_PLCIO, message);
+	}
+      (*env)->DeleteLocalRef(env, jexception);
+    }
+
+  (*env)->DeleteLocalRef(env, jmessage);
+  (*env)->DeleteLocalRef(env, jplcioErrorString);
+  (*env)->DeleteLocalRef(env, jclsException);
+
+  return returnVal;
+} /* end throwPlcioException() */
+
 
 /* initPlcioNative()
  * This function is called from Java_PlcioNative_plc_1open() if isInitialised
@@ -796,7 +875,7 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1open
 	   FUNCTION_NAME, __LINE__, plc_open_ptr->j_error, plc_open_ptr->ac_errmsg);
   logDebug(env, jcls, 4, debugStr);
       /* throw PLCIO exception */
-      throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, errStr);
+      throwPlcioException(env, errStr, plc_open_ptr->j_error, PLCIO_ERROR_CATEGORY_CONNECTION, plc_open_ptr->ac_errmsg);
       return -1;
     }
 
@@ -820,6 +899,8 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1close
 {
   char FUNCTION_NAME[] = "plc_close";
   char errStr[STR_MAX_LEN];
+  int plcioErrorCode = -1;
+  char plcioErrorString[STR_MAX_LEN];
   int returnVal = 0;
 
   if (!isInitialised)
@@ -850,6 +931,9 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1close
 	       "C - ERROR %s:JNI %s():%d - PLCIO plc_close() returned -1, PLCIO Err %d: %s",
 	       __FILE__, FUNCTION_NAME, __LINE__,
 	       plcConnArray[connNumber]->j_error, plcConnArray[connNumber]->ac_errmsg);
+      /* keep PLCIO err number and description for exception as PLC object is released below */
+      plcioErrorCode = plcConnArray[connNumber]->j_error;
+      snprintf(plcioErrorString, (STR_MAX_LEN - 1), "%s", plcConnArray[connNumber]->ac_errmsg);
 
       /* don't throw the PLCIO exception here as doing so will cause calls to
 	 (*env)->ExceptionOccurred(env) (e.g. made in logDebug()) to signal that
@@ -892,7 +976,7 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1close
 
   if (returnVal < 0) {
     /* throw the exception to signal that call to plc_close() (see above) failed */
-    throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, errStr);
+    throwPlcioException(env, errStr, plcioErrorCode, PLCIO_ERROR_CATEGORY_FROM_CODE, plcioErrorString);
   }
 
   return returnVal;
@@ -1005,7 +1089,7 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1read
 	       plcConnArray[connNumber]->j_error, plcConnArray[connNumber]->ac_errmsg);
 
       /* throw PLCIO exception */
-      throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, errStr);
+      throwPlcioException(env, errStr, plcConnArray[connNumber]->j_error, PLCIO_ERROR_CATEGORY_FROM_CODE, plcConnArray[connNumber]->ac_errmsg);
       return -1;
     }
 
@@ -1201,7 +1285,7 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1write
 	       plcConnArray[connNumber]->j_error, plcConnArray[connNumber]->ac_errmsg);
 
       /* throw PLCIO exception */
-      throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, errStr);
+      throwPlcioException(env, errStr, plcConnArray[connNumber]->j_error, PLCIO_ERROR_CATEGORY_FROM_CODE, plcConnArray[connNumber]->ac_errmsg);
       return -1;
     }
 
@@ -1272,7 +1356,7 @@ JNIEXPORT jint JNICALL Java_atst_giss_abplc_ABPlcioMaster_plc_1validaddr
 	       plcConnArray[connNumber]->j_error, plcConnArray[connNumber]->ac_errmsg);
 
       /* throw PLCIO exception */
-      throwJavaException(env, CLASS_ABPLCIO_EXCEPTION_PLCIO, errStr);
+      throwPlcioException(env, errStr, plcConnArray[connNumber]->j_error, PLCIO_ERROR_CATEGORY_FROM_CODE, plcConnArray[connNumber]->ac_errmsg);
       return -1;
     }
 